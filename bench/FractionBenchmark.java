@@ -0,0 +1,203 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * Fractionの各演算のスループットと1回あたりのメモリ割り当て量を計測するベンチマーク.
+ * 分子・分母のサイズ（long型に収まる値，128ビット，4096ビット）ごとに，
+ * ウォームアップの後で一定時間演算を繰り返し，ops/s と B/op を出力する.
+ * 引数に演算名を与えた場合はその演算のみを計測する（hashCodeはキャッシュを介さないハッシュ値の計算を計測する）.
+ * 計測条件はシステムプロパティ bench.warmup（回），bench.iterations（回），bench.time（ミリ秒）で変更できる
+ * （ant benchでは -Dbench.time=1000 のように指定する）
+ * @author 久保　由仁
+ */
+public class FractionBenchmark
+{
+    /** オペランドの個数（2のべき乗）. */
+    private static final int OPERAND_COUNT = 1024;
+    /** ウォームアップの回数. */
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    /** 計測の回数. */
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    /** 1回の計測時間（ミリ秒）. */
+    private static final long TIME = Long.getLong("bench.time", 500L);
+    /** オペランドのビット長（0はlong型に収まる値）. */
+    private static final int[] SIZES = { 0, 128, 4096 };
+    /** JITによる演算結果の除去を防ぐため，計測の最後に演算結果を公開する先. */
+    private static volatile Sink published;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 計測対象の演算.
+     */
+    private interface Operation
+    {
+        /**
+         * i番目のオペランドに対して演算を1回行い，結果を出力先に格納する.
+         * @param i オペランドの番号
+         * @param sink 演算結果の出力先
+         */
+        void run(int i, Sink sink);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ベンチマークを実行する.
+     * @param args 計測対象の演算名（省略時はすべて）
+     */
+    public static void main(final String[] args)
+    {
+        List<String> targets = Arrays.asList(args);
+        System.out.printf("%-12s %6s %16s %12s%n", "Benchmark", "Size", "ops/s", "B/op");
+        for(int size : SIZES)
+        {
+            Random rand = new Random(size);
+            final Fraction[] left = createFractions(rand, size);
+            final Fraction[] right = createFractions(rand, size);
+            final String[] texts = new String[OPERAND_COUNT];
+            final BigDecimal[] decimals = new BigDecimal[OPERAND_COUNT];
+            for(int i = 0; i < OPERAND_COUNT; i++)
+            {
+                texts[i] = left[i].getNumerator() + "/" + left[i].getDenominator();
+                decimals[i] = new BigDecimal(left[i].getNumerator(), 10);
+            }
+            List<String> names = new ArrayList<>();
+            List<Operation> operations = new ArrayList<>();
+            names.add("add");
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].add(right[i])));
+            names.add("multiply");
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].multiply(right[i])));
+            names.add("divide");
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].divide(right[i])));
+            names.add("compareTo");
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].compareTo(right[i])));
+            names.add("parse");
+            operations.add((int i, Sink sink) -> sink.consume(i, Fraction.parse(texts[i])));
+            names.add("ofDecimal");
+            operations.add((int i, Sink sink) -> sink.consume(i, Fraction.of(decimals[i])));
+            names.add("hashCode");
+            // hashCode()は値をキャッシュするため，キャッシュを介さないハッシュ値の計算を計測する
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].computeHash()));
+            names.add("toString");
+            operations.add((int i, Sink sink) -> sink.consume(i, left[i].toString()));
+            for(int k = 0; k < names.size(); k++)
+            {
+                if(!targets.isEmpty() && !targets.contains(names.get(k))) continue;
+                measure(names.get(k), size, operations.get(k));
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 指定したビット長の分子・分母を持つ0以外の分数を生成する.
+     * @param rand 乱数
+     * @param size ビット長（0はlong型に収まる値）
+     * @return 分数の配列
+     */
+    private static Fraction[] createFractions(final Random rand, final int size)
+    {
+        Fraction[] result = new Fraction[OPERAND_COUNT];
+        for(int i = 0; i < OPERAND_COUNT; i++)
+        {
+            if(size == 0)
+            {
+                long numerator = rand.nextInt(2000000) - 1000000;
+                result[i] = new Fraction(numerator == 0L ? 1L : numerator, rand.nextInt(1000000) + 1);
+            }
+            else
+            {
+                BigInteger numerator = new BigInteger(size, rand).setBit(size - 1);
+                BigInteger denominator = new BigInteger(size, rand).setBit(size - 1);
+                result[i] = new Fraction(rand.nextBoolean() ? numerator : numerator.negate(), denominator);
+            }
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 演算を計測して結果を出力する.
+     * @param name 演算名
+     * @param size オペランドのビット長
+     * @param operation 計測対象の演算
+     */
+    private static void measure(final String name, final int size, final Operation operation)
+    {
+        for(int i = 0; i < WARMUP; i++)
+        {
+            runFor(operation);
+        }
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long totalOps = 0L;
+        long totalNanos = 0L;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < ITERATIONS; i++)
+        {
+            long start = System.nanoTime();
+            totalOps += runFor(operation);
+            totalNanos += System.nanoTime() - start;
+        }
+        allocated = threadBean.getThreadAllocatedBytes(threadId) - allocated;
+        double opsPerSecond = totalOps * 1.0e9 / totalNanos;
+        System.out.printf("%-12s %6s %16.1f %12.1f%n", name, size == 0 ? "long" : Integer.toString(size),
+                          opsPerSecond, (double)allocated / totalOps);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 1回の計測時間の間，演算を繰り返す.
+     * @param operation 計測対象の演算
+     * @return 演算の実行回数
+     */
+    private static long runFor(final Operation operation)
+    {
+        Sink sink = new Sink();
+        long deadline = System.nanoTime() + TIME * 1000000L;
+        long count = 0L;
+        do
+        {
+            for(int i = 0; i < OPERAND_COUNT; i++)
+            {
+                operation.run(i, sink);
+            }
+            count += OPERAND_COUNT;
+        } while(System.nanoTime() < deadline);
+        published = sink;
+        return count;
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 演算結果の出力先.
+     * 結果の参照（またはint値）を配列に格納するだけで，ハッシュ値の計算などの余分な処理を計測に含めない
+     */
+    private static final class Sink
+    {
+        /** 演算結果の参照. */
+        private final Object[] references = new Object[OPERAND_COUNT];
+        /** int型の演算結果. */
+        private final int[] values = new int[OPERAND_COUNT];
+        //------------------------------------------------------------------------------------------
+        /**
+         * 演算結果の参照を格納する.
+         * @param i オペランドの番号
+         * @param result 演算結果
+         */
+        void consume(final int i, final Object result)
+        {
+            references[i] = result;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * int型の演算結果を格納する.
+         * @param i オペランドの番号
+         * @param result 演算結果
+         */
+        void consume(final int i, final int result)
+        {
+            values[i] = result;
+        }
+    }
+}
@@ -1,63 +1,173 @@
 ////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.math.BigInteger;
 import java.math.BigDecimal;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 ////////////////////////////////////////////////////////////////////////////////////////////////////
 /**
  * 分数クラス.
+ * 値は常に既約で，分母が正（符号は分子が持つ）の正規形で保持する.
+ * long型に収まる値はlong型で保持するが，サブクラスのインスタンスは保護フィールド（分子・分母）を
+ * 直接参照・変更できるよう，常にBigIntegerで保持する
  * @author 久保　由仁
  */
 public class Fraction extends Number implements Serializable, Comparable<Fraction>
 {
-    /** 分子. */
-    protected BigInteger numerator = BigInteger.ZERO;
-    /** 分母. */
-    protected BigInteger denominator = BigInteger.ONE;
+    private static final long serialVersionUID = 4759575667974652885L;
+    /** 分子（long型で表現している場合は{@link #getNumerator()}で初めて生成される，サブクラスでは常に設定される）. */
+    protected BigInteger numerator;
+    /** 分母（long型で表現している場合は{@link #getDenominator()}で初めて生成される，サブクラスでは常に設定される）. */
+    protected BigInteger denominator;
+    /** long型で表現した分子. */
+    private long longNumerator;
+    /** long型で表現した分母（0の場合はBigIntegerで表現している）. */
+    private long longDenominator;
+    /** hashCodeのキャッシュ（0は未計算）. */
+    private transient int hash;
+    /** double型で正確に表現できる整数の絶対値の上限（2^53）. */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    /** long型で表現できる10のべき乗（10^0～10^18）. */
+    static final long[] POWERS_OF_TEN = createPowersOfTen();
+    /** long型の整数平方根の最大値（floor(sqrt(Long.MAX_VALUE))）. */
+    private static final long MAX_LONG_SQRT = 3037000499L;
+    /** log10(2). */
+    private static final double LOG10_2 = Math.log10(2.0);
+    /** 小数の変換に用いる定数5. */
+    private static final BigInteger FIVE = BigInteger.valueOf(5L);
+    /** キャッシュする分子の絶対値の上限. */
+    private static final int CACHE_MAX_NUMERATOR = 16;
+    /** キャッシュする分母の上限. */
+    private static final int CACHE_MAX_DENOMINATOR = 16;
+    /** 分子・分母の小さな分数のキャッシュ（[分母 - 1][分子 + CACHE_MAX_NUMERATOR]）. */
+    private static final Fraction[][] CACHE = createCache();
+    /** 0. */
+    public static final Fraction ZERO = valueOf(0L);
+    /** 1. */
+    public static final Fraction ONE = valueOf(1L);
+    /** -1. */
+    public static final Fraction MINUS_ONE = valueOf(-1L);
+    /** 1/2. */
+    public static final Fraction ONE_HALF = valueOf(1L, 2L);
+    /** 1/3. */
+    public static final Fraction ONE_THIRD = valueOf(1L, 3L);
+    /** 1/4. */
+    public static final Fraction ONE_QUARTER = valueOf(1L, 4L);
     //----------------------------------------------------------------------------------------------
     /**
      * 文字列からFractionを作成する.
      * @param val 解析対象の文字列
      * @return 作成したFraction
      * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     * @see FractionParser
      */
     public static Fraction parse(final String val)
     {
         if(val == null) return null;
-        Pattern pattern = Pattern.compile("^([\\-\\+])?\\s*(\\d+)\\s*/\\s*(\\d+)$");
-        Matcher matcher = pattern.matcher(val.trim());
-        if(matcher.find())
-        {
-            BigInteger numeratorValue = new BigInteger(matcher.group(2));
-            BigInteger denominatorValue = new BigInteger(matcher.group(3));
-            Fraction frac = new Fraction(numeratorValue, denominatorValue);
-            if(matcher.group(1) != null && matcher.group(1).equals("-"))
+        return FractionParser.parse(val);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数を分母が1の分数に変換する.
+     * 絶対値の小さな値はキャッシュしたインスタンスを返す
+     * @param val 整数
+     * @return 変換した分数
+     */
+    public static Fraction valueOf(final long val)
+    {
+        return valueOf(val, 1L);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分子と分母から分数を生成する.
+     * 約分した分子・分母が小さな値の場合はキャッシュしたインスタンスを返す
+     * @param numerator 分子
+     * @param denominator 分母
+     * @return 生成した分数
+     * @throws IllegalArgumentException 分母が0となる場合
+     */
+    public static Fraction valueOf(final long numerator, final long denominator)
+    {
+        if(denominator == 0L) throw new IllegalArgumentException();
+        return reduced(numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 小数を分数に変換する.
+     * 非スケール値と10^scaleの最大公約数は2と5の因数だけなので，一般のGCDは使わずに
+     * 2と5の因数を取り除いて約分する．スケールが負の値（例: 1E+3）にも対応する
+     * @param val 変換対象の小数
+     * @return 変換した分数
+     */
+    public static Fraction of(final BigDecimal val)
+    {
+        if(val == null) return null;
+        BigInteger unscaled = val.unscaledValue();
+        int scale = val.scale();
+        if(unscaled.signum() == 0) return ZERO;
+        if(scale <= 0)
+        {
+            return coprime(scale == 0 ? unscaled : unscaled.multiply(BigInteger.TEN.pow(-scale)), BigInteger.ONE);
+        }
+        if(scale < POWERS_OF_TEN.length && fitsLong(unscaled))
+        {
+            long num = unscaled.longValue();
+            int twos = Math.min(Long.numberOfTrailingZeros(num), scale);
+            num >>= twos;
+            int fives = 0;
+            while(fives < scale && num % 5L == 0L)
             {
-                frac = frac.multiply(-1);
+                num /= 5L;
+                fives++;
             }
-            return frac;
+            // 5^k = 10^k / 2^k
+            long powerOfFive = POWERS_OF_TEN[scale - fives] >> (scale - fives);
+            return canonical(num, powerOfFive << (scale - twos));
         }
-        else
+        int twos = Math.min(unscaled.getLowestSetBit(), scale);
+        BigInteger num = unscaled.shiftRight(twos);
+        int fives = 0;
+        while(fives < scale)
         {
-            throw new IllegalArgumentException(val);
+            BigInteger[] division = num.divideAndRemainder(FIVE);
+            if(division[1].signum() != 0) break;
+            num = division[0];
+            fives++;
         }
+        return coprime(num, FIVE.pow(scale - fives).shiftLeft(scale - twos));
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 小数を分数に変換する.
-     * @param val 変換対象の小数
+     * double値を分数に変換する.
+     * double値に丸められる実数の範囲のうち，最も分母（同じ分母なら分子の絶対値）の小さい分数を返す.
+     * 例えば0.1は 1/10 に変換され，{@link #doubleValue()}で元のdouble値に戻る.
+     * ただし隣のdouble値との間隔が1以上の大きな値（整数しか表せない値）は，double値そのものを正確に表す整数を返す
+     * @param val 変換対象の値
      * @return 変換した分数
+     * @throws IllegalArgumentException NaNまたは無限大を与えた場合
      */
-    public static Fraction of(final BigDecimal val)
+    public static Fraction of(final double val)
     {
-        if(val == null) return null;
-        BigInteger num = val.multiply(BigDecimal.TEN.pow(val.scale())).toBigInteger();
-        return new Fraction(num, BigInteger.TEN.pow(val.scale()));
+        if(Double.isNaN(val) || Double.isInfinite(val)) throw new IllegalArgumentException();
+        if(val == 0.0) return ZERO;
+        double magnitude = Math.abs(val);
+        Fraction exact = exactValue(magnitude);
+        if(Math.ulp(magnitude) >= 1.0) return val < 0.0 ? exact.negate() : exact;
+        Fraction lower = exact.add(exactValue(Math.nextDown(magnitude))).divide(2L);
+        Fraction upper = exact.add(exactValue(Math.ulp(magnitude)).divide(2L));
+        Fraction result = simplestBetween(lower, upper);
+        return val < 0.0 ? result.negate() : result;
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * コンストラクタ.
+     * コンストラクタ（約分して正規形にする）.
      * @param numerator 分子
      * @param denominator 分母
      * @throws NullPointerException 分母または分子がnullの場合
@@ -67,8 +177,17 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
     {
         if(denominator == null || numerator == null) throw new NullPointerException();
         if(denominator.equals(BigInteger.ZERO)) throw new IllegalArgumentException();
-        this.numerator = numerator;
-        this.denominator = denominator;
+        BigInteger gcd = gcd(numerator, denominator);
+        if(denominator.signum() < 0) gcd = gcd.negate();
+        if(gcd.equals(BigInteger.ONE))
+        {
+            assign(numerator, denominator);
+        }
+        else
+        {
+            assign(numerator.divide(gcd), denominator.divide(gcd));
+        }
+        expandForSubclass();
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -81,13 +200,30 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * コンストラクタ.
+     * コンストラクタ（約分して正規形にする）.
      * @param numerator 分子
      * @param denominator 分母
+     * @throws IllegalArgumentException 分母が0となる場合
      */
     public Fraction(final long numerator, final long denominator)
     {
-        this(new BigInteger(Long.toString(numerator)), new BigInteger(Long.toString(denominator)));
+        if(denominator == 0L) throw new IllegalArgumentException();
+        if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+        {
+            Fraction reduced = reduced(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            this.numerator = reduced.numerator;
+            this.denominator = reduced.denominator;
+            this.longNumerator = reduced.longNumerator;
+            this.longDenominator = reduced.longDenominator;
+        }
+        else
+        {
+            long gcd = gcd(numerator, denominator);
+            if(denominator < 0L) gcd = -gcd;
+            this.longNumerator = numerator / gcd;
+            this.longDenominator = denominator / gcd;
+        }
+        expandForSubclass();
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -96,13 +232,62 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public Fraction(final long numerator)
     {
-        this(new BigInteger(Long.toString(numerator)));
+        this(numerator, 1L);
     }
     //----------------------------------------------------------------------------------------------
     /** デフォルトコンストラクタ.
      * サブクラスから呼び出すためのコンストラクタ
      */
-    protected Fraction() {}
+    protected Fraction()
+    {
+        this.numerator = BigInteger.ZERO;
+        this.denominator = BigInteger.ONE;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正規形の値から分数を生成する（約分や符号の調整は行わない）.
+     * @param longNumerator long型の分子
+     * @param longDenominator long型の分母（0の場合はBigIntegerで表現する）
+     * @param numerator 分子（long型で表現する場合はnull可）
+     * @param denominator 分母（long型で表現する場合はnull可）
+     */
+    private Fraction(final long longNumerator, final long longDenominator,
+                     final BigInteger numerator, final BigInteger denominator)
+    {
+        this.longNumerator = longNumerator;
+        this.longDenominator = longDenominator;
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正規形の分子・分母をフィールドに設定する（long型で表現できる場合はlong型でも保持する）.
+     * @param numerator 分子
+     * @param denominator 分母（正の値）
+     */
+    private void assign(final BigInteger numerator, final BigInteger denominator)
+    {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        if(fitsLong(numerator) && fitsLong(denominator))
+        {
+            this.longNumerator = numerator.longValue();
+            this.longDenominator = denominator.longValue();
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * サブクラスのインスタンスの場合，long型の表現をやめてBigIntegerの表現にする.
+     * サブクラスは保護フィールドを直接参照・変更できるため，フィールドを常に設定し，値の唯一の表現とする
+     */
+    private void expandForSubclass()
+    {
+        if(getClass() == Fraction.class || !isCompact()) return;
+        this.numerator = BigInteger.valueOf(longNumerator);
+        this.denominator = BigInteger.valueOf(longDenominator);
+        this.longNumerator = 0L;
+        this.longDenominator = 0L;
+    }
     //----------------------------------------------------------------------------------------------
     /**
      * 分子を取得する.
@@ -110,7 +295,13 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public BigInteger getNumerator()
     {
-        return numerator;
+        BigInteger value = numerator;
+        if(value == null)
+        {
+            value = BigInteger.valueOf(longNumerator);
+            numerator = value;
+        }
+        return value;
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -119,7 +310,13 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public BigInteger getDenominator()
     {
-        return denominator;
+        BigInteger value = denominator;
+        if(value == null)
+        {
+            value = BigInteger.valueOf(longDenominator);
+            denominator = value;
+        }
+        return value;
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -129,35 +326,45 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public Fraction add(final Fraction another)
     {
-        if(another == null) throw new NullPointerException();
-        BigInteger gcd = denominator.gcd(another.denominator);
-        BigInteger lcm = denominator.multiply(another.denominator).divide(gcd);
-        BigInteger num1 = lcm.divide(denominator).multiply(numerator);
-        BigInteger num2 = lcm.divide(another.denominator).multiply(another.numerator);
-        Fraction result = new Fraction();
-        result.denominator  = lcm;
-        result.numerator = num1.add(num2);
-        return result.reduce();
+        return add(another, false);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 加算を行う
+     * 加算を行う.
+     * 整数kの加算は (分子 + k × 分母) / 分母 となり，結果は既約なのでGCDを求めない
      * @param another 加算対象の整数
      * @return 加算結果
+     * @throws NullPointerException 引数にnullを与えた場合
      */
     public Fraction add(final BigInteger another)
     {
-        return add(new Fraction(another));
+        if(another == null) throw new NullPointerException();
+        if(fitsLong(another)) return add(another.longValue());
+        return coprime(getNumerator().add(another.multiply(getDenominator())), getDenominator());
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 加算を行う
+     * 加算を行う.
+     * 整数kの加算は (分子 + k × 分母) / 分母 となり，結果は既約なのでGCDを求めない
      * @param another 加算対象の整数
      * @return 加算結果
      */
     public Fraction add(final long another)
     {
-        return add(new Fraction(another));
+        if(another == 0L) return this;
+        if(isCompact())
+        {
+            try
+            {
+                return canonical(Math.addExact(longNumerator, Math.multiplyExact(another, longDenominator)), longDenominator);
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        return coprime(getNumerator().add(BigInteger.valueOf(another).multiply(getDenominator())), getDenominator());
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -167,28 +374,94 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public Fraction subtract(final Fraction another)
     {
-        if(another == null) throw new NullPointerException();
-        return add(another.multiply(-1));
+        return add(another, true);
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 減算を行う.
+     * 整数kの減算は (分子 - k × 分母) / 分母 となり，結果は既約なのでGCDを求めない
      * @param another 減算対象の整数
      * @return 減算結果
+     * @throws NullPointerException 引数にnullを与えた場合
      */
     public Fraction subtract(final BigInteger another)
     {
-        return subtract(new Fraction(another));
+        if(another == null) throw new NullPointerException();
+        if(fitsLong(another)) return subtract(another.longValue());
+        return coprime(getNumerator().subtract(another.multiply(getDenominator())), getDenominator());
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 減算を行う.
+     * 整数kの減算は (分子 - k × 分母) / 分母 となり，結果は既約なのでGCDを求めない
      * @param another 減算対象の整数
      * @return 減算結果
      */
     public Fraction subtract(final long another)
     {
-        return subtract(new Fraction(another));
+        if(another == 0L) return this;
+        if(isCompact())
+        {
+            try
+            {
+                return canonical(Math.subtractExact(longNumerator, Math.multiplyExact(another, longDenominator)), longDenominator);
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        return coprime(getNumerator().subtract(BigInteger.valueOf(another).multiply(getDenominator())), getDenominator());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の加算または減算を行う（計測が有効な場合は演算を記録する）.
+     * @param another 加算対象の分数
+     * @param subtract true: 減算する, false: 加算する
+     * @return 計算結果
+     */
+    private Fraction add(final Fraction another, final boolean subtract)
+    {
+        if(!FractionMetrics.ENABLED) return sum(another, subtract);
+        return FractionMetrics.record(subtract ? FractionMetrics.Operation.SUBTRACT : FractionMetrics.Operation.ADD,
+                                      this, another, sum(another, subtract));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の加算または減算を行う（計測を伴わない本体）.
+     * @param another 加算対象の分数
+     * @param subtract true: 減算する, false: 加算する
+     * @return 計算結果
+     */
+    private Fraction sum(final Fraction another, final boolean subtract)
+    {
+        if(another == null) throw new NullPointerException();
+        if(isCompact() && another.isCompact())
+        {
+            long gcd = gcd(longDenominator, another.longDenominator);
+            long factor1 = another.longDenominator / gcd;
+            long factor2 = longDenominator / gcd;
+            try
+            {
+                long term1 = Math.multiplyExact(longNumerator, factor1);
+                long term2 = Math.multiplyExact(another.longNumerator, factor2);
+                long num = subtract ? Math.subtractExact(term1, term2) : Math.addExact(term1, term2);
+                return reduced(num, Math.multiplyExact(longDenominator, factor1));
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        BigInteger den1 = getDenominator();
+        BigInteger den2 = another.getDenominator();
+        BigInteger gcd = gcd(den1, den2);
+        BigInteger lcm = den1.multiply(den2).divide(gcd);
+        BigInteger num1 = lcm.divide(den1).multiply(getNumerator());
+        BigInteger num2 = lcm.divide(den2).multiply(another.getNumerator());
+        return reduced(subtract ? num1.subtract(num2) : num1.add(num2), lcm);
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -197,36 +470,69 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      * @return 乗算結果
      */
     public Fraction multiply(final Fraction another)
+    {
+        if(!FractionMetrics.ENABLED) return product(another);
+        return FractionMetrics.record(FractionMetrics.Operation.MULTIPLY, this, another, product(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を行う（計測を伴わない本体）.
+     * @param another 乗算対象の分数
+     * @return 乗算結果
+     */
+    private Fraction product(final Fraction another)
     {
         if(another == null) throw new NullPointerException();
-        Fraction result = new Fraction();
-        result.numerator = numerator.multiply(another.numerator);
-        result.denominator = denominator.multiply(another.denominator);
-        return result.reduce();
+        if(isCompact() && another.isCompact())
+        {
+            Fraction result = multiplyCompact(longNumerator, longDenominator,
+                                              another.longNumerator, another.longDenominator);
+            if(result != null) return result;
+        }
+        return reduced(getNumerator().multiply(another.getNumerator()),
+                       getDenominator().multiply(another.getDenominator()));
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 乗算を行う.
+     * 整数kの乗算は分母とkのGCDを1回求めるだけで既約な結果が得られる
      * @param another 乗算対象の整数
      * @return 乗算結果
+     * @throws NullPointerException 引数にnullを与えた場合
      */
     public Fraction multiply(final BigInteger another)
     {
         if(another == null) throw new NullPointerException();
-        Fraction result = new Fraction();
-        result.numerator = numerator.multiply(another);
-        result.denominator = denominator;
-        return result.reduce();
+        if(fitsLong(another)) return multiply(another.longValue());
+        BigInteger gcd = gcd(another, getDenominator());
+        return coprime(getNumerator().multiply(another.divide(gcd)), getDenominator().divide(gcd));
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 乗算を行う.
+     * 整数kの乗算は分母とkのGCDを1回求めるだけで既約な結果が得られる
      * @param another 乗算対象の整数
      * @return 乗算結果
      */
     public Fraction multiply(final long another)
     {
-        return multiply(new BigInteger(Long.toString(another)));
+        if(another == 1L) return this;
+        if(isCompact() && another != Long.MIN_VALUE)
+        {
+            long gcd = gcd(another, longDenominator);
+            try
+            {
+                return canonical(Math.multiplyExact(longNumerator, another / gcd), longDenominator / gcd);
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        BigInteger factor = BigInteger.valueOf(another);
+        BigInteger gcd = gcd(factor, getDenominator());
+        return coprime(getNumerator().multiply(factor.divide(gcd)), getDenominator().divide(gcd));
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -237,17 +543,33 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      * @throws IllegalArgumentException 引数に0を与えた場合
      */
     public Fraction divide(final Fraction another)
+    {
+        if(!FractionMetrics.ENABLED) return quotient(another);
+        return FractionMetrics.record(FractionMetrics.Operation.DIVIDE, this, another, quotient(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を行う（計測を伴わない本体）.
+     * @param another 除算対象の分数
+     * @return 除算結果
+     */
+    private Fraction quotient(final Fraction another)
     {
         if(another == null) throw new NullPointerException();
-        if(another.numerator.equals(BigInteger.ZERO)) throw new IllegalArgumentException();
-        Fraction result = new Fraction();
-        result.numerator = numerator.multiply(another.denominator);
-        result.denominator = denominator.multiply(another.numerator);
-        return result.reduce();
+        if(another.isZero()) throw new IllegalArgumentException();
+        if(isCompact() && another.isCompact())
+        {
+            Fraction result = multiplyCompact(longNumerator, longDenominator,
+                                              another.longDenominator, another.longNumerator);
+            if(result != null) return result;
+        }
+        return reduced(getNumerator().multiply(another.getDenominator()),
+                       getDenominator().multiply(another.getNumerator()));
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 除算を行う.
+     * 整数kによる除算は分子とkのGCDを1回求めるだけで既約な結果が得られる
      * @param another 除算対象の整数
      * @return 除算結果
      * @throws NullPointerException 引数にnullを与えた場合
@@ -256,22 +578,125 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
     public Fraction divide(final BigInteger another)
     {
         if(another == null) throw new NullPointerException();
-        if(another.equals(BigInteger.ZERO)) throw new IllegalArgumentException();
-        Fraction result = new Fraction();
-        result.numerator = numerator;
-        result.denominator = denominator.multiply(another);
-        return result.reduce();
+        if(another.signum() == 0) throw new IllegalArgumentException();
+        if(fitsLong(another)) return divide(another.longValue());
+        if(isZero()) return this;
+        BigInteger gcd = gcd(getNumerator(), another);
+        if(another.signum() < 0) gcd = gcd.negate();
+        return coprime(getNumerator().divide(gcd), getDenominator().multiply(another.divide(gcd)));
     }
     //----------------------------------------------------------------------------------------------
     /**
      * 除算を行う.
+     * 整数kによる除算は分子とkのGCDを1回求めるだけで既約な結果が得られる
      * @param another 除算対象の整数
      * @return 除算結果
      * @throws IllegalArgumentException 引数に0を与えた場合
      */
     public Fraction divide(final long another)
     {
-        return divide(new BigInteger(Long.toString(another)));
+        if(another == 0L) throw new IllegalArgumentException();
+        if(another == 1L || isZero()) return this;
+        if(isCompact() && another != Long.MIN_VALUE)
+        {
+            long gcd = gcd(longNumerator, another);
+            try
+            {
+                return canonical(longNumerator / gcd, Math.multiplyExact(longDenominator, another / gcd));
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        BigInteger divisor = BigInteger.valueOf(another);
+        BigInteger gcd = gcd(getNumerator(), divisor);
+        if(another < 0L) gcd = gcd.negate();
+        return coprime(getNumerator().divide(gcd), getDenominator().multiply(divisor.divide(gcd)));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号を反転した分数を返す.
+     * 正規形のまま分子の符号を反転するだけなので，GCDは求めない
+     * @return 符号を反転した分数
+     */
+    public Fraction negate()
+    {
+        if(isCompact()) return canonical(-longNumerator, longDenominator);
+        return coprime(numerator.negate(), denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 逆数を返す.
+     * 分子と分母を入れ替えて符号を分子に寄せるだけなので，GCDは求めない
+     * @return 逆数
+     * @throws IllegalArgumentException 0の逆数を求めた場合
+     */
+    public Fraction reciprocal()
+    {
+        if(isZero()) throw new IllegalArgumentException();
+        if(isCompact()) return canonical(longDenominator, longNumerator);
+        if(numerator.signum() < 0) return coprime(denominator.negate(), numerator.negate());
+        return coprime(denominator, numerator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を行い，結果をコンテキストの分母の上限に丸める.
+     * @param another 加算対象の分数
+     * @param context 丸めに用いるコンテキスト
+     * @return 丸めた加算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction add(final Fraction another, final FractionContext context)
+    {
+        return context.round(add(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を行い，結果をコンテキストの分母の上限に丸める.
+     * @param another 減算対象の分数
+     * @param context 丸めに用いるコンテキスト
+     * @return 丸めた減算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction subtract(final Fraction another, final FractionContext context)
+    {
+        return context.round(subtract(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を行い，結果をコンテキストの分母の上限に丸める.
+     * @param another 乗算対象の分数
+     * @param context 丸めに用いるコンテキスト
+     * @return 丸めた乗算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction multiply(final Fraction another, final FractionContext context)
+    {
+        return context.round(multiply(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を行い，結果をコンテキストの分母の上限に丸める.
+     * @param another 除算対象の分数
+     * @param context 丸めに用いるコンテキスト
+     * @return 丸めた除算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 引数に0を与えた場合
+     */
+    public Fraction divide(final Fraction another, final FractionContext context)
+    {
+        return context.round(divide(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号を返す.
+     * @return -1: 負, 0: 0, 1: 正
+     */
+    public int signum()
+    {
+        return isCompact() ? Long.signum(longNumerator) : numerator.signum() * denominator.signum();
     }
     //----------------------------------------------------------------------------------------------
     /**
@@ -280,6 +705,10 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public boolean isNegative()
     {
+        if(isCompact())
+        {
+            return longNumerator < 0L;
+        }
         BigInteger zero = BigInteger.ZERO;
         if(numerator.equals(zero))
         {
@@ -297,136 +726,1238 @@ public class Fraction extends Number implements Serializable, Comparable<Fractio
      */
     public Fraction abs()
     {
-        return isNegative() ? this.multiply(-1) : this;
+        return isNegative() ? negate() : this;
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 約分する.
-     * @return 約分した分数
+     * べき乗を求める.
+     * 既約な分数のべき乗は既約なので，分子と分母をそれぞれ二乗と乗算の繰り返しで累乗するだけでGCDは求めない.
+     * 負の指数は逆数の累乗とする
+     * @param exponent 指数
+     * @return べき乗
+     * @throws IllegalArgumentException 0を負の指数で累乗した場合
      */
-    protected Fraction reduce()
+    public Fraction pow(final int exponent)
     {
-        BigInteger gcd = numerator.gcd(denominator);
-        return new Fraction(numerator.divide(gcd), denominator.divide(gcd));
+        if(exponent < 0)
+        {
+            Fraction inverse = reciprocal();
+            if(exponent == Integer.MIN_VALUE) return inverse.pow(Integer.MAX_VALUE).multiply(inverse);
+            return inverse.pow(-exponent);
+        }
+        if(exponent == 0) return ONE;
+        if(exponent == 1) return this;
+        if(isCompact())
+        {
+            try
+            {
+                return canonical(powExact(longNumerator, exponent), powExact(longDenominator, exponent));
+            }
+            catch(ArithmeticException e)
+            {
+                // 桁あふれした場合はBigIntegerで計算する
+                if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            }
+        }
+        return coprime(getNumerator().pow(exponent), getDenominator().pow(exponent));
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 他の分数との大小を比較する.
-     * @param another 比較対象の分数
-     * @return 大小比較の結果
+     * 平方根を正確に求める.
+     * 既約な分数の平方根が有理数となるのは分子と分母がともに平方数の場合に限られ，その結果も既約である
+     * @return 平方根
+     * @throws IllegalArgumentException 負の値の平方根を求めた場合
+     * @throws ArithmeticException 平方根が有理数とならない場合
+     * @see #sqrt(long)
      */
-    @Override
-    public int compareTo(final Fraction another)
+    public Fraction sqrt()
     {
-        if(another == null)
-        {
-            throw new NullPointerException();
-        }
-        Fraction diff = subtract(another);
-        if(diff.numerator.equals(BigInteger.ZERO))
+        if(isNegative()) throw new IllegalArgumentException();
+        if(isCompact())
         {
-            return 0;
+            long num = sqrtFloor(longNumerator);
+            long den = sqrtFloor(longDenominator);
+            if(num * num != longNumerator || den * den != longDenominator) throw new ArithmeticException();
+            return canonical(num, den);
         }
-        return diff.isNegative() ? -1 : 1;
+        BigInteger[] num = numerator.sqrtAndRemainder();
+        BigInteger[] den = denominator.sqrtAndRemainder();
+        if(num[1].signum() != 0 || den[1].signum() != 0) throw new ArithmeticException();
+        return coprime(num[0], den[0]);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 分数の文字列表現を返す.
-     * @return この分数を表す文字列
+     * 平方根を含む区間を求める.
+     * @param denominator 区間の端点の分母（区間の幅は 1 / denominator 以下）
+     * @return 平方根を含む区間
+     * @throws IllegalArgumentException 負の値の平方根を求めた場合，分母が正でない場合
+     * @see #nthRoot(int, long)
      */
-    @Override
-    public String toString()
+    public FractionInterval sqrt(final long denominator)
     {
-        if(denominator == null || numerator == null) return "";
-        String sign = isNegative() ? "-" : "";
-        Fraction reduced = this.reduce();
-        BigInteger newNumerator = reduced.numerator.abs();
-        BigInteger newDenominator = reduced.denominator.abs();
-        if(newDenominator.equals(BigInteger.ONE))
-        {
-            return String.format("%s%d", sign, newNumerator);
-        }
-        else
-        {
-            return String.format("%s (%d / %d)", sign, newNumerator, newDenominator).trim();
-        }
+        return nthRoot(2, denominator);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * 値が等しいか判定する.
-     * @param another 比較対象オブジェクト
-     * @return 等値の場合：true
+     * n乗根を含む区間を求める.
+     * 端点はn乗根をdenominator倍した値の切り捨てと切り上げをdenominatorで割った値とし，
+     * n乗根がその格子上にある場合は1点の区間となる.
+     * 負の値は奇数乗根のみ求められる
+     * @param degree 根の次数
+     * @param denominator 区間の端点の分母（区間の幅は 1 / denominator 以下）
+     * @return n乗根を含む区間
+     * @throws IllegalArgumentException 次数または分母が正でない場合，負の値の偶数乗根を求めた場合
      */
-    @Override
-    public boolean equals(final Object another)
+    public FractionInterval nthRoot(final int degree, final long denominator)
     {
-        if(another == this) return true;
-        if(another == null) return false;
-        if(another instanceof Fraction)
-        {
-            return compareTo((Fraction)another) == 0;
-        }
-        else
+        if(degree <= 0 || denominator <= 0L) throw new IllegalArgumentException();
+        boolean negative = isNegative();
+        if(negative && (degree & 1) == 0) throw new IllegalArgumentException();
+        BigInteger scale = BigInteger.valueOf(denominator);
+        // floor(root(x) × D) = floor(root(floor(|x| × D^n)))
+        BigInteger[] division = getNumerator().abs().multiply(scale.pow(degree)).divideAndRemainder(getDenominator());
+        BigInteger root = integerRoot(division[0], degree);
+        Fraction lower = new Fraction(root, scale);
+        Fraction upper = lower;
+        if(division[1].signum() != 0 || !root.pow(degree).equals(division[0]))
         {
-            return false;
+            upper = new Fraction(root.add(BigInteger.ONE), scale);
         }
+        return negative ? FractionInterval.of(upper.negate(), lower.negate()) : FractionInterval.of(lower, upper);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * このオブジェクトのhashCodeを返す.
-     * @return hashCode
+     * 値以下の最大の整数を求める.
+     * @return 床関数の値
      */
-    @Override
-    public int hashCode()
+    public Fraction floor()
     {
-        Fraction reduced = reduce();
-        int hash = 7;
-        hash = 31 * hash + reduced.numerator.intValue();
-        hash = 31 * hash + reduced.denominator.intValue();
-        return hash;
+        return round(RoundingMode.FLOOR);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * double型に変換する.
-     * double型で表した値（精度が落ちることに注意）
+     * 値以上の最小の整数を求める.
+     * @return 天井関数の値
      */
-    @Override
-    public double doubleValue()
+    public Fraction ceil()
     {
-        if(denominator == null || numerator == null)
-        {
-            return Double.NaN;
-        }
-        return numerator.doubleValue() / denominator.doubleValue();
+        return round(RoundingMode.CEILING);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * float型に変換する.
-     * float型で表した値（精度が落ちることに注意）
+     * 最も近い整数に丸める（中間の値は絶対値が大きくなる方向に丸める）.
+     * @return 丸めた整数
      */
-    @Override
-    public float floatValue()
+    public Fraction round()
     {
-        return (float)doubleValue();
+        return round(RoundingMode.HALF_UP);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * long型に変換する.
-     * long型で表した値（精度が落ちることに注意）
+     * 丸めモードに従って整数に丸める.
+     * @param mode 丸めモード
+     * @return 丸めた整数
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで値が整数でない場合
      */
-    @Override
-    public long longValue()
+    public Fraction round(final RoundingMode mode)
     {
-        return (long)doubleValue();
+        if(mode == null) throw new NullPointerException();
+        boolean negative = isNegative();
+        if(isCompact())
+        {
+            long magnitude = Math.abs(longNumerator);
+            long quotient = magnitude / longDenominator;
+            if(roundsAway(quotient, magnitude % longDenominator, longDenominator, negative, mode)) quotient++;
+            return canonical(negative ? -quotient : quotient, 1L);
+        }
+        BigInteger[] division = numerator.abs().divideAndRemainder(denominator);
+        BigInteger quotient = division[0];
+        if(division[1].signum() != 0
+           && roundsAway(quotient.testBit(0), division[1].shiftLeft(1).compareTo(denominator), negative, mode))
+        {
+            quotient = quotient.add(BigInteger.ONE);
+        }
+        return coprime(negative ? quotient.negate() : quotient, BigInteger.ONE);
     }
     //----------------------------------------------------------------------------------------------
     /**
-     * int型に変換する.
-     * int型で表した値（精度が落ちることに注意）
+     * 小数部（値から床関数の値を引いたもの）を求める.
+     * 分子を分母で割った非負の余りを分子とするだけで，結果は既約なのでGCDは求めない
+     * @return 0以上1未満の小数部
      */
-    @Override
-    public int intValue()
+    public Fraction fractionalPart()
     {
-        return (int)doubleValue();
+        if(isCompact())
+        {
+            long remainder = Math.floorMod(longNumerator, longDenominator);
+            return remainder == 0L ? ZERO : canonical(remainder, longDenominator);
+        }
+        BigInteger remainder = numerator.mod(denominator);
+        return remainder.signum() == 0 ? ZERO : coprime(remainder, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 連分数展開する.
+     * 先頭の項は床関数による整数部（負の値の場合は負），以降の項は正の整数となる.
+     * 最後の項は1より大きい（整数の場合は整数部のみ）
+     * @return 連分数の項 [a0; a1, a2, ...]
+     */
+    public BigInteger[] toContinuedFraction()
+    {
+        List<BigInteger> terms = new ArrayList<>();
+        if(isCompact())
+        {
+            long num = longNumerator;
+            long den = longDenominator;
+            while(den != 0L)
+            {
+                long term = Math.floorDiv(num, den);
+                terms.add(BigInteger.valueOf(term));
+                long rest = num - term * den;
+                num = den;
+                den = rest;
+            }
+        }
+        else
+        {
+            BigInteger num = numerator;
+            BigInteger den = denominator;
+            while(den.signum() != 0)
+            {
+                BigInteger[] division = num.divideAndRemainder(den);
+                if(division[1].signum() < 0)
+                {
+                    division[0] = division[0].subtract(BigInteger.ONE);
+                    division[1] = division[1].add(den);
+                }
+                terms.add(division[0]);
+                num = den;
+                den = division[1];
+            }
+        }
+        return terms.toArray(new BigInteger[terms.size()]);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 連分数から分数を生成する.
+     * @param terms 連分数の項 [a0; a1, a2, ...]（2番目以降の項は正の整数）
+     * @return 生成した分数
+     * @throws NullPointerException 引数または項にnullを与えた場合
+     * @throws IllegalArgumentException 項が空の場合または2番目以降の項が正でない場合
+     */
+    public static Fraction ofContinuedFraction(final BigInteger... terms)
+    {
+        if(terms == null) throw new NullPointerException();
+        if(terms.length == 0) throw new IllegalArgumentException();
+        BigInteger num = BigInteger.ONE;
+        BigInteger den = BigInteger.ZERO;
+        for(int i = terms.length - 1; i >= 0; i--)
+        {
+            if(i > 0 && terms[i].signum() <= 0) throw new IllegalArgumentException();
+            BigInteger next = terms[i].multiply(num).add(den);
+            den = num;
+            num = next;
+        }
+        return coprime(num, den);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母が上限以下の分数のうち，この分数に最も近いものを返す（最良近似分数）.
+     * 連分数の近似分数と中間近似分数から求める．距離が等しい場合は分母の小さい方を返す
+     * @param maxDenominator 分母の上限
+     * @return 最良近似分数（分母が上限以下の場合は自分自身）
+     * @throws IllegalArgumentException 分母の上限が正でない場合
+     */
+    public Fraction limitDenominator(final long maxDenominator)
+    {
+        if(maxDenominator <= 0L) throw new IllegalArgumentException();
+        if(isCompact())
+        {
+            if(longDenominator <= maxDenominator) return this;
+            return limitDenominatorCompact(maxDenominator);
+        }
+        BigInteger max = BigInteger.valueOf(maxDenominator);
+        if(denominator.compareTo(max) <= 0) return this;
+        BigInteger p0 = BigInteger.ZERO;
+        BigInteger q0 = BigInteger.ONE;
+        BigInteger p1 = BigInteger.ONE;
+        BigInteger q1 = BigInteger.ZERO;
+        BigInteger num = numerator;
+        BigInteger den = denominator;
+        while(true)
+        {
+            BigInteger[] division = num.divideAndRemainder(den);
+            if(division[1].signum() < 0)
+            {
+                division[0] = division[0].subtract(BigInteger.ONE);
+                division[1] = division[1].add(den);
+            }
+            BigInteger q2 = q0.add(division[0].multiply(q1));
+            if(q2.compareTo(max) > 0) break;
+            BigInteger p2 = p0.add(division[0].multiply(p1));
+            p0 = p1;
+            q0 = q1;
+            p1 = p2;
+            q1 = q2;
+            num = den;
+            den = division[1];
+        }
+        BigInteger k = max.subtract(q0).divide(q1);
+        Fraction bound1 = coprime(p0.add(k.multiply(p1)), q0.add(k.multiply(q1)));
+        Fraction bound2 = coprime(p1, q1);
+        return closer(bound2, bound1);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現した分数の最良近似分数を求める.
+     * 近似分数の分子・分母は元の分子・分母の絶対値を超えないため，long型の範囲で計算できる
+     * @param maxDenominator 分母の上限（元の分母より小さい値）
+     * @return 最良近似分数
+     */
+    private Fraction limitDenominatorCompact(final long maxDenominator)
+    {
+        long p0 = 0L;
+        long q0 = 1L;
+        long p1 = 1L;
+        long q1 = 0L;
+        long num = longNumerator;
+        long den = longDenominator;
+        while(true)
+        {
+            long term = Math.floorDiv(num, den);
+            long q2 = q0 + term * q1;
+            if(q2 > maxDenominator) break;
+            long p2 = p0 + term * p1;
+            p0 = p1;
+            q0 = q1;
+            p1 = p2;
+            q1 = q2;
+            long rest = num - term * den;
+            num = den;
+            den = rest;
+        }
+        long k = (maxDenominator - q0) / q1;
+        Fraction bound1 = canonical(p0 + k * p1, q0 + k * q1);
+        Fraction bound2 = canonical(p1, q1);
+        return closer(bound2, bound1);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの候補のうち，この分数に近い方を返す（距離が等しい場合は1つ目）.
+     * @param first 候補1
+     * @param second 候補2
+     * @return この分数に近い候補
+     */
+    private Fraction closer(final Fraction first, final Fraction second)
+    {
+        Fraction distance1 = subtract(first).abs();
+        Fraction distance2 = subtract(second).abs();
+        return distance1.compareTo(distance2) <= 0 ? first : second;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 開区間 (lower, upper) に含まれる分数のうち，分母が最も小さい分数を求める.
+     * 下限の連分数展開をたどり，上限と分岐した位置で打ち切る（Stern-Brocot木の探索と同じ）
+     * @param lower 下限（正の値）
+     * @param upper 上限（下限より大きい値）
+     * @return 区間内で最も簡単な分数
+     */
+    private static Fraction simplestBetween(final Fraction lower, final Fraction upper)
+    {
+        BigInteger lowerNum = lower.getNumerator();
+        BigInteger lowerDen = lower.getDenominator();
+        BigInteger upperNum = upper.getNumerator();
+        BigInteger upperDen = upper.getDenominator();
+        List<BigInteger> terms = new ArrayList<>();
+        while(true)
+        {
+            BigInteger[] division = lowerNum.divideAndRemainder(lowerDen);
+            BigInteger term = division[0];
+            BigInteger next = term.add(BigInteger.ONE);
+            if(next.multiply(upperDen).compareTo(upperNum) < 0)
+            {
+                // 区間内に整数がある場合は最小の整数で打ち切る
+                terms.add(next);
+                break;
+            }
+            terms.add(term);
+            BigInteger upperRest = upperNum.subtract(term.multiply(upperDen));
+            if(division[1].signum() == 0)
+            {
+                // 下限が整数の場合，残りの区間は (1 / (upper - term), ∞) となる
+                terms.add(upperDen.divide(upperRest).add(BigInteger.ONE));
+                break;
+            }
+            BigInteger nextUpperNum = lowerDen;
+            BigInteger nextUpperDen = division[1];
+            lowerNum = upperDen;
+            lowerDen = upperRest;
+            upperNum = nextUpperNum;
+            upperDen = nextUpperDen;
+        }
+        return ofContinuedFraction(terms.toArray(new BigInteger[terms.size()]));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 非負の有限なdouble値を正確に表す分数を返す.
+     * @param val 変換対象の値（非負の有限値）
+     * @return 変換した分数
+     */
+    private static Fraction exactValue(final double val)
+    {
+        long bits = Double.doubleToRawLongBits(val);
+        long mantissa = bits & 0x000FFFFFFFFFFFFFL;
+        int exponent = (int)(bits >>> 52) - 1075;
+        if(exponent == -1075)
+        {
+            exponent = -1074;
+        }
+        else
+        {
+            mantissa |= 1L << 52;
+        }
+        if(mantissa == 0L) return ZERO;
+        if(exponent >= 0) return new Fraction(BigInteger.valueOf(mantissa).shiftLeft(exponent));
+        int shift = Math.min(Long.numberOfTrailingZeros(mantissa), -exponent);
+        mantissa >>= shift;
+        exponent += shift;
+        if(exponent > -63) return canonical(mantissa, 1L << -exponent);
+        return coprime(BigInteger.valueOf(mantissa), BigInteger.ONE.shiftLeft(-exponent));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分する.
+     * 常に正規形で保持しているため，サブクラスがフィールドを直接書き換えた場合を除き自分自身を返す
+     * @return 約分した分数
+     */
+    protected Fraction reduce()
+    {
+        if(isCompact()) return this;
+        if(denominator.signum() > 0 && gcd(numerator, denominator).equals(BigInteger.ONE)) return this;
+        return reduced(numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 直列化の際に{@link FractionCodec}の形式で書き込む代理オブジェクトに置き換える.
+     * @return 代理オブジェクト
+     */
+    private Object writeReplace()
+    {
+        return new SerializedForm(this);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 旧形式（BigIntegerのフィールドをそのまま直列化した形式）の分数を復元する際に正規形にする.
+     * 旧形式にはlong型のフィールドが無いため，long型に収まる値はlong型の表現に作り直す
+     * @return 正規形の分数
+     * @throws StreamCorruptedException 分子・分母が無い場合，分母が0の場合
+     */
+    private Object readResolve() throws StreamCorruptedException
+    {
+        if(isCompact()) return this;
+        if(numerator == null || denominator == null || denominator.signum() == 0) throw new StreamCorruptedException();
+        return reduced(numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現しているか否かを判定する.
+     * @return true: long型で表現している, false: BigIntegerで表現している
+     */
+    boolean isCompact()
+    {
+        return longDenominator != 0L;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現した分子を取得する（{@link #isCompact()}がtrueの場合のみ有効）.
+     * @return 分子
+     */
+    long getLongNumerator()
+    {
+        return longNumerator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現した分母を取得する（{@link #isCompact()}がtrueの場合のみ有効）.
+     * @return 分母
+     */
+    long getLongDenominator()
+    {
+        return longDenominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が0か否かを判定する.
+     * @return true: 0, false: 0以外
+     */
+    private boolean isZero()
+    {
+        return isCompact() ? longNumerator == 0L : numerator.signum() == 0;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数がlong型で表現できるか否かを判定する（Long.MIN_VALUEは符号反転で桁あふれするため除く）.
+     * @param value 判定対象の整数
+     * @return true: 表現できる, false: 表現できない
+     */
+    private static boolean fitsLong(final BigInteger value)
+    {
+        return value.bitLength() < 64 && value.longValue() != Long.MIN_VALUE;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * BigIntegerの最大公約数を求める（計測が有効な場合は所要時間を記録する）.
+     * @param a 整数1
+     * @param b 整数2
+     * @return 最大公約数
+     */
+    private static BigInteger gcd(final BigInteger a, final BigInteger b)
+    {
+        return FractionMetrics.ENABLED ? FractionMetrics.gcd(a, b) : a.gcd(b);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型のべき乗を二乗と乗算の繰り返しで求める.
+     * @param base 底
+     * @param exponent 指数（正の値）
+     * @return べき乗
+     * @throws ArithmeticException 桁あふれした場合
+     */
+    private static long powExact(final long base, final int exponent)
+    {
+        long result = 1L;
+        long square = base;
+        int e = exponent;
+        while(true)
+        {
+            if((e & 1) != 0) result = Math.multiplyExact(result, square);
+            e >>>= 1;
+            if(e == 0) return result;
+            square = Math.multiplyExact(square, square);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 非負のlong型の整数平方根（切り捨て）を求める.
+     * @param value 非負の整数
+     * @return 平方根の切り捨て
+     */
+    private static long sqrtFloor(final long value)
+    {
+        // floor(sqrt(Long.MAX_VALUE)) = 3037000499 を超えないよう制限し，比較は除算で行って桁あふれを避ける
+        long root = Math.min((long)Math.sqrt((double)value), MAX_LONG_SQRT);
+        while(root > 0L && root > value / root) root--;
+        while(root < MAX_LONG_SQRT && root + 1L <= value / (root + 1L)) root++;
+        return root;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 非負の整数のn乗根（切り捨て）をニュートン法で求める.
+     * @param value 非負の整数
+     * @param degree 根の次数（正の値）
+     * @return n乗根の切り捨て
+     */
+    private static BigInteger integerRoot(final BigInteger value, final int degree)
+    {
+        if(degree == 1 || value.signum() == 0) return value;
+        if(degree == 2) return value.sqrt();
+        if(degree >= value.bitLength()) return BigInteger.ONE;
+        BigInteger n = BigInteger.valueOf(degree);
+        BigInteger nMinusOne = BigInteger.valueOf(degree - 1L);
+        // 2^ceil(bitLength / n) は真の根以上なので，上から単調に減少して切り捨ての根に収束する
+        BigInteger root = BigInteger.ONE.shiftLeft((value.bitLength() + degree - 1) / degree);
+        while(true)
+        {
+            BigInteger next = nMinusOne.multiply(root).add(value.divide(root.pow(degree - 1))).divide(n);
+            if(next.compareTo(root) >= 0) return root;
+            root = next;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * バイナリGCDで最大公約数を求める.
+     * 引数はいずれもLong.MIN_VALUE以外であること
+     * @param a 整数1
+     * @param b 整数2
+     * @return 最大公約数（両方0の場合は0）
+     */
+    static long gcd(long a, long b)
+    {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if(a == 0L) return b;
+        if(b == 0L) return a;
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        do
+        {
+            b >>= Long.numberOfTrailingZeros(b);
+            if(a > b)
+            {
+                long tmp = a;
+                a = b;
+                b = tmp;
+            }
+            b -= a;
+        } while(b != 0L);
+        return a << shift;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分し，符号を分子に寄せた分数を生成する.
+     * @param numerator 分子
+     * @param denominator 分母（0以外）
+     * @return 約分した分数
+     */
+    private static Fraction reduced(final long numerator, final long denominator)
+    {
+        if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+        {
+            return reduced(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        }
+        long gcd = gcd(numerator, denominator);
+        return canonical(numerator / gcd, denominator / gcd);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 既約な分子・分母から，符号を分子に寄せた分数を生成する.
+     * @param numerator 分子
+     * @param denominator 分母（0以外）
+     * @return 生成した分数
+     */
+    static Fraction canonical(final long numerator, final long denominator)
+    {
+        if(numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE)
+        {
+            return reduced(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        }
+        long num = numerator;
+        long den = denominator;
+        if(den < 0L)
+        {
+            num = -num;
+            den = -den;
+        }
+        if(den <= CACHE_MAX_DENOMINATOR && -CACHE_MAX_NUMERATOR <= num && num <= CACHE_MAX_NUMERATOR)
+        {
+            return CACHE[(int)den - 1][(int)num + CACHE_MAX_NUMERATOR];
+        }
+        return new Fraction(num, den, null, null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現できる10のべき乗の表を生成する.
+     * @return 10^0～10^18の表
+     */
+    private static long[] createPowersOfTen()
+    {
+        long[] powers = new long[19];
+        powers[0] = 1L;
+        for(int i = 1; i < powers.length; i++)
+        {
+            powers[i] = powers[i - 1] * 10L;
+        }
+        return powers;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分子・分母の小さな分数のキャッシュを生成する.
+     * 約分できる組み合わせには既約な分数と同じインスタンスを格納する
+     * @return キャッシュ
+     */
+    private static Fraction[][] createCache()
+    {
+        Fraction[][] cache = new Fraction[CACHE_MAX_DENOMINATOR][2 * CACHE_MAX_NUMERATOR + 1];
+        for(int den = 1; den <= CACHE_MAX_DENOMINATOR; den++)
+        {
+            for(int num = -CACHE_MAX_NUMERATOR; num <= CACHE_MAX_NUMERATOR; num++)
+            {
+                int gcd = (int)gcd(num, den);
+                if(gcd == 1)
+                {
+                    cache[den - 1][num + CACHE_MAX_NUMERATOR] = new Fraction(num, den, null, null);
+                }
+                else
+                {
+                    cache[den - 1][num + CACHE_MAX_NUMERATOR] = cache[den / gcd - 1][num / gcd + CACHE_MAX_NUMERATOR];
+                }
+            }
+        }
+        return cache;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 既約で分母が正の分子・分母から分数を生成する（約分は行わない）.
+     * @param numerator 分子
+     * @param denominator 分母（正の値）
+     * @return 生成した分数
+     */
+    static Fraction coprime(final BigInteger numerator, final BigInteger denominator)
+    {
+        if(fitsLong(numerator) && fitsLong(denominator))
+        {
+            return canonical(numerator.longValue(), denominator.longValue());
+        }
+        Fraction result = new Fraction(0L, 0L, null, null);
+        result.assign(numerator, denominator);
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分し，符号を分子に寄せた分数を生成する.
+     * @param numerator 分子
+     * @param denominator 分母（0以外）
+     * @return 約分した分数
+     */
+    private static Fraction reduced(final BigInteger numerator, final BigInteger denominator)
+    {
+        BigInteger gcd = gcd(numerator, denominator);
+        if(denominator.signum() < 0) gcd = gcd.negate();
+        Fraction result = new Fraction(0L, 0L, null, null);
+        result.assign(numerator.divide(gcd), denominator.divide(gcd));
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型のまま (n1 / d1) × (n2 / d2) を計算する.
+     * 先にたすき掛けで約分してから乗じるので，桁あふれしにくく，既約な引数からは既約な結果が得られる
+     * @param n1 分数1の分子
+     * @param d1 分数1の分母
+     * @param n2 分数2の分子
+     * @param d2 分数2の分母
+     * @return 乗算結果（桁あふれした場合はnull）
+     */
+    private static Fraction multiplyCompact(long n1, long d1, long n2, long d2)
+    {
+        long gcd1 = gcd(n1, d2);
+        long gcd2 = gcd(n2, d1);
+        if(gcd1 != 0L)
+        {
+            n1 /= gcd1;
+            d2 /= gcd1;
+        }
+        if(gcd2 != 0L)
+        {
+            n2 /= gcd2;
+            d1 /= gcd2;
+        }
+        try
+        {
+            return canonical(Math.multiplyExact(n1, n2), Math.multiplyExact(d1, d2));
+        }
+        catch(ArithmeticException e)
+        {
+            if(FractionMetrics.ENABLED) FractionMetrics.recordOverflow();
+            return null;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 他の分数との大小を比較する.
+     * @param another 比較対象の分数
+     * @return 大小比較の結果
+     */
+    @Override
+    public int compareTo(final Fraction another)
+    {
+        if(another == null)
+        {
+            throw new NullPointerException();
+        }
+        if(another == this) return 0;
+        if(isCompact() && another.isCompact())
+        {
+            return compareCompact(longNumerator, longDenominator, another.longNumerator, another.longDenominator);
+        }
+        int sign = signum();
+        int anotherSign = another.signum();
+        if(sign != anotherSign) return sign < anotherSign ? -1 : 1;
+        if(sign == 0) return 0;
+        BigInteger num1 = getNumerator();
+        BigInteger den1 = getDenominator();
+        BigInteger num2 = another.getNumerator();
+        BigInteger den2 = another.getDenominator();
+        if(den1.equals(den2)) return num1.compareTo(num2);
+        // |num1 × den2| と |num2 × den1| のビット長が2以上離れていれば乗算せずに大小が決まる
+        int size1 = num1.bitLength() + den2.bitLength();
+        int size2 = num2.bitLength() + den1.bitLength();
+        if(size1 > size2 + 1) return sign;
+        if(size2 > size1 + 1) return -sign;
+        return num1.multiply(den2).compareTo(num2.multiply(den1));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現した分数 (n1 / d1) と (n2 / d2) の大小を比較する.
+     * 分母はいずれも正であること
+     * @param n1 分数1の分子
+     * @param d1 分数1の分母
+     * @param n2 分数2の分子
+     * @param d2 分数2の分母
+     * @return 大小比較の結果
+     */
+    private static int compareCompact(final long n1, final long d1, final long n2, final long d2)
+    {
+        if(d1 == d2) return Long.compare(n1, n2);
+        int sign1 = Long.signum(n1);
+        int sign2 = Long.signum(n2);
+        if(sign1 != sign2) return sign1 < sign2 ? -1 : 1;
+        if(sign1 == 0) return 0;
+        long quotient1 = n1 / d1;
+        long quotient2 = n2 / d2;
+        if(quotient1 != quotient2) return quotient1 < quotient2 ? -1 : 1;
+        // 128ビットの積 n1 × d2 と n2 × d1 を比較する
+        long high1 = Math.multiplyHigh(n1, d2);
+        long high2 = Math.multiplyHigh(n2, d1);
+        if(high1 != high2) return high1 < high2 ? -1 : 1;
+        return Long.compareUnsigned(n1 * d2, n2 * d1);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の文字列表現を返す.
+     * 形式は{@link FractionFormat#DEFAULT}と同じ（例: "- (3 / 4)", "2"）
+     * @return この分数を表す文字列
+     */
+    @Override
+    public String toString()
+    {
+        if(!isCompact() && (denominator == null || numerator == null)) return "";
+        return FractionFormat.DEFAULT.appendTo(this, new StringBuilder()).toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の文字列表現をStringBuilderに書き込む.
+     * 書き込む内容は{@link #toString()}と同じ
+     * @param out 書き込み先
+     * @return 書き込み先
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public StringBuilder appendTo(final StringBuilder out)
+    {
+        return FractionFormat.DEFAULT.appendTo(this, out);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の文字列表現をAppendableに書き込む.
+     * 書き込む内容は{@link #toString()}と同じ
+     * @param <A> 書き込み先の型
+     * @param out 書き込み先
+     * @return 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public <A extends Appendable> A appendTo(final A out) throws IOException
+    {
+        return FractionFormat.DEFAULT.appendTo(this, out);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 非負の被除数を除数で割った商を，丸めモードに従って絶対値が大きくなる方向に丸めるか判定する.
+     * @param quotient 切り捨てた商（非負）
+     * @param remainder 余り（0以上除数未満）
+     * @param divisor 除数（正の値）
+     * @param negative 元の値が負か否か
+     * @param mode 丸めモード
+     * @return 商に1を加える場合：true
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで余りが0でない場合
+     */
+    static boolean roundsAway(final long quotient, final long remainder, final long divisor,
+                              final boolean negative, final RoundingMode mode)
+    {
+        if(remainder == 0L) return false;
+        return roundsAway((quotient & 1L) != 0L, Long.compare(remainder, divisor - remainder), negative, mode);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 余りが0でない除算の商を，丸めモードに従って絶対値が大きくなる方向に丸めるか判定する.
+     * @param odd 切り捨てた商が奇数か否か
+     * @param half 余りと (除数 - 余り) の比較結果（正: 中間より大きい, 0: 中間, 負: 中間より小さい）
+     * @param negative 元の値が負か否か
+     * @param mode 丸めモード
+     * @return 商に1を加える場合：true
+     * @throws ArithmeticException 丸めモードがUNNECESSARYの場合
+     */
+    private static boolean roundsAway(final boolean odd, final int half, final boolean negative, final RoundingMode mode)
+    {
+        switch(mode)
+        {
+        case UP:
+            return true;
+        case DOWN:
+            return false;
+        case CEILING:
+            return !negative;
+        case FLOOR:
+            return negative;
+        case HALF_UP:
+            return half >= 0;
+        case HALF_DOWN:
+            return half > 0;
+        case HALF_EVEN:
+            return half > 0 || (half == 0 && odd);
+        default:
+            throw new ArithmeticException();
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する.
+     * @param another 比較対象オブジェクト
+     * @return 等値の場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(another == null) return false;
+        if(another instanceof Fraction)
+        {
+            Fraction frac = (Fraction)another;
+            if(isCompact() && frac.isCompact())
+            {
+                return longNumerator == frac.longNumerator && longDenominator == frac.longDenominator;
+            }
+            return compareTo(frac) == 0;
+        }
+        else
+        {
+            return false;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * 正規形の分子・分母を混ぜ合わせた値を初回に求めて保持する（値0の場合は毎回求める）.
+     * long型に収まる値は{@link FractionMap}と同じ{@link #hash(long, long)}で求めるため，表現形式によらず等しい値は同じhashCodeとなる
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        int h = hash;
+        if(h == 0)
+        {
+            h = computeHash();
+            hash = h;
+        }
+        return h;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正規形の分子・分母からhashCodeを求める（キャッシュは使わない）.
+     * サブクラスは分子・分母を直接設定できるため，正規形とは限らない場合のみ約分してから求める
+     * @return hashCode
+     */
+    int computeHash()
+    {
+        if(isCompact()) return hash(longNumerator, longDenominator);
+        BigInteger num = numerator;
+        BigInteger den = denominator;
+        if(getClass() != Fraction.class && (den.signum() < 0 || !gcd(num, den).equals(BigInteger.ONE)))
+        {
+            Fraction reduced = reduced(num, den);
+            num = reduced.getNumerator();
+            den = reduced.getDenominator();
+        }
+        if(fitsLong(num) && fitsLong(den)) return hash(num.longValue(), den.longValue());
+        return hash(num.hashCode(), den.hashCode());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正規形の分子・分母を混ぜ合わせたハッシュ値を求める.
+     * 下位32ビットが共通の大きな値同士でも衝突しないよう，64ビットのまま乗算とシフトで全ビットを拡散させる
+     * @param numerator 分子
+     * @param denominator 分母
+     * @return ハッシュ値
+     */
+    static int hash(final long numerator, final long denominator)
+    {
+        long h = numerator * 0x9E3779B97F4A7C15L + denominator;
+        h = (h ^ (h >>> 32)) * 0xD6E8FEB86659FD93L;
+        h = (h ^ (h >>> 32)) * 0xD6E8FEB86659FD93L;
+        return (int)(h ^ (h >>> 32));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 指定した精度のBigDecimalに変換する.
+     * 結果の指数を先に求めてスケールを決め，除算は1回だけ行う．
+     * 結果は{@code new BigDecimal(分子).divide(new BigDecimal(分母), mc)}と等しい
+     * @param mc 精度と丸めモード（精度0の場合は正確に変換する）
+     * @return 変換した小数
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで丸めが必要な場合，または精度0で有限小数とならない場合
+     */
+    public BigDecimal toBigDecimal(final MathContext mc)
+    {
+        if(mc == null) throw new NullPointerException();
+        if(isZero()) return BigDecimal.ZERO;
+        if(mc.getPrecision() == 0)
+        {
+            // 分母が2^a 5^bの場合のみ有限小数となり，スケールはmax(a, b)となる
+            BigInteger den = getDenominator();
+            int twos = den.getLowestSetBit();
+            den = den.shiftRight(twos);
+            int fives = 0;
+            while(!den.equals(BigInteger.ONE))
+            {
+                BigInteger[] division = den.divideAndRemainder(FIVE);
+                if(division[1].signum() != 0) throw new ArithmeticException();
+                den = division[0];
+                fives++;
+            }
+            return toBigDecimal(Math.max(twos, fives), RoundingMode.UNNECESSARY, true);
+        }
+        int scale = mc.getPrecision() - 1 - exponent10();
+        BigDecimal result = toBigDecimal(scale, mc.getRoundingMode(), true);
+        if(result.precision() > mc.getPrecision())
+        {
+            // 丸めで桁が繰り上がった場合（例: 9.99 → 10.0）は末尾の0を1桁落とす
+            result = new BigDecimal(result.unscaledValue().divide(BigInteger.TEN), result.scale() - 1);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 指定したスケールのBigDecimalに変換する.
+     * 結果は{@code new BigDecimal(分子).divide(new BigDecimal(分母), scale, roundingMode)}と等しい
+     * @param scale 小数点以下の桁数（負の値の場合は整数部を丸める）
+     * @param roundingMode 丸めモード
+     * @return 変換した小数
+     * @throws NullPointerException 丸めモードにnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで丸めが必要な場合
+     */
+    public BigDecimal toBigDecimal(final int scale, final RoundingMode roundingMode)
+    {
+        if(roundingMode == null) throw new NullPointerException();
+        return toBigDecimal(scale, roundingMode, false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 指定したスケールのBigDecimalに変換する.
+     * @param scale 小数点以下の桁数
+     * @param roundingMode 丸めモード
+     * @param strip 割り切れた場合に末尾の0をスケール0まで取り除くか否か
+     * @return 変換した小数
+     */
+    private BigDecimal toBigDecimal(final int scale, final RoundingMode roundingMode, final boolean strip)
+    {
+        boolean negative = signum() < 0;
+        BigDecimal result;
+        boolean exact;
+        if(isCompact() && 0 <= scale && scale < POWERS_OF_TEN.length
+           && Math.abs(longNumerator) <= Long.MAX_VALUE / POWERS_OF_TEN[scale])
+        {
+            long scaled = Math.abs(longNumerator) * POWERS_OF_TEN[scale];
+            long quotient = scaled / longDenominator;
+            long remainder = scaled % longDenominator;
+            if(roundsAway(quotient, remainder, longDenominator, negative, roundingMode)) quotient++;
+            result = BigDecimal.valueOf(negative ? -quotient : quotient, scale);
+            exact = remainder == 0L;
+        }
+        else
+        {
+            BigInteger dividend = getNumerator().abs();
+            BigInteger divisor = getDenominator();
+            if(scale >= 0)
+            {
+                dividend = dividend.multiply(BigInteger.TEN.pow(scale));
+            }
+            else
+            {
+                divisor = divisor.multiply(BigInteger.TEN.pow(-scale));
+            }
+            BigInteger[] division = dividend.divideAndRemainder(divisor);
+            BigInteger quotient = division[0];
+            exact = division[1].signum() == 0;
+            if(!exact && roundsAway(quotient.testBit(0), division[1].shiftLeft(1).compareTo(divisor), negative, roundingMode))
+            {
+                quotient = quotient.add(BigInteger.ONE);
+            }
+            result = new BigDecimal(negative ? quotient.negate() : quotient, scale);
+        }
+        if(strip && exact && scale > 0)
+        {
+            result = result.stripTrailingZeros();
+            if(result.scale() < 0) result = result.setScale(0);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 絶対値の10進の指数 floor(log10(|この分数|)) を求める（0以外であること）.
+     * ビット長から見積もった値を，10のべき乗との大小比較で補正する
+     * @return 10進の指数
+     */
+    private int exponent10()
+    {
+        BigInteger num = getNumerator().abs();
+        BigInteger den = getDenominator();
+        int estimate = (int)Math.floor((num.bitLength() - den.bitLength()) * LOG10_2);
+        while(compareWithPowerOfTen(num, den, estimate) < 0)
+        {
+            estimate--;
+        }
+        while(compareWithPowerOfTen(num, den, estimate + 1) >= 0)
+        {
+            estimate++;
+        }
+        return estimate;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数 (num / den) と10^exponentの大小を比較する.
+     * @param num 分子（非負）
+     * @param den 分母（正の値）
+     * @param exponent 10の指数
+     * @return 大小比較の結果
+     */
+    private static int compareWithPowerOfTen(final BigInteger num, final BigInteger den, final int exponent)
+    {
+        if(exponent >= 0) return num.compareTo(den.multiply(BigInteger.TEN.pow(exponent)));
+        return num.multiply(BigInteger.TEN.pow(-exponent)).compareTo(den);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * double型に変換する.
+     * 最も近いdouble値に丸める（中間の場合は偶数丸め）
+     * @return double型で表した値（精度が落ちることに注意）
+     */
+    @Override
+    public double doubleValue()
+    {
+        if(isCompact())
+        {
+            // 分子・分母がともに53ビット以内なら1回の浮動小数点除算で正しく丸められる
+            if(Math.abs(longNumerator) <= MAX_EXACT_DOUBLE && longDenominator <= MAX_EXACT_DOUBLE)
+            {
+                return (double)longNumerator / (double)longDenominator;
+            }
+            if((longDenominator & (longDenominator - 1L)) == 0L)
+            {
+                return Math.scalb((double)longNumerator, -Long.numberOfTrailingZeros(longDenominator));
+            }
+            return toDouble(BigInteger.valueOf(longNumerator), BigInteger.valueOf(longDenominator));
+        }
+        if(denominator == null || numerator == null)
+        {
+            return Double.NaN;
+        }
+        return toDouble(numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数 (numerator / denominator) を最も近いdouble値に丸める.
+     * 商が55～56ビットとなるようにシフトしてから1回だけ整数除算を行い，
+     * 余りの有無を最下位ビットに含めて偶数丸めする（非正規化数の範囲も正しく丸める）
+     * @param numerator 分子
+     * @param denominator 分母（正の値）
+     * @return 最も近いdouble値
+     */
+    private static double toDouble(final BigInteger numerator, final BigInteger denominator)
+    {
+        int sign = numerator.signum();
+        if(sign == 0) return 0.0;
+        BigInteger magnitude = numerator.abs();
+        int difference = magnitude.bitLength() - denominator.bitLength();
+        if(difference > Double.MAX_EXPONENT + 1) return sign * Double.POSITIVE_INFINITY;
+        if(difference < Double.MIN_EXPONENT - 54) return sign * 0.0;
+        int shift = 55 - difference;
+        BigInteger dividend = shift > 0 ? magnitude.shiftLeft(shift) : magnitude;
+        BigInteger divisor = shift < 0 ? denominator.shiftLeft(-shift) : denominator;
+        BigInteger[] division = dividend.divideAndRemainder(divisor);
+        long quotient = division[0].longValue();
+        boolean sticky = division[1].signum() != 0;
+        int length = 64 - Long.numberOfLeadingZeros(quotient);
+        int exponent = length - 1 - shift;
+        int precision = exponent >= Double.MIN_EXPONENT ? 53 : 53 - (Double.MIN_EXPONENT - exponent);
+        int drop = length - precision;
+        if(drop >= 64) return sign * 0.0;
+        long mantissa = quotient >>> drop;
+        long rest = quotient & ((1L << drop) - 1L);
+        long half = 1L << (drop - 1);
+        if(rest > half || (rest == half && (sticky || (mantissa & 1L) != 0L)))
+        {
+            mantissa++;
+        }
+        return sign * Math.scalb((double)mantissa, drop - shift);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * float型に変換する.
+     * @return float型で表した値（精度が落ちることに注意）
+     */
+    @Override
+    public float floatValue()
+    {
+        return (float)doubleValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型に変換する.
+     * 0方向に切り捨てた整数部を返す．long型の範囲を超える場合は下位64ビットを返す
+     * @return long型で表した値
+     */
+    @Override
+    public long longValue()
+    {
+        if(isCompact())
+        {
+            return longNumerator / longDenominator;
+        }
+        return numerator.divide(denominator).longValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * int型に変換する.
+     * 0方向に切り捨てた整数部を返す．int型の範囲を超える場合は下位32ビットを返す
+     * @return int型で表した値
+     */
+    @Override
+    public int intValue()
+    {
+        return (int)longValue();
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 直列化用の代理クラス（{@link FractionCodec}の形式で読み書きする）.
+     */
+    private static final class SerializedForm implements Externalizable
+    {
+        private static final long serialVersionUID = 1L;
+        /** 直列化する分数. */
+        private Fraction value;
+        //------------------------------------------------------------------------------------------
+        /** 復元用のコンストラクタ. */
+        public SerializedForm() {}
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param value 直列化する分数
+         */
+        SerializedForm(final Fraction value)
+        {
+            this.value = value;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public void writeExternal(final ObjectOutput out) throws IOException
+        {
+            FractionCodec.write(out, value);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public void readExternal(final ObjectInput in) throws IOException
+        {
+            value = FractionCodec.read(in);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 復元した分数に置き換える.
+         * @return 復元した分数
+         */
+        private Object readResolve()
+        {
+            return value;
+        }
     }
 }
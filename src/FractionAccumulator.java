@@ -0,0 +1,361 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の累積加算を行う可変クラス.
+ * 途中結果は約分せずに保持し，分母のビット長が閾値を超えた場合と{@link #toFraction()}の呼び出し時にのみ約分する.
+ * 約分後の分母がなお大きい場合は，次に約分するビット長をその2倍に引き上げ，加算のたびに約分し直すことを避ける.
+ * 途中結果がlong型に収まる間はlong型のまま計算するため，Fractionオブジェクトを生成しない.
+ * このクラスはスレッドセーフではない
+ * @author 久保　由仁
+ */
+public class FractionAccumulator
+{
+    /** 約分を行う分母のビット長の既定値. */
+    public static final int DEFAULT_REDUCE_THRESHOLD = 256;
+    /** 約分を行う分母のビット長. */
+    private final int reduceThreshold;
+    /** 次に約分を行う分母のビット長（約分後の分母の大きさに応じて引き上げる）. */
+    private int reduceLimit;
+    /** long型で表現した分子. */
+    private long longNumerator = 0L;
+    /** long型で表現した分母（0の場合はBigIntegerで表現している）. */
+    private long longDenominator = 1L;
+    /** BigIntegerで表現した分子. */
+    private BigInteger numerator;
+    /** BigIntegerで表現した分母. */
+    private BigInteger denominator;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ（初期値は0）.
+     */
+    public FractionAccumulator()
+    {
+        this(DEFAULT_REDUCE_THRESHOLD);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ（初期値は0）.
+     * @param reduceThreshold 約分を行う分母のビット長
+     * @throws IllegalArgumentException 閾値が正でない場合
+     */
+    public FractionAccumulator(final int reduceThreshold)
+    {
+        if(reduceThreshold <= 0) throw new IllegalArgumentException();
+        this.reduceThreshold = reduceThreshold;
+        this.reduceLimit = reduceThreshold;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param initial 初期値
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionAccumulator(final Fraction initial)
+    {
+        this();
+        add(initial);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を加算する.
+     * @param value 加算対象の分数
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionAccumulator add(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        if(value.isCompact())
+        {
+            addTerm(value.getLongNumerator(), value.getLongDenominator());
+        }
+        else
+        {
+            addTerm(value.getNumerator(), value.getDenominator());
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数を加算する.
+     * @param value 加算対象の整数
+     * @return このオブジェクト
+     */
+    public FractionAccumulator add(final long value)
+    {
+        if(value == Long.MIN_VALUE)
+        {
+            addTerm(BigInteger.valueOf(value), BigInteger.ONE);
+        }
+        else
+        {
+            addTerm(value, 1L);
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 他の累積器の値を加算する.
+     * @param another 加算対象の累積器
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionAccumulator add(final FractionAccumulator another)
+    {
+        if(another == null) throw new NullPointerException();
+        if(another.isCompact())
+        {
+            addTerm(another.longNumerator, another.longDenominator);
+        }
+        else
+        {
+            addTerm(another.numerator, another.denominator);
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を減算する.
+     * @param value 減算対象の分数
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionAccumulator subtract(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        if(value.isCompact())
+        {
+            addTerm(-value.getLongNumerator(), value.getLongDenominator());
+        }
+        else
+        {
+            addTerm(value.getNumerator().negate(), value.getDenominator());
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数を減算する.
+     * @param value 減算対象の整数
+     * @return このオブジェクト
+     */
+    public FractionAccumulator subtract(final long value)
+    {
+        if(value == Long.MIN_VALUE)
+        {
+            addTerm(BigInteger.valueOf(value).negate(), BigInteger.ONE);
+        }
+        else
+        {
+            addTerm(-value, 1L);
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの分数の積を加算する（this += value1 × value2）.
+     * @param value1 乗算対象の分数1
+     * @param value2 乗算対象の分数2
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionAccumulator multiplyAdd(final Fraction value1, final Fraction value2)
+    {
+        if(value1 == null || value2 == null) throw new NullPointerException();
+        if(value1.isCompact() && value2.isCompact())
+        {
+            long num = 0L;
+            long den = 0L;
+            try
+            {
+                num = Math.multiplyExact(value1.getLongNumerator(), value2.getLongNumerator());
+                den = Math.multiplyExact(value1.getLongDenominator(), value2.getLongDenominator());
+            }
+            catch(ArithmeticException e)
+            {
+                den = 0L;
+            }
+            if(den != 0L && num != Long.MIN_VALUE)
+            {
+                addTerm(num, den);
+                return this;
+            }
+        }
+        addTerm(value1.getNumerator().multiply(value2.getNumerator()),
+                value1.getDenominator().multiply(value2.getDenominator()));
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの分数の配列の内積を加算する（this += Σ values1[i] × values2[i]）.
+     * @param values1 分数の配列1
+     * @param values2 分数の配列2
+     * @return このオブジェクト
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     * @throws IllegalArgumentException 配列の長さが異なる場合
+     */
+    public FractionAccumulator dotProduct(final Fraction[] values1, final Fraction[] values2)
+    {
+        if(values1 == null || values2 == null) throw new NullPointerException();
+        if(values1.length != values2.length) throw new IllegalArgumentException();
+        for(int i = 0; i < values1.length; i++)
+        {
+            multiplyAdd(values1[i], values2[i]);
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値を0に戻す.
+     */
+    public void reset()
+    {
+        longNumerator = 0L;
+        longDenominator = 1L;
+        numerator = null;
+        denominator = null;
+        reduceLimit = reduceThreshold;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 累積した値を約分した分数に変換する.
+     * @return 累積した値
+     */
+    public Fraction toFraction()
+    {
+        if(isCompact()) return Fraction.valueOf(longNumerator, longDenominator);
+        return new Fraction(numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 累積した値の文字列表現を返す.
+     * @return 累積した値を表す文字列
+     */
+    @Override
+    public String toString()
+    {
+        return toFraction().toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現しているか否かを判定する.
+     * @return true: long型で表現している, false: BigIntegerで表現している
+     */
+    private boolean isCompact()
+    {
+        return longDenominator != 0L;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分していない分数 (num / den) を加算する.
+     * long型で桁あふれする場合は一度約分してから再計算し，それでも桁あふれする場合はBigIntegerで計算する
+     * @param num 分子（Long.MIN_VALUE以外）
+     * @param den 分母（正の値）
+     */
+    void addTerm(final long num, final long den)
+    {
+        if(isCompact())
+        {
+            if(addCompact(num, den)) return;
+            reduceCompact();
+            if(isCompact() && addCompact(num, den)) return;
+        }
+        addTerm(BigInteger.valueOf(num), BigInteger.valueOf(den));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分していない分数 (num / den) を加算する.
+     * @param num 分子
+     * @param den 分母（正の値）
+     */
+    private void addTerm(final BigInteger num, final BigInteger den)
+    {
+        if(isCompact()) promote();
+        if(denominator.equals(den))
+        {
+            numerator = numerator.add(num);
+        }
+        else
+        {
+            BigInteger gcd = denominator.gcd(den);
+            BigInteger factor = den.divide(gcd);
+            numerator = numerator.multiply(factor).add(num.multiply(denominator.divide(gcd)));
+            denominator = denominator.multiply(factor);
+        }
+        if(denominator.bitLength() > reduceLimit) reduceBig();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型のまま加算する.
+     * @param num 分子（Long.MIN_VALUE以外）
+     * @param den 分母（正の値）
+     * @return true: 加算できた, false: 桁あふれした（値は変更しない）
+     */
+    private boolean addCompact(final long num, final long den)
+    {
+        try
+        {
+            if(longDenominator == den)
+            {
+                longNumerator = Math.addExact(longNumerator, num);
+                return true;
+            }
+            long gcd = Fraction.gcd(longDenominator, den);
+            long factor = den / gcd;
+            long newNumerator = Math.addExact(Math.multiplyExact(longNumerator, factor),
+                                              Math.multiplyExact(num, longDenominator / gcd));
+            longDenominator = Math.multiplyExact(longDenominator, factor);
+            longNumerator = newNumerator;
+            return true;
+        }
+        catch(ArithmeticException e)
+        {
+            return false;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現している値を約分する（分子がLong.MIN_VALUEの場合はBigIntegerに切り替える）.
+     */
+    private void reduceCompact()
+    {
+        if(longNumerator == Long.MIN_VALUE)
+        {
+            promote();
+            return;
+        }
+        long gcd = Fraction.gcd(longNumerator, longDenominator);
+        longNumerator /= gcd;
+        longDenominator /= gcd;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * BigIntegerで表現している値を約分し，long型に収まる場合はlong型に戻す.
+     * 次に約分を行うビット長は，閾値と約分後の分母のビット長の2倍の大きい方とする
+     */
+    private void reduceBig()
+    {
+        BigInteger gcd = numerator.gcd(denominator);
+        numerator = numerator.divide(gcd);
+        denominator = denominator.divide(gcd);
+        reduceLimit = (int)Math.max(reduceThreshold, Math.min(Integer.MAX_VALUE, 2L * denominator.bitLength()));
+        if(numerator.bitLength() < 64 && denominator.bitLength() < 64 && numerator.longValue() != Long.MIN_VALUE)
+        {
+            longNumerator = numerator.longValue();
+            longDenominator = denominator.longValue();
+            numerator = null;
+            denominator = null;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の表現からBigIntegerの表現に切り替える.
+     */
+    private void promote()
+    {
+        numerator = BigInteger.valueOf(longNumerator);
+        denominator = BigInteger.valueOf(longDenominator);
+        longDenominator = 0L;
+    }
+}
@@ -0,0 +1,366 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 複数のスレッドから分数を加算する共有の合計値（{@link java.util.concurrent.atomic.LongAdder}と同じ方式）.
+ * 競合がない間は1つの値をCASで更新し，競合が発生するとスレッドごとに振り分けたセルに部分和を保持する.
+ * 加算はロックを取らずにセルの値をCASで置き換えるだけで，セルは別オブジェクトとしてパディングするため
+ * 異なるスレッドのセルが同じキャッシュラインを奪い合うことはない.
+ * 部分和は{@link #sum()}の呼び出し時に{@link FractionAccumulator}で通分したまま合計し，最後に1回だけ約分する.
+ * sum()の結果は並行に行われている加算を含むとは限らない（その時点の原子的なスナップショットではない）
+ * @author 久保　由仁
+ */
+public class FractionAdder extends Number
+{
+    private static final long serialVersionUID = 1L;
+    /** セルの個数の上限（CPU数以上の2のべき乗）. */
+    private static final int MAX_CELLS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    /** {@link #base}のVarHandle. */
+    private static final VarHandle BASE;
+    /** {@link #cellsBusy}のVarHandle. */
+    private static final VarHandle CELLS_BUSY;
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(FractionAdder.class, "base", Fraction.class);
+            CELLS_BUSY = lookup.findVarHandle(FractionAdder.class, "cellsBusy", int.class);
+        }
+        catch(ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    /** スレッドごとのセルの選択に用いる値（0は未初期化）. */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[1]);
+    /** 競合がない場合に加算する値. */
+    private transient volatile Fraction base = Fraction.ZERO;
+    /** セルの表（競合が発生するまではnull，要素数は2のべき乗）. */
+    private transient volatile Cell[] cells;
+    /** セルの表を生成・拡張中か否か（CASで取得するスピンロック，加算自体はロックしない）. */
+    private transient volatile int cellsBusy;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ（初期値は0）.
+     */
+    public FractionAdder()
+    {
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を加算する.
+     * @param value 加算する分数
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public void add(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        Cell[] cs = cells;
+        if(cs == null)
+        {
+            Fraction current = base;
+            if(BASE.compareAndSet(this, current, current.add(value))) return;
+        }
+        else
+        {
+            int probe = PROBE.get()[0];
+            Cell cell = cs[probe & (cs.length - 1)];
+            if(probe != 0 && cell != null && cell.tryAdd(value)) return;
+        }
+        addContended(value);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数を加算する.
+     * @param value 加算する整数
+     */
+    public void add(final long value)
+    {
+        add(Fraction.valueOf(value));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を減算する.
+     * @param value 減算する分数
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public void subtract(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        add(value.negate());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 現在の合計を求める.
+     * @return 合計
+     */
+    public Fraction sum()
+    {
+        FractionAccumulator acc = new FractionAccumulator(base);
+        Cell[] cs = cells;
+        if(cs != null)
+        {
+            for(Cell cell : cs)
+            {
+                if(cell != null) acc.add(cell.value);
+            }
+        }
+        return acc.toFraction();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計を0に戻す.
+     * 並行に加算が行われていない場合にのみ正確に0となる
+     */
+    public void reset()
+    {
+        base = Fraction.ZERO;
+        Cell[] cs = cells;
+        if(cs != null)
+        {
+            for(Cell cell : cs)
+            {
+                if(cell != null) cell.value = Fraction.ZERO;
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計を求めてから0に戻す.
+     * 各セルの値を0と交換しながら合計するため，並行に行われた加算が失われることはない
+     * @return 0に戻す前の合計
+     */
+    public Fraction sumThenReset()
+    {
+        FractionAccumulator acc = new FractionAccumulator((Fraction)BASE.getAndSet(this, Fraction.ZERO));
+        Cell[] cs = cells;
+        if(cs != null)
+        {
+            for(Cell cell : cs)
+            {
+                if(cell != null) acc.add((Fraction)Cell.VALUE.getAndSet(cell, Fraction.ZERO));
+            }
+        }
+        return acc.toFraction();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計の文字列表現を返す.
+     * @return {@link #sum()}の文字列表現
+     */
+    @Override
+    public String toString()
+    {
+        return sum().toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計をdouble型に変換する.
+     * @return double型で表した合計
+     */
+    @Override
+    public double doubleValue()
+    {
+        return sum().doubleValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計をfloat型に変換する.
+     * @return float型で表した合計
+     */
+    @Override
+    public float floatValue()
+    {
+        return sum().floatValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計をlong型に変換する.
+     * @return long型で表した合計の整数部
+     */
+    @Override
+    public long longValue()
+    {
+        return sum().longValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計をint型に変換する.
+     * @return int型で表した合計の整数部
+     */
+    @Override
+    public int intValue()
+    {
+        return sum().intValue();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 直列化の際は合計のみを書き込む.
+     * @param out 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeObject(sum());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 書き込んだ合計を復元する.
+     * @param in 読み込み元
+     * @throws IOException 読み込みに失敗した場合
+     * @throws ClassNotFoundException 復元するクラスが見つからない場合
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        base = (Fraction)in.readObject();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 競合が発生した場合の加算を行う.
+     * セルの表を生成し，セルが競合し続ける場合は別のセルを選び直し，それでも競合する場合は表を拡張する
+     * @param value 加算する分数
+     */
+    private void addContended(final Fraction value)
+    {
+        int[] holder = PROBE.get();
+        if(holder[0] == 0) holder[0] = ThreadLocalRandom.current().nextInt() | 1;
+        boolean collide = false;
+        while(true)
+        {
+            Cell[] cs = cells;
+            if(cs == null)
+            {
+                if(cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1))
+                {
+                    try
+                    {
+                        if(cells == null)
+                        {
+                            Cell[] created = new Cell[2];
+                            created[holder[0] & 1] = new Cell(value);
+                            cells = created;
+                            return;
+                        }
+                    }
+                    finally
+                    {
+                        cellsBusy = 0;
+                    }
+                    continue;
+                }
+                Fraction current = base;
+                if(BASE.compareAndSet(this, current, current.add(value))) return;
+                continue;
+            }
+            int index = holder[0] & (cs.length - 1);
+            Cell cell = cs[index];
+            if(cell == null)
+            {
+                if(cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1))
+                {
+                    try
+                    {
+                        if(cells == cs && cs[index] == null)
+                        {
+                            cs[index] = new Cell(value);
+                            return;
+                        }
+                    }
+                    finally
+                    {
+                        cellsBusy = 0;
+                    }
+                }
+                collide = false;
+                continue;
+            }
+            if(cell.tryAdd(value)) return;
+            if(cs.length < MAX_CELLS && cells == cs && collide)
+            {
+                if(cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1))
+                {
+                    try
+                    {
+                        if(cells == cs)
+                        {
+                            Cell[] expanded = new Cell[cs.length * 2];
+                            System.arraycopy(cs, 0, expanded, 0, cs.length);
+                            cells = expanded;
+                        }
+                    }
+                    finally
+                    {
+                        cellsBusy = 0;
+                    }
+                    collide = false;
+                    continue;
+                }
+            }
+            else
+            {
+                collide = cs.length < MAX_CELLS && cells == cs;
+            }
+            // xorshiftで別のセルを選び直す
+            int probe = holder[0];
+            probe ^= probe << 13;
+            probe ^= probe >>> 17;
+            probe ^= probe << 5;
+            holder[0] = probe;
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 部分和を保持するセル.
+     * 前後をlong型のフィールドで埋め，隣接して割り当てられた別のセルと同じキャッシュラインに載らないようにする
+     */
+    private static final class Cell
+    {
+        /** {@link #value}のVarHandle. */
+        static final VarHandle VALUE;
+        static
+        {
+            try
+            {
+                VALUE = MethodHandles.lookup().findVarHandle(Cell.class, "value", Fraction.class);
+            }
+            catch(ReflectiveOperationException e)
+            {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        /** パディング. */
+        long p0, p1, p2, p3, p4, p5, p6;
+        /** 部分和. */
+        volatile Fraction value;
+        /** パディング. */
+        long q0, q1, q2, q3, q4, q5, q6;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param value 初期値
+         */
+        Cell(final Fraction value)
+        {
+            this.value = value;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 部分和に1回だけCASで加算を試みる.
+         * @param addend 加算する分数
+         * @return true: 加算できた, false: 他のスレッドと競合した
+         */
+        boolean tryAdd(final Fraction addend)
+        {
+            Fraction current = value;
+            return VALUE.compareAndSet(this, current, current.add(addend));
+        }
+    }
+}
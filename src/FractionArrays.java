@@ -0,0 +1,481 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の配列・リストに対する一括処理.
+ * 分母の最小公倍数は二分木の順に結合し（部分木同士の結合は大きさのそろった値同士のGCD 1回），
+ * 共通の分母を持つ分数の一括約分は分子の積の木（product tree）と剰余の木（remainder tree）で
+ * 分母を各分子で割った余りを求めてから，分子の大きさのGCDで約分する.
+ * 積の木は積が分母より小さい部分木に限って作り，分母以上となる部分（通分した分子など）は要素ごとに約分する.
+ * 要素数が多い場合，独立した部分木はFork/Joinで並列に処理する
+ * @author 久保　由仁
+ */
+public final class FractionArrays
+{
+    /** 部分木を並列に処理する要素数の下限. */
+    private static final int PARALLEL_THRESHOLD = 256;
+    /** 積の木の葉にまとめる要素数. */
+    private static final int LEAF_SIZE = 8;
+    //----------------------------------------------------------------------------------------------
+    /** インスタンス化を禁止する. */
+    private FractionArrays() {}
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての分母の最小公倍数を求める.
+     * @param values 分数の配列
+     * @return 分母の最小公倍数（要素がない場合は1）
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static BigInteger lcmOfDenominators(final Fraction[] values)
+    {
+        return lcmOfDenominators(Arrays.asList(values));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての分母の最小公倍数を求める.
+     * @param values 分数のリスト
+     * @return 分母の最小公倍数（要素がない場合は1）
+     * @throws NullPointerException 引数またはリストの要素にnullを与えた場合
+     */
+    public static BigInteger lcmOfDenominators(final List<Fraction> values)
+    {
+        if(values.size() < PARALLEL_THRESHOLD) return new LcmTask(values, 0, values.size()).compute();
+        return ForkJoinPool.commonPool().invoke(new LcmTask(values, 0, values.size()));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての分数を分母の最小公倍数で通分する.
+     * @param values 分数の配列
+     * @return 通分した結果
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static CommonDenominator toCommonDenominator(final Fraction[] values)
+    {
+        return toCommonDenominator(Arrays.asList(values));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての分数を分母の最小公倍数で通分する.
+     * @param values 分数のリスト
+     * @return 通分した結果
+     * @throws NullPointerException 引数またはリストの要素にnullを与えた場合
+     */
+    public static CommonDenominator toCommonDenominator(final List<Fraction> values)
+    {
+        BigInteger denominator = lcmOfDenominators(values);
+        BigInteger[] numerators = new BigInteger[values.size()];
+        parallel(numerators.length, (int i) ->
+        {
+            Fraction value = values.get(i);
+            numerators[i] = value.getNumerator().multiply(denominator.divide(value.getDenominator()));
+        });
+        return new CommonDenominator(numerators, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 共通の分母を持つ分数を一括して約分する.
+     * 分子の積の木を作り，分母を根から順に各部分木の積で割った余りを求めることで，
+     * 各分子について分母を分子で割った余りを得る．約分に必要なGCDは gcd(分子, 余り) となり，分子の大きさで済む.
+     * 積が分母以上となる部分木では余りが小さくならないため積を求めず，その部分の分子は分母とのGCDで個別に約分する
+     * @param numerators 分子
+     * @param denominator 共通の分母
+     * @return 約分した分数の配列
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     * @throws IllegalArgumentException 分母が0の場合
+     */
+    public static Fraction[] reduceAll(final BigInteger[] numerators, final BigInteger denominator)
+    {
+        if(denominator.signum() == 0) throw new IllegalArgumentException();
+        BigInteger[] magnitudes = new BigInteger[numerators.length];
+        for(int i = 0; i < numerators.length; i++)
+        {
+            // 0の分子は積に影響しないよう1として扱う（結果は0/1）
+            magnitudes[i] = numerators[i].signum() == 0 ? BigInteger.ONE : numerators[i].abs();
+        }
+        Fraction[] results = new Fraction[numerators.length];
+        if(numerators.length == 0) return results;
+        boolean negative = denominator.signum() < 0;
+        BigInteger positive = denominator.abs();
+        int limit = positive.bitLength();
+        ProductTreeTask treeTask = new ProductTreeTask(magnitudes, 0, magnitudes.length, limit);
+        Node tree = numerators.length < PARALLEL_THRESHOLD ? treeTask.compute() : ForkJoinPool.commonPool().invoke(treeTask);
+        BigInteger remainder = tree.product == null ? positive : positive.mod(tree.product);
+        RemainderTask task = new RemainderTask(tree, remainder, numerators, positive, negative, results);
+        if(numerators.length < PARALLEL_THRESHOLD)
+        {
+            task.compute();
+        }
+        else
+        {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return results;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの正の整数の最小公倍数を求める.
+     * @param a 整数1
+     * @param b 整数2
+     * @return 最小公倍数
+     */
+    private static BigInteger lcm(final BigInteger a, final BigInteger b)
+    {
+        if(a.equals(BigInteger.ONE)) return b;
+        if(b.equals(BigInteger.ONE)) return a;
+        return a.divide(a.gcd(b)).multiply(b);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0以上size未満の添字に対して処理を行う（要素数が閾値以上の場合は並列に行う）.
+     * @param size 要素数
+     * @param action 添字ごとの処理
+     */
+    private static void parallel(final int size, final IntConsumer action)
+    {
+        IntStream range = IntStream.range(0, size);
+        if(size >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(action);
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 共通の分母で通分した分数の並び（不変）.
+     */
+    public static final class CommonDenominator
+    {
+        /** 通分した分子. */
+        private final BigInteger[] numerators;
+        /** 共通の分母. */
+        private final BigInteger denominator;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param numerators 通分した分子
+         * @param denominator 共通の分母
+         */
+        private CommonDenominator(final BigInteger[] numerators, final BigInteger denominator)
+        {
+            this.numerators = numerators;
+            this.denominator = denominator;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 要素数を取得する.
+         * @return 要素数
+         */
+        public int size()
+        {
+            return numerators.length;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 共通の分母を取得する.
+         * @return 共通の分母（すべての分母の最小公倍数）
+         */
+        public BigInteger getDenominator()
+        {
+            return denominator;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 通分した分子を取得する.
+         * @param index 添字
+         * @return 分子
+         * @throws ArrayIndexOutOfBoundsException 添字が範囲外の場合
+         */
+        public BigInteger getNumerator(final int index)
+        {
+            return numerators[index];
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 通分した分子をすべて取得する（整数の重みとして用いる場合など）.
+         * @return 分子の配列（複製）
+         */
+        public BigInteger[] getNumerators()
+        {
+            return numerators.clone();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 約分して分数の配列に戻す.
+         * @return 分数の配列
+         * @see FractionArrays#reduceAll(BigInteger[], BigInteger)
+         */
+        public Fraction[] toFractions()
+        {
+            return reduceAll(numerators, denominator);
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * リストの部分範囲の分母の最小公倍数を求めるタスク.
+     */
+    private static final class LcmTask extends RecursiveTask<BigInteger>
+    {
+        private static final long serialVersionUID = 1L;
+        /** 分数のリスト. */
+        private final List<Fraction> values;
+        /** 開始位置. */
+        private final int start;
+        /** 終了位置（この位置の要素は含まない）. */
+        private final int end;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param values 分数のリスト
+         * @param start 開始位置
+         * @param end 終了位置（この位置の要素は含まない）
+         */
+        LcmTask(final List<Fraction> values, final int start, final int end)
+        {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected BigInteger compute()
+        {
+            if(end - start <= LEAF_SIZE) return leaf();
+            int middle = (start + end) >>> 1;
+            LcmTask left = new LcmTask(values, start, middle);
+            LcmTask right = new LcmTask(values, middle, end);
+            if(end - start < PARALLEL_THRESHOLD) return lcm(left.compute(), right.compute());
+            left.fork();
+            BigInteger r = right.compute();
+            return lcm(left.join(), r);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 葉の範囲の最小公倍数を，long型に収まる間はlong型のまま求める.
+         * @return 最小公倍数
+         */
+        private BigInteger leaf()
+        {
+            long small = 1L;
+            BigInteger big = BigInteger.ONE;
+            for(int i = start; i < end; i++)
+            {
+                Fraction value = values.get(i);
+                if(value.isCompact())
+                {
+                    long den = value.getLongDenominator();
+                    long factor = den / Fraction.gcd(small, den);
+                    if(small <= Long.MAX_VALUE / factor)
+                    {
+                        small *= factor;
+                        continue;
+                    }
+                }
+                big = lcm(big, value.getDenominator());
+            }
+            return lcm(big, BigInteger.valueOf(small));
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 積の木の節.
+     */
+    private static final class Node
+    {
+        /** 部分範囲の積（分母以上となるため求めない場合はnull）. */
+        final BigInteger product;
+        /** 左の子（葉の場合はnull）. */
+        final Node left;
+        /** 右の子（葉の場合はnull）. */
+        final Node right;
+        /** 開始位置. */
+        final int start;
+        /** 終了位置（この位置の要素は含まない）. */
+        final int end;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param product 部分範囲の積（求めない場合はnull）
+         * @param left 左の子
+         * @param right 右の子
+         * @param start 開始位置
+         * @param end 終了位置（この位置の要素は含まない）
+         */
+        Node(final BigInteger product, final Node left, final Node right, final int start, final int end)
+        {
+            this.product = product;
+            this.left = left;
+            this.right = right;
+            this.start = start;
+            this.end = end;
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 配列の部分範囲の積の木を作るタスク.
+     * 積のビット長が分母のビット長以上になり得る節では積を求めない
+     */
+    private static final class ProductTreeTask extends RecursiveTask<Node>
+    {
+        private static final long serialVersionUID = 1L;
+        /** 正の整数の配列. */
+        private final BigInteger[] values;
+        /** 開始位置. */
+        private final int start;
+        /** 終了位置（この位置の要素は含まない）. */
+        private final int end;
+        /** 分母のビット長（積はこれより短い場合のみ求める）. */
+        private final int limit;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param values 正の整数の配列
+         * @param start 開始位置
+         * @param end 終了位置（この位置の要素は含まない）
+         * @param limit 分母のビット長
+         */
+        ProductTreeTask(final BigInteger[] values, final int start, final int end, final int limit)
+        {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+            this.limit = limit;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected Node compute()
+        {
+            if(end - start <= LEAF_SIZE)
+            {
+                // ビット長の和が分母のビット長より短ければ，積は分母より小さい
+                long bits = 0L;
+                for(int i = start; i < end; i++)
+                {
+                    bits += values[i].bitLength();
+                }
+                if(bits >= limit) return new Node(null, null, null, start, end);
+                BigInteger product = values[start];
+                for(int i = start + 1; i < end; i++)
+                {
+                    product = product.multiply(values[i]);
+                }
+                return new Node(product, null, null, start, end);
+            }
+            int middle = (start + end) >>> 1;
+            ProductTreeTask leftTask = new ProductTreeTask(values, start, middle, limit);
+            ProductTreeTask rightTask = new ProductTreeTask(values, middle, end, limit);
+            Node left;
+            Node right;
+            if(end - start < PARALLEL_THRESHOLD)
+            {
+                left = leftTask.compute();
+                right = rightTask.compute();
+            }
+            else
+            {
+                leftTask.fork();
+                right = rightTask.compute();
+                left = leftTask.join();
+            }
+            if(left.product == null || right.product == null
+               || (long)left.product.bitLength() + right.product.bitLength() >= limit)
+            {
+                return new Node(null, left, right, start, end);
+            }
+            return new Node(left.product.multiply(right.product), left, right, start, end);
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 積の木を根から順にたどり，分母を各部分木の積で割った余りを求めて約分するタスク.
+     * 積を求めていない節では分母をそのまま子へ渡す
+     */
+    private static final class RemainderTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        /** 処理する節. */
+        private final Node node;
+        /** 分母を節の積で割った余り（節の積を求めていない場合は分母）. */
+        private final BigInteger remainder;
+        /** 分子. */
+        private final BigInteger[] numerators;
+        /** 分母（正の値）. */
+        private final BigInteger denominator;
+        /** 分母の符号が負か否か. */
+        private final boolean negative;
+        /** 約分結果の格納先. */
+        private final Fraction[] results;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param node 処理する節
+         * @param remainder 分母を節の積で割った余り（節の積を求めていない場合は分母）
+         * @param numerators 分子
+         * @param denominator 分母（正の値）
+         * @param negative 分母の符号が負か否か
+         * @param results 約分結果の格納先
+         */
+        RemainderTask(final Node node, final BigInteger remainder, final BigInteger[] numerators,
+                      final BigInteger denominator, final boolean negative, final Fraction[] results)
+        {
+            this.node = node;
+            this.remainder = remainder;
+            this.numerators = numerators;
+            this.denominator = denominator;
+            this.negative = negative;
+            this.results = results;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected void compute()
+        {
+            if(node.left == null)
+            {
+                for(int i = node.start; i < node.end; i++)
+                {
+                    results[i] = reduce(numerators[i]);
+                }
+                return;
+            }
+            RemainderTask left = child(node.left);
+            RemainderTask right = child(node.right);
+            if(node.end - node.start < PARALLEL_THRESHOLD)
+            {
+                left.compute();
+                right.compute();
+            }
+            else
+            {
+                invokeAll(left, right);
+            }
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 子の節のタスクを生成する.
+         * @param child 子の節
+         * @return タスク
+         */
+        private RemainderTask child(final Node child)
+        {
+            BigInteger childRemainder = child.product == null ? remainder : remainder.mod(child.product);
+            return new RemainderTask(child, childRemainder, numerators, denominator, negative, results);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 分子を約分する.
+         * @param numerator 分子
+         * @return 約分した分数
+         */
+        private Fraction reduce(final BigInteger numerator)
+        {
+            if(numerator.signum() == 0) return Fraction.ZERO;
+            BigInteger magnitude = numerator.abs();
+            BigInteger gcd = magnitude.gcd(remainder.mod(magnitude));
+            BigInteger num = numerator.divide(gcd);
+            return Fraction.coprime(negative ? num.negate() : num, denominator.divide(gcd));
+        }
+    }
+}
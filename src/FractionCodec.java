@@ -0,0 +1,383 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数のバイナリ形式への変換クラス.
+ * <p>
+ * 1つの分数は先頭の可変長整数（以下，見出し）で形式を区別する.
+ * long型に収まる分数は見出しを「分母 × 2」とし，続けて分子をジグザグ符号化した可変長整数で書く.
+ * long型に収まらない分数は見出しを1とし，続けて分子・分母の順に長さ（可変長整数）と2の補数表現のバイト列を書く.
+ * 可変長整数は下位から7ビットずつ，続きがあれば最上位ビットを立てて書く.
+ * 配列は要素数（可変長整数）に続けて各要素を書く.
+ * </p>
+ * 例えば 1/2 は2バイト，-3/4 は2バイトで表せる
+ * @author 久保　由仁
+ */
+public final class FractionCodec
+{
+    /** long型に収まらない分数の見出し. */
+    private static final long BIG_HEADER = 1L;
+    /** 可変長整数の最大バイト数. */
+    private static final int MAX_VARINT_BYTES = 10;
+    /** 読み込んだ長さを信用せずに一度に確保する配列の要素数の上限. */
+    private static final int CHUNK_SIZE = 8192;
+    //----------------------------------------------------------------------------------------------
+    /** インスタンス化を禁止する. */
+    private FractionCodec() {}
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を書き込む.
+     * @param out 書き込み先
+     * @param value 分数
+     * @throws IOException 書き込みに失敗した場合
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public static void write(final DataOutput out, final Fraction value) throws IOException
+    {
+        if(value.isCompact())
+        {
+            writeVarLong(out, value.getLongDenominator() << 1);
+            writeVarLong(out, zigzag(value.getLongNumerator()));
+        }
+        else
+        {
+            writeVarLong(out, BIG_HEADER);
+            writeBytes(out, value.getNumerator().toByteArray());
+            writeBytes(out, value.getDenominator().toByteArray());
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を読み込む.
+     * @param in 読み込み元
+     * @return 読み込んだ分数
+     * @throws IOException 読み込みに失敗した場合
+     * @throws StreamCorruptedException 形式が不正な場合
+     */
+    public static Fraction read(final DataInput in) throws IOException
+    {
+        long header = readVarLong(in);
+        if(header == BIG_HEADER)
+        {
+            BigInteger numerator = new BigInteger(readBytes(in));
+            BigInteger denominator = new BigInteger(readBytes(in));
+            if(denominator.signum() <= 0) throw new StreamCorruptedException();
+            return new Fraction(numerator, denominator);
+        }
+        long denominator = header >>> 1;
+        if((header & 1L) != 0L || denominator == 0L) throw new StreamCorruptedException();
+        return Fraction.valueOf(unzigzag(readVarLong(in)), denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の配列を書き込む.
+     * @param out 書き込み先
+     * @param values 分数の配列
+     * @throws IOException 書き込みに失敗した場合
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static void writeAll(final DataOutput out, final Fraction[] values) throws IOException
+    {
+        writeVarLong(out, values.length);
+        for(Fraction value : values)
+        {
+            write(out, value);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の配列を読み込む.
+     * 読み込んだ要素数の配列を一度に確保せず，要素を読み込んだ分だけ配列を広げる
+     * @param in 読み込み元
+     * @return 読み込んだ分数の配列
+     * @throws IOException 読み込みに失敗した場合
+     * @throws StreamCorruptedException 形式が不正な場合
+     */
+    public static Fraction[] readAll(final DataInput in) throws IOException
+    {
+        int length = toLength(readVarLong(in));
+        Fraction[] values = new Fraction[Math.min(length, CHUNK_SIZE)];
+        for(int i = 0; i < length; i++)
+        {
+            if(i == values.length) values = Arrays.copyOf(values, (int)Math.min(length, 2L * values.length));
+            values[i] = read(in);
+        }
+        return values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をバッファの現在位置に書き込む.
+     * @param buffer 書き込み先
+     * @param value 分数
+     * @throws java.nio.BufferOverflowException バッファの残りが足りない場合
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public static void write(final ByteBuffer buffer, final Fraction value)
+    {
+        if(value.isCompact())
+        {
+            writeVarLong(buffer, value.getLongDenominator() << 1);
+            writeVarLong(buffer, zigzag(value.getLongNumerator()));
+        }
+        else
+        {
+            writeVarLong(buffer, BIG_HEADER);
+            writeBytes(buffer, value.getNumerator().toByteArray());
+            writeBytes(buffer, value.getDenominator().toByteArray());
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * バッファの現在位置から分数を読み込む.
+     * @param buffer 読み込み元
+     * @return 読み込んだ分数
+     * @throws java.nio.BufferUnderflowException バッファの残りが足りない場合
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    public static Fraction read(final ByteBuffer buffer)
+    {
+        long header = readVarLong(buffer);
+        if(header == BIG_HEADER)
+        {
+            BigInteger numerator = new BigInteger(readBytes(buffer));
+            BigInteger denominator = new BigInteger(readBytes(buffer));
+            if(denominator.signum() <= 0) throw new IllegalArgumentException();
+            return new Fraction(numerator, denominator);
+        }
+        long denominator = header >>> 1;
+        if((header & 1L) != 0L || denominator == 0L) throw new IllegalArgumentException();
+        return Fraction.valueOf(unzigzag(readVarLong(buffer)), denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の配列をバッファの現在位置に書き込む.
+     * @param buffer 書き込み先
+     * @param values 分数の配列
+     * @throws java.nio.BufferOverflowException バッファの残りが足りない場合
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static void writeAll(final ByteBuffer buffer, final Fraction[] values)
+    {
+        writeVarLong(buffer, values.length);
+        for(Fraction value : values)
+        {
+            write(buffer, value);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * バッファの現在位置から分数の配列を読み込む.
+     * @param buffer 読み込み元
+     * @return 読み込んだ分数の配列
+     * @throws java.nio.BufferUnderflowException バッファの残りが足りない場合
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    public static Fraction[] readAll(final ByteBuffer buffer)
+    {
+        long length = readVarLong(buffer);
+        if(length < 0L || length > buffer.remaining()) throw new IllegalArgumentException();
+        Fraction[] values = new Fraction[(int)length];
+        for(int i = 0; i < values.length; i++)
+        {
+            values[i] = read(buffer);
+        }
+        return values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を書き込むのに必要なバイト数を求める.
+     * @param value 分数
+     * @return バイト数
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public static int encodedSize(final Fraction value)
+    {
+        if(value.isCompact())
+        {
+            return varLongSize(value.getLongDenominator() << 1) + varLongSize(zigzag(value.getLongNumerator()));
+        }
+        int numeratorLength = value.getNumerator().bitLength() / 8 + 1;
+        int denominatorLength = value.getDenominator().bitLength() / 8 + 1;
+        return varLongSize(BIG_HEADER) + varLongSize(numeratorLength) + numeratorLength
+                + varLongSize(denominatorLength) + denominatorLength;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号付き整数をジグザグ符号化する（絶対値の小さな値ほど小さな符号なし整数になる）.
+     * @param value 符号付き整数
+     * @return 符号化した値
+     */
+    private static long zigzag(final long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ジグザグ符号化した値を復号する.
+     * @param value 符号化した値
+     * @return 符号付き整数
+     */
+    private static long unzigzag(final long value)
+    {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長整数のバイト数を求める.
+     * @param value 符号なし整数
+     * @return バイト数
+     */
+    private static int varLongSize(final long value)
+    {
+        int bits = 64 - Long.numberOfLeadingZeros(value | 1L);
+        return (bits + 6) / 7;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長整数を書き込む.
+     * @param out 書き込み先
+     * @param value 符号なし整数
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeVarLong(final DataOutput out, long value) throws IOException
+    {
+        while((value & ~0x7FL) != 0L)
+        {
+            out.writeByte((int)((value & 0x7FL) | 0x80L));
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長整数を書き込む.
+     * @param buffer 書き込み先
+     * @param value 符号なし整数
+     */
+    private static void writeVarLong(final ByteBuffer buffer, long value)
+    {
+        while((value & ~0x7FL) != 0L)
+        {
+            buffer.put((byte)((value & 0x7FL) | 0x80L));
+            value >>>= 7;
+        }
+        buffer.put((byte)value);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長整数を読み込む.
+     * @param in 読み込み元
+     * @return 符号なし整数
+     * @throws IOException 読み込みに失敗した場合
+     * @throws StreamCorruptedException 形式が不正な場合
+     */
+    private static long readVarLong(final DataInput in) throws IOException
+    {
+        long value = 0L;
+        for(int i = 0; i < MAX_VARINT_BYTES; i++)
+        {
+            byte b = in.readByte();
+            value |= (long)(b & 0x7F) << (7 * i);
+            if(b >= 0) return value;
+        }
+        throw new StreamCorruptedException();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長整数を読み込む.
+     * @param buffer 読み込み元
+     * @return 符号なし整数
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    private static long readVarLong(final ByteBuffer buffer)
+    {
+        long value = 0L;
+        for(int i = 0; i < MAX_VARINT_BYTES; i++)
+        {
+            byte b = buffer.get();
+            value |= (long)(b & 0x7F) << (7 * i);
+            if(b >= 0) return value;
+        }
+        throw new IllegalArgumentException();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さに続けてバイト列を書き込む.
+     * @param out 書き込み先
+     * @param bytes バイト列
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeBytes(final DataOutput out, final byte[] bytes) throws IOException
+    {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さに続けてバイト列を書き込む.
+     * @param buffer 書き込み先
+     * @param bytes バイト列
+     */
+    private static void writeBytes(final ByteBuffer buffer, final byte[] bytes)
+    {
+        writeVarLong(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さに続くバイト列を読み込む.
+     * 読み込んだ長さの配列を一度に確保せず，データが届いた分だけ配列を広げる
+     * @param in 読み込み元
+     * @return バイト列
+     * @throws IOException 読み込みに失敗した場合
+     * @throws java.io.EOFException 長さの分のデータが無い場合
+     * @throws StreamCorruptedException 形式が不正な場合
+     */
+    private static byte[] readBytes(final DataInput in) throws IOException
+    {
+        int length = toLength(readVarLong(in));
+        if(length == 0) throw new StreamCorruptedException();
+        byte[] bytes = new byte[Math.min(length, CHUNK_SIZE)];
+        int filled = 0;
+        while(true)
+        {
+            in.readFully(bytes, filled, bytes.length - filled);
+            filled = bytes.length;
+            if(filled == length) return bytes;
+            bytes = Arrays.copyOf(bytes, (int)Math.min(length, 2L * filled));
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さに続くバイト列を読み込む.
+     * @param buffer 読み込み元
+     * @return バイト列
+     * @throws IllegalArgumentException 形式が不正な場合
+     */
+    private static byte[] readBytes(final ByteBuffer buffer)
+    {
+        long length = readVarLong(buffer);
+        if(length <= 0L || length > buffer.remaining()) throw new IllegalArgumentException();
+        byte[] bytes = new byte[(int)length];
+        buffer.get(bytes);
+        return bytes;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 読み込んだ長さを配列の長さに変換する.
+     * @param length 読み込んだ長さ
+     * @return 配列の長さ
+     * @throws StreamCorruptedException 配列の長さとして不正な場合
+     */
+    private static int toLength(final long length) throws StreamCorruptedException
+    {
+        if(length < 0L || length > Integer.MAX_VALUE - 8) throw new StreamCorruptedException();
+        return (int)length;
+    }
+}
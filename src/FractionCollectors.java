@@ -0,0 +1,199 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数のストリームを集計するCollectorと並列集計処理.
+ * 合計は{@link FractionAccumulator}に通分したまま累積し，スレッドごとの部分和も通分して結合するため，
+ * 要素ごとの約分は行わない
+ * @author 久保　由仁
+ */
+public final class FractionCollectors
+{
+    /** 並列合計で1つのタスクが逐次処理する要素数. */
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    //----------------------------------------------------------------------------------------------
+    /** インスタンス化を禁止する. */
+    private FractionCollectors() {}
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 合計を求めるCollectorを返す.
+     * @return 合計を求めるCollector（要素がない場合は0）
+     */
+    public static Collector<Fraction, ?, Fraction> summing()
+    {
+        return Collector.of(FractionAccumulator::new, FractionAccumulator::add, FractionAccumulator::add,
+                            FractionAccumulator::toFraction, Collector.Characteristics.UNORDERED);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 総乗を求めるCollectorを返す.
+     * @return 総乗を求めるCollector（要素がない場合は1）
+     */
+    public static Collector<Fraction, ?, Fraction> multiplying()
+    {
+        return Collector.of(Product::new, Product::multiply, Product::multiply,
+                            (Product product) -> product.value, Collector.Characteristics.UNORDERED);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 平均を求めるCollectorを返す.
+     * @return 平均を求めるCollector（要素がない場合は0）
+     */
+    public static Collector<Fraction, ?, Fraction> averaging()
+    {
+        return Collector.of(Average::new, Average::add, Average::add, Average::toFraction,
+                            Collector.Characteristics.UNORDERED);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 最小値を求めるCollectorを返す.
+     * @return 最小値を求めるCollector（要素がない場合は空のOptional）
+     */
+    public static Collector<Fraction, ?, Optional<Fraction>> minimum()
+    {
+        return Collectors.minBy(Comparator.<Fraction>naturalOrder());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 最大値を求めるCollectorを返す.
+     * @return 最大値を求めるCollector（要素がない場合は空のOptional）
+     */
+    public static Collector<Fraction, ?, Optional<Fraction>> maximum()
+    {
+        return Collectors.maxBy(Comparator.<Fraction>naturalOrder());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 配列の合計をFork/Joinで並列に求める.
+     * @param values 合計対象の分数の配列
+     * @return 合計（要素がない場合は0）
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static Fraction sum(final Fraction[] values)
+    {
+        if(values == null) throw new NullPointerException();
+        return ForkJoinPool.commonPool().invoke(new SumTask(values, 0, values.length)).toFraction();
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 配列の部分範囲の合計を求めるタスク.
+     */
+    private static final class SumTask extends RecursiveTask<FractionAccumulator>
+    {
+        private static final long serialVersionUID = 1L;
+        /** 合計対象の配列. */
+        private final Fraction[] values;
+        /** 開始位置. */
+        private final int start;
+        /** 終了位置（この位置の要素は含まない）. */
+        private final int end;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param values 合計対象の配列
+         * @param start 開始位置
+         * @param end 終了位置（この位置の要素は含まない）
+         */
+        SumTask(final Fraction[] values, final int start, final int end)
+        {
+            this.values = values;
+            this.start = start;
+            this.end = end;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected FractionAccumulator compute()
+        {
+            if(end - start <= SEQUENTIAL_THRESHOLD)
+            {
+                FractionAccumulator acc = new FractionAccumulator();
+                for(int i = start; i < end; i++)
+                {
+                    acc.add(values[i]);
+                }
+                return acc;
+            }
+            int middle = (start + end) >>> 1;
+            SumTask left = new SumTask(values, start, middle);
+            left.fork();
+            FractionAccumulator right = new SumTask(values, middle, end).compute();
+            return left.join().add(right);
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 総乗の途中結果.
+     */
+    private static final class Product
+    {
+        /** 途中結果. */
+        private Fraction value = Fraction.ONE;
+        //------------------------------------------------------------------------------------------
+        /**
+         * 分数を乗じる.
+         * @param another 乗算対象の分数
+         */
+        void multiply(final Fraction another)
+        {
+            value = value.multiply(another);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 他の途中結果を乗じる.
+         * @param another 乗算対象の途中結果
+         * @return このオブジェクト
+         */
+        Product multiply(final Product another)
+        {
+            multiply(another.value);
+            return this;
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 平均の途中結果.
+     */
+    private static final class Average
+    {
+        /** 合計. */
+        private final FractionAccumulator sum = new FractionAccumulator();
+        /** 要素数. */
+        private long count = 0L;
+        //------------------------------------------------------------------------------------------
+        /**
+         * 分数を加える.
+         * @param value 分数
+         */
+        void add(final Fraction value)
+        {
+            sum.add(value);
+            count++;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 他の途中結果を加える.
+         * @param another 他の途中結果
+         * @return このオブジェクト
+         */
+        Average add(final Average another)
+        {
+            sum.add(another.sum);
+            count += another.count;
+            return this;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 平均を求める.
+         * @return 平均（要素がない場合は0）
+         */
+        Fraction toFraction()
+        {
+            return count == 0L ? Fraction.ZERO : sum.toFraction().divide(count);
+        }
+    }
+}
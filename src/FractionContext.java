@@ -0,0 +1,128 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 精度を制限した分数演算のコンテキスト.
+ * 演算結果を分母が上限以下の最も近い分数（最良近似分数）に丸めることで，
+ * 反復計算で分子・分母が際限なく大きくなることを防ぐ.
+ * このクラスのインスタンスは不変でありスレッドセーフである
+ * @author 久保　由仁
+ * @see Fraction#limitDenominator(long)
+ */
+public final class FractionContext
+{
+    /** 分母の上限. */
+    private final long maxDenominator;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param maxDenominator 分母の上限
+     * @throws IllegalArgumentException 分母の上限が正でない場合
+     */
+    public FractionContext(final long maxDenominator)
+    {
+        if(maxDenominator <= 0L) throw new IllegalArgumentException();
+        this.maxDenominator = maxDenominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母の上限を取得する.
+     * @return 分母の上限
+     */
+    public long getMaxDenominator()
+    {
+        return maxDenominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を分母が上限以下の最も近い分数に丸める.
+     * @param value 丸める分数
+     * @return 丸めた分数
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction round(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        return value.limitDenominator(maxDenominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を行い，結果を丸める.
+     * @param a 分数1
+     * @param b 分数2
+     * @return 丸めた加算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction add(final Fraction a, final Fraction b)
+    {
+        return a.add(b, this);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を行い，結果を丸める.
+     * @param a 分数1
+     * @param b 分数2
+     * @return 丸めた減算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction subtract(final Fraction a, final Fraction b)
+    {
+        return a.subtract(b, this);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を行い，結果を丸める.
+     * @param a 分数1
+     * @param b 分数2
+     * @return 丸めた乗算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction multiply(final Fraction a, final Fraction b)
+    {
+        return a.multiply(b, this);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を行い，結果を丸める.
+     * @param a 分数1
+     * @param b 分数2
+     * @return 丸めた除算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 除数に0を与えた場合
+     */
+    public Fraction divide(final Fraction a, final Fraction b)
+    {
+        return a.divide(b, this);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する.
+     * @param another 比較対象オブジェクト
+     * @return 分母の上限が等しい場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(!(another instanceof FractionContext)) return false;
+        return maxDenominator == ((FractionContext)another).maxDenominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(maxDenominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列表現を返す.
+     * @return "maxDenominator=上限" 形式の文字列
+     */
+    @Override
+    public String toString()
+    {
+        return "maxDenominator=" + maxDenominator;
+    }
+}
@@ -0,0 +1,764 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の演算を記録する不変の式（遅延評価）.
+ * 演算は式の木を作るだけで計算を行わず，{@link #evaluate()}の呼び出し時に約分しない分子・分母の組として計算し，
+ * 最後に1回だけ約分する.
+ * 評価時には構造の等しい部分式（同じオブジェクトを共有する場合を含む）を1回だけ計算する.
+ * 評価は再帰を使わずに被演算子から順に行うため，深い式でもスタックを消費しない.
+ * 加減算・乗除算の連鎖は項の並びに展開して二分木の順に結合するため，途中の分子・分母の大きさが偏らない.
+ * 互いに独立な部分式や多数の項の結合は，量が多い場合に並列に計算する
+ * @author 久保　由仁
+ */
+public final class FractionExpression
+{
+    /** 並列に計算する節（または項）の数の下限. */
+    private static final int PARALLEL_THRESHOLD = 256;
+    /** 演算の種類. */
+    private enum Operator
+    {
+        /** 値. */
+        VALUE,
+        /** 加算. */
+        ADD,
+        /** 減算. */
+        SUBTRACT,
+        /** 乗算. */
+        MULTIPLY,
+        /** 除算. */
+        DIVIDE,
+        /** 符号反転. */
+        NEGATE
+    }
+    /** 演算の種類. */
+    private final Operator operator;
+    /** 値（VALUEの場合のみ）. */
+    private final Fraction value;
+    /** 左の被演算子（NEGATEの場合は唯一の被演算子）. */
+    private final FractionExpression left;
+    /** 右の被演算子. */
+    private final FractionExpression right;
+    /** 式の大きさ（木として数えた節の数，Long.MAX_VALUEで飽和する）. */
+    private final long size;
+    /** ハッシュ値（構造から求める）. */
+    private final int hash;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param operator 演算の種類
+     * @param value 値
+     * @param left 左の被演算子
+     * @param right 右の被演算子
+     */
+    private FractionExpression(final Operator operator, final Fraction value,
+                               final FractionExpression left, final FractionExpression right)
+    {
+        this.operator = operator;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        long total = 1L;
+        if(left != null) total = saturatedAdd(total, left.size);
+        if(right != null) total = saturatedAdd(total, right.size);
+        this.size = total;
+        this.hash = Objects.hash(operator, value, left, right);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の値を表す式を生成する.
+     * @param value 分数
+     * @return 式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public static FractionExpression of(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        return new FractionExpression(Operator.VALUE, value, null, null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数の値を表す式を生成する.
+     * @param value 整数
+     * @return 式
+     */
+    public static FractionExpression of(final long value)
+    {
+        return of(Fraction.valueOf(value));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を記録する.
+     * @param another 加算対象の式
+     * @return 加算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression add(final FractionExpression another)
+    {
+        return binary(Operator.ADD, another);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を記録する.
+     * @param another 加算対象の分数
+     * @return 加算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression add(final Fraction another)
+    {
+        return add(of(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を記録する.
+     * @param another 減算対象の式
+     * @return 減算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression subtract(final FractionExpression another)
+    {
+        return binary(Operator.SUBTRACT, another);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を記録する.
+     * @param another 減算対象の分数
+     * @return 減算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression subtract(final Fraction another)
+    {
+        return subtract(of(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を記録する.
+     * @param another 乗算対象の式
+     * @return 乗算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression multiply(final FractionExpression another)
+    {
+        return binary(Operator.MULTIPLY, another);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を記録する.
+     * @param another 乗算対象の分数
+     * @return 乗算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression multiply(final Fraction another)
+    {
+        return multiply(of(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を記録する（0による除算は評価時に検出する）.
+     * @param another 除算対象の式
+     * @return 除算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression divide(final FractionExpression another)
+    {
+        return binary(Operator.DIVIDE, another);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を記録する（0による除算は評価時に検出する）.
+     * @param another 除算対象の分数
+     * @return 除算の式
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionExpression divide(final Fraction another)
+    {
+        return divide(of(another));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号反転を記録する.
+     * @return 符号反転の式
+     */
+    public FractionExpression negate()
+    {
+        if(operator == Operator.NEGATE) return left;
+        return new FractionExpression(Operator.NEGATE, null, this, null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 式の大きさを取得する.
+     * @return 木として数えた節の数（Long.MAX_VALUEで飽和する）
+     */
+    long size()
+    {
+        return size;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 式を評価する.
+     * 途中結果は約分せず，最後に1回だけ約分する
+     * @return 式の値
+     * @throws IllegalArgumentException 0による除算を含む場合
+     */
+    public Fraction evaluate()
+    {
+        if(operator == Operator.VALUE) return value;
+        Term result = new Graph(this).evaluate();
+        return new Fraction(result.numerator, result.denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する（構造が等しい式を等値とする）.
+     * 比較は再帰を使わずに行い，比較済みの部分式の組は再び比較しないため，
+     * 部分式を共有する式どうしでも比較の手間は節の組の数で抑えられる
+     * @param another 比較対象オブジェクト
+     * @return 構造が等しい場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(!(another instanceof FractionExpression)) return false;
+        Set<Pair> compared = new HashSet<>();
+        Deque<Pair> stack = new ArrayDeque<>();
+        stack.push(new Pair(this, (FractionExpression)another));
+        while(!stack.isEmpty())
+        {
+            Pair pair = stack.pop();
+            FractionExpression a = pair.first;
+            FractionExpression b = pair.second;
+            if(a == b) continue;
+            if(a.hash != b.hash || a.operator != b.operator || a.size != b.size
+               || !Objects.equals(a.value, b.value)) return false;
+            if(!compared.add(pair)) continue;
+            if(a.left != null) stack.push(new Pair(a.left, b.left));
+            if(a.right != null) stack.push(new Pair(a.right, b.right));
+        }
+        return true;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 式の文字列表現を返す.
+     * @return 括弧で演算順序を示した文字列（例: "((1/2 + 1/3) * 2/1)"）
+     */
+    @Override
+    public String toString()
+    {
+        return appendTo(new StringBuilder()).toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 式の文字列表現を書き込む.
+     * @param builder 書き込み先
+     * @return 書き込み先
+     */
+    private StringBuilder appendTo(final StringBuilder builder)
+    {
+        switch(operator)
+        {
+        case VALUE:
+            return FractionFormat.PLAIN.appendTo(value, builder);
+        case NEGATE:
+            return left.appendTo(builder.append("-(")).append(')');
+        default:
+            builder.append('(');
+            left.appendTo(builder).append(' ').append(symbol()).append(' ');
+            return right.appendTo(builder).append(')');
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 二項演算の記号を返す.
+     * @return 演算の記号
+     */
+    private char symbol()
+    {
+        switch(operator)
+        {
+        case ADD:
+            return '+';
+        case SUBTRACT:
+            return '-';
+        case MULTIPLY:
+            return '*';
+        default:
+            return '/';
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 二項演算の式を生成する.
+     * @param binaryOperator 演算の種類
+     * @param another 右の被演算子
+     * @return 式
+     */
+    private FractionExpression binary(final Operator binaryOperator, final FractionExpression another)
+    {
+        if(another == null) throw new NullPointerException();
+        return new FractionExpression(binaryOperator, null, this, another);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 項を二分木の順に加算（または乗算）する.
+     * @param values 項
+     * @param from 開始位置
+     * @param to 終了位置（この値を含まない）
+     * @param additive true: 加算する, false: 乗算する
+     * @return 結合結果
+     */
+    private static Term combine(final Term[] values, final int from, final int to, final boolean additive)
+    {
+        if(to - from == 1) return values[from];
+        int middle = (from + to) >>> 1;
+        return merge(combine(values, from, middle, additive), combine(values, middle, to, additive), additive);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの項を加算（または乗算）する.
+     * @param a 項1
+     * @param b 項2
+     * @param additive true: 加算する, false: 乗算する
+     * @return 結合結果
+     */
+    private static Term merge(final Term a, final Term b, final boolean additive)
+    {
+        if(!additive) return new Term(a.numerator.multiply(b.numerator), a.denominator.multiply(b.denominator));
+        if(a.denominator.equals(b.denominator)) return new Term(a.numerator.add(b.numerator), a.denominator);
+        return new Term(a.numerator.multiply(b.denominator).add(b.numerator.multiply(a.denominator)),
+                        a.denominator.multiply(b.denominator));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 飽和加算を行う.
+     * @param a 値1（非負）
+     * @param b 値2（非負）
+     * @return 和（Long.MAX_VALUEを超える場合はLong.MAX_VALUE）
+     */
+    private static long saturatedAdd(final long a, final long b)
+    {
+        long sum = a + b;
+        return sum < 0L ? Long.MAX_VALUE : sum;
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 評価用に構造の等しい部分式を1つの節にまとめた式のグラフ.
+     * 節は被演算子が先に並ぶ順（トポロジカル順）に番号を振り，評価は再帰を使わずにこの順で行うため，
+     * 式の深さに関わらずスタックを消費しない
+     */
+    private static final class Graph
+    {
+        /** 節の種類（加減算）. */
+        private static final int ADDITIVE = 1;
+        /** 節の種類（乗除算）. */
+        private static final int MULTIPLICATIVE = 2;
+        /** 各節の代表となる式. */
+        private final List<FractionExpression> nodes = new ArrayList<>();
+        /** 各節の左の被演算子の番号（無い場合は-1）. */
+        private int[] lefts = new int[16];
+        /** 各節の右の被演算子の番号（無い場合は-1）. */
+        private int[] rights = new int[16];
+        /** 親の連鎖に展開するため単独では評価しない節. */
+        private boolean[] absorbed;
+        /** 各節の評価結果. */
+        private Term[] values;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ（帰りがけ順に節を登録する）.
+         * @param root 評価する式
+         */
+        Graph(final FractionExpression root)
+        {
+            Map<FractionExpression, Integer> ids = new IdentityHashMap<>();
+            Map<Key, Integer> interned = new HashMap<>();
+            Deque<FractionExpression> stack = new ArrayDeque<>();
+            stack.push(root);
+            while(!stack.isEmpty())
+            {
+                FractionExpression expression = stack.peek();
+                if(ids.containsKey(expression))
+                {
+                    stack.pop();
+                    continue;
+                }
+                boolean ready = true;
+                if(expression.right != null && !ids.containsKey(expression.right))
+                {
+                    stack.push(expression.right);
+                    ready = false;
+                }
+                if(expression.left != null && !ids.containsKey(expression.left))
+                {
+                    stack.push(expression.left);
+                    ready = false;
+                }
+                if(!ready) continue;
+                stack.pop();
+                int left = expression.left == null ? -1 : ids.get(expression.left);
+                int right = expression.right == null ? -1 : ids.get(expression.right);
+                Key key = new Key(expression.operator, expression.value, left, right);
+                Integer id = interned.get(key);
+                if(id == null)
+                {
+                    id = nodes.size();
+                    if(id == lefts.length)
+                    {
+                        lefts = Arrays.copyOf(lefts, id * 2);
+                        rights = Arrays.copyOf(rights, id * 2);
+                    }
+                    nodes.add(expression);
+                    lefts[id] = left;
+                    rights[id] = right;
+                    interned.put(key, id);
+                }
+                ids.put(expression, id);
+            }
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * グラフを評価する.
+         * 加減算（または乗除算）の連鎖のうち他から参照されない左の被演算子は親の連鎖に展開し，項を二分木の順に結合する.
+         * 同じ高さの節は互いに独立なため，節の数が多い高さではFork/Joinで並列に評価する
+         * @return 式（最後に登録した節）の評価結果
+         * @throws IllegalArgumentException 0による除算を含む場合
+         */
+        Term evaluate()
+        {
+            int count = nodes.size();
+            int[] references = new int[count];
+            int[] heights = new int[count];
+            for(int i = 0; i < count; i++)
+            {
+                if(lefts[i] >= 0)
+                {
+                    references[lefts[i]]++;
+                    heights[i] = heights[lefts[i]] + 1;
+                }
+                if(rights[i] >= 0)
+                {
+                    references[rights[i]]++;
+                    heights[i] = Math.max(heights[i], heights[rights[i]] + 1);
+                }
+            }
+            absorbed = new boolean[count];
+            for(int i = 0; i < count; i++)
+            {
+                int child = lefts[i];
+                if(child >= 0 && kind(i) != 0 && kind(child) == kind(i) && references[child] == 1) absorbed[child] = true;
+            }
+            // 高さごとに節を並べる（計数ソート）
+            int[] starts = new int[heights[count - 1] + 2];
+            for(int i = 0; i < count; i++)
+            {
+                starts[heights[i] + 1]++;
+            }
+            for(int h = 1; h < starts.length; h++)
+            {
+                starts[h] += starts[h - 1];
+            }
+            int[] order = new int[count];
+            int[] positions = Arrays.copyOf(starts, starts.length);
+            for(int i = 0; i < count; i++)
+            {
+                order[positions[heights[i]]++] = i;
+            }
+            values = new Term[count];
+            for(int h = 0; h + 1 < starts.length; h++)
+            {
+                if(starts[h + 1] - starts[h] >= PARALLEL_THRESHOLD)
+                {
+                    new LevelTask(this, order, starts[h], starts[h + 1]).invoke();
+                    continue;
+                }
+                for(int k = starts[h]; k < starts[h + 1]; k++)
+                {
+                    evaluate(order[k]);
+                }
+            }
+            return values[count - 1];
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 被演算子を評価済みの節を評価する.
+         * @param id 節の番号
+         * @throws IllegalArgumentException 0による除算を含む場合
+         */
+        void evaluate(final int id)
+        {
+            if(absorbed[id]) return;
+            FractionExpression node = nodes.get(id);
+            if(node.operator == Operator.VALUE)
+            {
+                values[id] = new Term(node.value.getNumerator(), node.value.getDenominator());
+                return;
+            }
+            if(node.operator == Operator.NEGATE)
+            {
+                Term operand = values[lefts[id]];
+                values[id] = new Term(operand.numerator.negate(), operand.denominator);
+                return;
+            }
+            boolean additive = kind(id) == ADDITIVE;
+            List<Term> operands = new ArrayList<>();
+            int current = id;
+            do
+            {
+                Term operand = values[rights[current]];
+                Operator operator = nodes.get(current).operator;
+                if(operator == Operator.SUBTRACT)
+                {
+                    operand = new Term(operand.numerator.negate(), operand.denominator);
+                }
+                else if(operator == Operator.DIVIDE)
+                {
+                    if(operand.numerator.signum() == 0) throw new IllegalArgumentException();
+                    operand = operand.numerator.signum() < 0
+                              ? new Term(operand.denominator.negate(), operand.numerator.negate())
+                              : new Term(operand.denominator, operand.numerator);
+                }
+                operands.add(operand);
+                current = lefts[current];
+            }
+            while(absorbed[current]);
+            operands.add(values[current]);
+            Collections.reverse(operands);
+            Term[] terms = operands.toArray(new Term[operands.size()]);
+            values[id] = terms.length < PARALLEL_THRESHOLD ? combine(terms, 0, terms.length, additive)
+                                                           : new CombineTask(terms, 0, terms.length, additive).invoke();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 節の種類を返す.
+         * @param id 節の番号
+         * @return ADDITIVE, MULTIPLICATIVE, それ以外は0
+         */
+        private int kind(final int id)
+        {
+            switch(nodes.get(id).operator)
+            {
+            case ADD:
+            case SUBTRACT:
+                return ADDITIVE;
+            case MULTIPLY:
+            case DIVIDE:
+                return MULTIPLICATIVE;
+            default:
+                return 0;
+            }
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 同じ高さの節を評価するタスク.
+     */
+    private static final class LevelTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        /** 評価するグラフ. */
+        private final Graph graph;
+        /** 高さ順に並べた節の番号. */
+        private final int[] order;
+        /** 開始位置. */
+        private final int from;
+        /** 終了位置（この値を含まない）. */
+        private final int to;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param graph 評価するグラフ
+         * @param order 高さ順に並べた節の番号
+         * @param from 開始位置
+         * @param to 終了位置（この値を含まない）
+         */
+        LevelTask(final Graph graph, final int[] order, final int from, final int to)
+        {
+            this.graph = graph;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected void compute()
+        {
+            if(to - from < PARALLEL_THRESHOLD)
+            {
+                for(int k = from; k < to; k++)
+                {
+                    graph.evaluate(order[k]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new LevelTask(graph, order, from, middle), new LevelTask(graph, order, middle, to));
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 項を二分木の順に結合するタスク.
+     */
+    private static final class CombineTask extends RecursiveTask<Term>
+    {
+        private static final long serialVersionUID = 1L;
+        /** 項. */
+        private final Term[] values;
+        /** 開始位置. */
+        private final int from;
+        /** 終了位置（この値を含まない）. */
+        private final int to;
+        /** true: 加算する, false: 乗算する. */
+        private final boolean additive;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param values 項
+         * @param from 開始位置
+         * @param to 終了位置（この値を含まない）
+         * @param additive true: 加算する, false: 乗算する
+         */
+        CombineTask(final Term[] values, final int from, final int to, final boolean additive)
+        {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.additive = additive;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        protected Term compute()
+        {
+            if(to - from < PARALLEL_THRESHOLD) return combine(values, from, to, additive);
+            int middle = (from + to) >>> 1;
+            CombineTask first = new CombineTask(values, from, middle, additive);
+            first.fork();
+            Term b = new CombineTask(values, middle, to, additive).compute();
+            return merge(first.join(), b, additive);
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 節を同一視するためのキー（被演算子は登録済みの節の番号で表す）.
+     */
+    private static final class Key
+    {
+        /** 演算の種類. */
+        private final Operator operator;
+        /** 値. */
+        private final Fraction value;
+        /** 左の被演算子の番号. */
+        private final int left;
+        /** 右の被演算子の番号. */
+        private final int right;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param operator 演算の種類
+         * @param value 値
+         * @param left 左の被演算子の番号
+         * @param right 右の被演算子の番号
+         */
+        Key(final Operator operator, final Fraction value, final int left, final int right)
+        {
+            this.operator = operator;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public boolean equals(final Object another)
+        {
+            if(!(another instanceof Key)) return false;
+            Key key = (Key)another;
+            return operator == key.operator && left == key.left && right == key.right
+                   && Objects.equals(value, key.value);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public int hashCode()
+        {
+            return ((operator.ordinal() * 31 + Objects.hashCode(value)) * 31 + left) * 31 + right;
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 比較する式の組（同一のオブジェクトの組を等値とする）.
+     */
+    private static final class Pair
+    {
+        /** 式1. */
+        final FractionExpression first;
+        /** 式2. */
+        final FractionExpression second;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param first 式1
+         * @param second 式2
+         */
+        Pair(final FractionExpression first, final FractionExpression second)
+        {
+            this.first = first;
+            this.second = second;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public boolean equals(final Object another)
+        {
+            if(!(another instanceof Pair)) return false;
+            Pair pair = (Pair)another;
+            return first == pair.first && second == pair.second;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(first) * 31 + System.identityHashCode(second);
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 約分していない分子・分母の組.
+     */
+    private static final class Term
+    {
+        /** 分子. */
+        final BigInteger numerator;
+        /** 分母（正の値）. */
+        final BigInteger denominator;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param numerator 分子
+         * @param denominator 分母（正の値）
+         */
+        Term(final BigInteger numerator, final BigInteger denominator)
+        {
+            this.numerator = numerator;
+            this.denominator = denominator;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の文字列化の書式.
+ * String.formatを使わず，StringBuilderやAppendableに直接書き込む.
+ * long型に収まる分数は数値もStringを経由せずに書き込む.
+ * このクラスのインスタンスは不変でありスレッドセーフである
+ * @author 久保　由仁
+ */
+public final class FractionFormat
+{
+    /** 書式の種類. */
+    public enum Style
+    {
+        /** {@link Fraction#toString()}と同じ形式（例: "- (3 / 4)", "2"）. */
+        DEFAULT,
+        /** 括弧を付けない形式（例: "-3/4", "2/1"）．{@link Fraction#parse(String)}で解析できる. */
+        PLAIN,
+        /** 帯分数の形式（例: "-1 1/2", "3/4", "2"）. */
+        MIXED,
+        /** 小数の形式（例: "-0.75"）. */
+        DECIMAL
+    }
+    //----------------------------------------------------------------------------------------------
+    /** {@link Fraction#toString()}と同じ形式. */
+    public static final FractionFormat DEFAULT = new FractionFormat(Style.DEFAULT, 0, RoundingMode.HALF_UP);
+    /** 括弧を付けない形式. */
+    public static final FractionFormat PLAIN = new FractionFormat(Style.PLAIN, 0, RoundingMode.HALF_UP);
+    /** 帯分数の形式. */
+    public static final FractionFormat MIXED = new FractionFormat(Style.MIXED, 0, RoundingMode.HALF_UP);
+    /** 書式の種類. */
+    private final Style style;
+    /** 小数の形式の場合の小数点以下の桁数. */
+    private final int digits;
+    /** 小数の形式の場合の丸めモード. */
+    private final RoundingMode roundingMode;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param style 書式の種類
+     * @param digits 小数点以下の桁数
+     * @param roundingMode 丸めモード
+     */
+    private FractionFormat(final Style style, final int digits, final RoundingMode roundingMode)
+    {
+        this.style = style;
+        this.digits = digits;
+        this.roundingMode = roundingMode;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 小数点以下を指定した桁数に四捨五入する小数の形式を返す.
+     * @param digits 小数点以下の桁数
+     * @return 書式
+     * @throws IllegalArgumentException 桁数が負の場合
+     */
+    public static FractionFormat decimal(final int digits)
+    {
+        return decimal(digits, RoundingMode.HALF_UP);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 小数点以下を指定した桁数に丸める小数の形式を返す.
+     * @param digits 小数点以下の桁数
+     * @param roundingMode 丸めモード
+     * @return 書式
+     * @throws NullPointerException 丸めモードにnullを与えた場合
+     * @throws IllegalArgumentException 桁数が負の場合
+     */
+    public static FractionFormat decimal(final int digits, final RoundingMode roundingMode)
+    {
+        if(roundingMode == null) throw new NullPointerException();
+        if(digits < 0) throw new IllegalArgumentException();
+        return new FractionFormat(Style.DECIMAL, digits, roundingMode);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 書式の種類を取得する.
+     * @return 書式の種類
+     */
+    public Style getStyle()
+    {
+        return style;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を文字列に変換する.
+     * @param value 分数
+     * @return 変換した文字列
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで丸めが必要な場合
+     */
+    public String format(final Fraction value)
+    {
+        return appendTo(value, new StringBuilder()).toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をAppendableに書き込む.
+     * @param <A> 書き込み先の型
+     * @param value 分数
+     * @param out 書き込み先
+     * @return 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで丸めが必要な場合
+     */
+    public <A extends Appendable> A appendTo(final Fraction value, final A out) throws IOException
+    {
+        if(out instanceof StringBuilder)
+        {
+            appendTo(value, (StringBuilder)out);
+        }
+        else
+        {
+            out.append(appendTo(value, new StringBuilder()));
+        }
+        return out;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をStringBuilderに書き込む.
+     * @param value 分数
+     * @param out 書き込み先
+     * @return 書き込み先
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws ArithmeticException 丸めモードがUNNECESSARYで丸めが必要な場合
+     */
+    public StringBuilder appendTo(final Fraction value, final StringBuilder out)
+    {
+        if(value == null || out == null) throw new NullPointerException();
+        if(value.isCompact())
+        {
+            appendCompact(value.getLongNumerator(), value.getLongDenominator(), out);
+        }
+        else
+        {
+            appendBig(value.getNumerator(), value.getDenominator(), out);
+        }
+        return out;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型で表現した分数を書き込む.
+     * @param numerator 分子（Long.MIN_VALUE以外）
+     * @param denominator 分母（正の値）
+     * @param out 書き込み先
+     */
+    private void appendCompact(final long numerator, final long denominator, final StringBuilder out)
+    {
+        long magnitude = Math.abs(numerator);
+        switch(style)
+        {
+        case DEFAULT:
+            if(denominator == 1L)
+            {
+                out.append(numerator);
+            }
+            else
+            {
+                if(numerator < 0L) out.append("- ");
+                out.append('(').append(magnitude).append(" / ").append(denominator).append(')');
+            }
+            break;
+        case PLAIN:
+            out.append(numerator).append('/').append(denominator);
+            break;
+        case MIXED:
+            if(numerator < 0L) out.append('-');
+            long integer = magnitude / denominator;
+            long remainder = magnitude % denominator;
+            if(integer != 0L || remainder == 0L) out.append(integer);
+            if(integer != 0L && remainder != 0L) out.append(' ');
+            if(remainder != 0L) out.append(remainder).append('/').append(denominator);
+            break;
+        default:
+            if(digits < Fraction.POWERS_OF_TEN.length && magnitude <= Long.MAX_VALUE / Fraction.POWERS_OF_TEN[digits])
+            {
+                long scaled = magnitude * Fraction.POWERS_OF_TEN[digits];
+                long quotient = scaled / denominator;
+                if(Fraction.roundsAway(quotient, scaled % denominator, denominator, numerator < 0L, roundingMode))
+                {
+                    quotient++;
+                }
+                if(quotient >= 0L)
+                {
+                    appendDecimal(numerator < 0L && quotient != 0L, quotient, out);
+                    break;
+                }
+            }
+            appendBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator), out);
+            break;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * BigIntegerで表現した分数を書き込む.
+     * @param numerator 分子
+     * @param denominator 分母（正の値）
+     * @param out 書き込み先
+     */
+    private void appendBig(final BigInteger numerator, final BigInteger denominator, final StringBuilder out)
+    {
+        BigInteger magnitude = numerator.abs();
+        boolean negative = numerator.signum() < 0;
+        switch(style)
+        {
+        case DEFAULT:
+            if(denominator.equals(BigInteger.ONE))
+            {
+                out.append(numerator);
+            }
+            else
+            {
+                if(negative) out.append("- ");
+                out.append('(').append(magnitude).append(" / ").append(denominator).append(')');
+            }
+            break;
+        case PLAIN:
+            out.append(numerator).append('/').append(denominator);
+            break;
+        case MIXED:
+            if(negative) out.append('-');
+            BigInteger[] division = magnitude.divideAndRemainder(denominator);
+            boolean hasInteger = division[0].signum() != 0;
+            boolean hasRemainder = division[1].signum() != 0;
+            if(hasInteger || !hasRemainder) out.append(division[0]);
+            if(hasInteger && hasRemainder) out.append(' ');
+            if(hasRemainder) out.append(division[1]).append('/').append(denominator);
+            break;
+        default:
+            BigDecimal decimal = new BigDecimal(numerator).divide(new BigDecimal(denominator), digits, roundingMode);
+            if(decimal.signum() == 0) decimal = decimal.abs();
+            out.append(decimal.toPlainString());
+            break;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 10^digits倍した絶対値から小数を書き込む.
+     * @param negative 負の値か否か
+     * @param scaled 10^digits倍した絶対値
+     * @param out 書き込み先
+     */
+    private void appendDecimal(final boolean negative, final long scaled, final StringBuilder out)
+    {
+        if(negative) out.append('-');
+        long power = Fraction.POWERS_OF_TEN[digits];
+        out.append(scaled / power);
+        if(digits == 0) return;
+        out.append('.');
+        long fraction = scaled % power;
+        for(long rest = power / 10L; rest > 1L && fraction < rest; rest /= 10L)
+        {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
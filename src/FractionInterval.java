@@ -0,0 +1,410 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.RoundingMode;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数を端点とする閉区間 [下端, 上端].
+ * 真の値を含むことが保証された範囲を表す.
+ * <p>
+ * 区間演算の結果は真の値を含むように端点を外側へ広げる．格子の分母Dを指定した区間では，演算のたびに
+ * 下端を 1/D の格子へ切り捨て，上端を切り上げるため，端点の分母はD以下に保たれ，
+ * 反復計算を続けても1回の演算の費用は一定となる（その代わりに区間の幅は広がる）.
+ * </p>
+ * <p>
+ * 真の値の記録は{@link #withExactTracking()}で1点の区間に対して明示的に有効にする.
+ * 記録した区間は演算の過程を{@link FractionExpression}として記録し，{@link #exactValue()}で真の値を正確に求められる.
+ * 記録した式が一定の大きさを超えると正確に評価して値に置き換えるため，式の節の数は一定以下に保たれる
+ * （真の値そのものの大きさは演算とともに増える）.
+ * 許容する幅（{@link #withMaxWidth(Fraction)}）を超えた演算結果は，記録した式を正確に評価し，
+ * その値を格子に丸めた区間（格子が無い場合は1点の区間）に置き換える.
+ * 許容幅は格子の間隔 1/D 以上でなければならない.
+ * 2つの区間の演算結果の格子は細かい方，許容幅は狭い方を引き継ぐ.
+ * 式はいずれかの区間が記録しており，他方も記録しているか1点の区間の場合のみ記録する.
+ * </p>
+ * このクラスのインスタンスは不変である
+ * @author 久保　由仁
+ */
+public final class FractionInterval
+{
+    /** 下端. */
+    private final Fraction lower;
+    /** 上端. */
+    private final Fraction upper;
+    /** 記録した式を評価して値に置き換える式の大きさ. */
+    private static final long HISTORY_LIMIT = 1024L;
+    /** 端点を丸める格子の分母（0の場合は丸めない）. */
+    private final long grid;
+    /** 許容する幅（nullの場合は制限しない）. */
+    private final Fraction maxWidth;
+    /** 真の値を求める式（nullの場合は記録していない）. */
+    private final FractionExpression expression;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param lower 下端
+     * @param upper 上端
+     * @param grid 端点を丸める格子の分母（0の場合は丸めない）
+     * @param maxWidth 許容する幅（nullの場合は制限しない）
+     * @param expression 真の値を求める式（nullの場合は記録していない）
+     */
+    private FractionInterval(final Fraction lower, final Fraction upper, final long grid,
+                             final Fraction maxWidth, final FractionExpression expression)
+    {
+        this.lower = lower;
+        this.upper = upper;
+        this.grid = grid;
+        this.maxWidth = maxWidth;
+        this.expression = expression;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 区間を生成する（真の値は記録しない）.
+     * @param lower 下端
+     * @param upper 上端
+     * @return 区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 下端が上端より大きい場合
+     */
+    public static FractionInterval of(final Fraction lower, final Fraction upper)
+    {
+        if(lower == null || upper == null) throw new NullPointerException();
+        if(lower.compareTo(upper) > 0) throw new IllegalArgumentException();
+        return new FractionInterval(lower, upper, 0L, null, null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 1点からなる区間を生成する（真の値は記録しない）.
+     * @param value 値
+     * @return 区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public static FractionInterval of(final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        return new FractionInterval(value, value, 0L, null, null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 端点を丸める格子を指定した区間を返す.
+     * 現在の端点も外側へ格子に丸める
+     * @param denominator 格子の分母（区間演算の結果の端点は 1/denominator の整数倍となる）
+     * @return 格子を指定した区間
+     * @throws IllegalArgumentException 分母が正でない場合，許容幅が 1/denominator より小さい場合
+     */
+    public FractionInterval withGrid(final long denominator)
+    {
+        if(denominator <= 0L || !isCompatible(denominator, maxWidth)) throw new IllegalArgumentException();
+        return new FractionInterval(roundDown(lower, denominator), roundUp(upper, denominator),
+                                    denominator, maxWidth, expression);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 演算結果に許容する幅を指定した区間を返す.
+     * 幅を超えた演算結果は，真の値を記録している場合のみ正確に評価し直す
+     * @param width 許容する幅
+     * @return 許容する幅を指定した区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 幅が負の場合，格子の間隔より小さい場合
+     */
+    public FractionInterval withMaxWidth(final Fraction width)
+    {
+        if(width.signum() < 0 || !isCompatible(grid, width)) throw new IllegalArgumentException();
+        return new FractionInterval(lower, upper, grid, width, expression);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 真の値を記録する区間を返す.
+     * 以降の演算の過程を記録し，{@link #exactValue()}で真の値を求められるようにする
+     * @return 真の値を記録する区間
+     * @throws IllegalStateException 1点からなる区間でない場合（格子に丸めて幅を持った場合を含む）
+     */
+    public FractionInterval withExactTracking()
+    {
+        if(expression != null) return this;
+        if(!isPoint()) throw new IllegalStateException();
+        return new FractionInterval(lower, upper, grid, maxWidth, FractionExpression.of(lower));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 下端を取得する.
+     * @return 下端
+     */
+    public Fraction getLower()
+    {
+        return lower;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 上端を取得する.
+     * @return 上端
+     */
+    public Fraction getUpper()
+    {
+        return upper;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 区間の幅を求める.
+     * @return 上端 - 下端
+     */
+    public Fraction width()
+    {
+        return upper.subtract(lower);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 1点からなる区間か否かを判定する.
+     * @return true: 下端と上端が等しい, false: 幅がある
+     */
+    public boolean isPoint()
+    {
+        return lower.equals(upper);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が区間に含まれるか判定する.
+     * @param value 値
+     * @return true: 下端以上かつ上端以下, false: 区間外
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public boolean contains(final Fraction value)
+    {
+        return lower.compareTo(value) <= 0 && value.compareTo(upper) <= 0;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 真の値を記録しているか判定する.
+     * @return true: {@link #exactValue()}で真の値を求められる, false: 記録していない
+     */
+    public boolean isExactValueAvailable()
+    {
+        return expression != null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 記録した式を正確に評価して真の値を求める.
+     * @return 真の値
+     * @throws IllegalStateException 真の値を記録していない場合
+     */
+    public Fraction exactValue()
+    {
+        if(expression == null) throw new IllegalStateException();
+        return expression.evaluate();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を行う.
+     * @param another 加算対象の区間
+     * @return [下端 + 下端, 上端 + 上端] を外側へ丸めた区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionInterval add(final FractionInterval another)
+    {
+        return combine(another, lower.add(another.lower), upper.add(another.upper),
+                       recorded(another) ? exactOperand(this).add(exactOperand(another)) : null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を行う.
+     * @param another 減算対象の区間
+     * @return [下端 - 上端, 上端 - 下端] を外側へ丸めた区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionInterval subtract(final FractionInterval another)
+    {
+        return combine(another, lower.subtract(another.upper), upper.subtract(another.lower),
+                       recorded(another) ? exactOperand(this).subtract(exactOperand(another)) : null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を行う.
+     * @param another 乗算対象の区間
+     * @return 端点同士の積の最小値と最大値を外側へ丸めた区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionInterval multiply(final FractionInterval another)
+    {
+        Fraction[] bounds = productBounds(lower, upper, another.lower, another.upper);
+        return combine(another, bounds[0], bounds[1],
+                       recorded(another) ? exactOperand(this).multiply(exactOperand(another)) : null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算を行う.
+     * @param another 除算対象の区間
+     * @return 除数の逆数の区間との積を外側へ丸めた区間
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 除数の区間が0を含む場合
+     */
+    public FractionInterval divide(final FractionInterval another)
+    {
+        if(another.lower.signum() <= 0 && another.upper.signum() >= 0) throw new IllegalArgumentException();
+        Fraction[] bounds = productBounds(lower, upper, another.upper.reciprocal(), another.lower.reciprocal());
+        return combine(another, bounds[0], bounds[1],
+                       recorded(another) ? exactOperand(this).divide(exactOperand(another)) : null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号を反転する.
+     * @return [-上端, -下端]
+     */
+    public FractionInterval negate()
+    {
+        return new FractionInterval(upper.negate(), lower.negate(), grid, maxWidth,
+                                    expression == null ? null : expression.negate());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する（格子・許容幅・記録した式は比較しない）.
+     * @param another 比較対象オブジェクト
+     * @return 下端と上端がそれぞれ等しい場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(!(another instanceof FractionInterval)) return false;
+        FractionInterval interval = (FractionInterval)another;
+        return lower.equals(interval.lower) && upper.equals(interval.upper);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        return 31 * lower.hashCode() + upper.hashCode();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列表現を返す.
+     * @return "[下端, 上端]" 形式の文字列
+     */
+    @Override
+    public String toString()
+    {
+        return "[" + lower + ", " + upper + "]";
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 二項演算の結果の区間を生成する.
+     * 端点を外側へ格子に丸め，許容幅を超えた場合は記録した式を正確に評価した値を格子に丸めた区間に置き換える.
+     * 記録した式が大きくなった場合は評価して値に置き換える
+     * @param another 他方の被演算子
+     * @param resultLower 丸める前の下端
+     * @param resultUpper 丸める前の上端
+     * @param resultExpression 真の値を求める式（nullの場合は記録しない）
+     * @return 演算結果の区間
+     * @throws IllegalArgumentException 引き継いだ許容幅が格子の間隔より小さい場合
+     */
+    private FractionInterval combine(final FractionInterval another, final Fraction resultLower,
+                                     final Fraction resultUpper, final FractionExpression resultExpression)
+    {
+        long resultGrid = Math.max(grid, another.grid);
+        Fraction resultMaxWidth = maxWidth;
+        if(resultMaxWidth == null || (another.maxWidth != null && another.maxWidth.compareTo(resultMaxWidth) < 0))
+        {
+            resultMaxWidth = another.maxWidth;
+        }
+        if(!isCompatible(resultGrid, resultMaxWidth)) throw new IllegalArgumentException();
+        Fraction low = resultLower;
+        Fraction high = resultUpper;
+        if(resultGrid != 0L)
+        {
+            low = roundDown(low, resultGrid);
+            high = roundUp(high, resultGrid);
+        }
+        if(resultExpression == null) return new FractionInterval(low, high, resultGrid, resultMaxWidth, null);
+        if(resultMaxWidth != null && high.subtract(low).compareTo(resultMaxWidth) > 0)
+        {
+            Fraction exact = resultExpression.evaluate();
+            FractionExpression anchor = FractionExpression.of(exact);
+            if(resultGrid == 0L) return new FractionInterval(exact, exact, 0L, resultMaxWidth, anchor);
+            return new FractionInterval(roundDown(exact, resultGrid), roundUp(exact, resultGrid),
+                                        resultGrid, resultMaxWidth, anchor);
+        }
+        FractionExpression history = resultExpression;
+        if(history.size() > HISTORY_LIMIT) history = FractionExpression.of(history.evaluate());
+        return new FractionInterval(low, high, resultGrid, resultMaxWidth, history);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 演算結果に真の値を記録するか判定する.
+     * @param another 他方の被演算子
+     * @return true: いずれかが記録しており，両方の真の値が分かる, false: 記録しない
+     */
+    private boolean recorded(final FractionInterval another)
+    {
+        if(expression == null && another.expression == null) return false;
+        return exactOperand(this) != null && exactOperand(another) != null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 区間の真の値を表す式を求める.
+     * @param interval 区間
+     * @return 記録した式，記録していない1点の区間はその値の式，それ以外はnull
+     */
+    private static FractionExpression exactOperand(final FractionInterval interval)
+    {
+        if(interval.expression != null) return interval.expression;
+        return interval.isPoint() ? FractionExpression.of(interval.lower) : null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 格子と許容幅が両立するか判定する.
+     * @param grid 格子の分母（0の場合は丸めない）
+     * @param maxWidth 許容する幅（nullの場合は制限しない）
+     * @return true: 許容幅が格子の間隔 1/grid 以上, false: 格子に丸めると常に許容幅を超える
+     */
+    private static boolean isCompatible(final long grid, final Fraction maxWidth)
+    {
+        return grid == 0L || maxWidth == null || maxWidth.multiply(grid).compareTo(Fraction.ONE) >= 0;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2つの区間の積の範囲を求める.
+     * 符号が確定している場合は端点同士の積を2回だけ求める
+     * @param a1 区間1の下端
+     * @param b1 区間1の上端
+     * @param a2 区間2の下端
+     * @param b2 区間2の上端
+     * @return [積の最小値, 積の最大値]
+     */
+    private static Fraction[] productBounds(final Fraction a1, final Fraction b1, final Fraction a2, final Fraction b2)
+    {
+        if(a1.signum() >= 0 && a2.signum() >= 0) return new Fraction[] {a1.multiply(a2), b1.multiply(b2)};
+        if(b1.signum() <= 0 && b2.signum() <= 0) return new Fraction[] {b1.multiply(b2), a1.multiply(a2)};
+        Fraction[] products = {a1.multiply(a2), a1.multiply(b2), b1.multiply(a2), b1.multiply(b2)};
+        Fraction min = products[0];
+        Fraction max = products[0];
+        for(int i = 1; i < products.length; i++)
+        {
+            if(products[i].compareTo(min) < 0) min = products[i];
+            if(products[i].compareTo(max) > 0) max = products[i];
+        }
+        return new Fraction[] {min, max};
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値以下で最大の格子点を求める.
+     * @param value 値
+     * @param denominator 格子の分母
+     * @return floor(value × denominator) / denominator
+     */
+    private static Fraction roundDown(final Fraction value, final long denominator)
+    {
+        return value.multiply(denominator).round(RoundingMode.FLOOR).divide(denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値以上で最小の格子点を求める.
+     * @param value 値
+     * @param denominator 格子の分母
+     * @return ceil(value × denominator) / denominator
+     */
+    private static Fraction roundUp(final Fraction value, final long denominator)
+    {
+        return value.multiply(denominator).round(RoundingMode.CEILING).divide(denominator);
+    }
+}
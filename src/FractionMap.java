@@ -0,0 +1,381 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数をキーとするハッシュ表.
+ * 分子・分母がlong型に収まるキーは，Fractionオブジェクトを保持せずにlong型の配列へ直接格納する
+ * 開番地法（線形探査）で管理する．探査ではキーの分子・分母をlong型のまま比較するため，
+ * 検索のたびにFractionのhashCodeやequalsを呼び出すことはない.
+ * 削除は後続の要素を詰め直す方式で行い，削除済みの印は残さない.
+ * long型に収まらないキーのみ{@link HashMap}に格納する.
+ * キー・値にnullは使用できない．このクラスはスレッドセーフではない
+ * @param <V> 値の型
+ * @author 久保　由仁
+ */
+public final class FractionMap<V> implements Iterable<Map.Entry<Fraction, V>>
+{
+    /** 表の大きさの初期値. */
+    private static final int DEFAULT_CAPACITY = 16;
+    /** 表の大きさの上限. */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /** キーの分子. */
+    private long[] numerators;
+    /** キーの分母（0は空きを表す）. */
+    private long[] denominators;
+    /** 値. */
+    private Object[] values;
+    /** long型の表に格納した要素数. */
+    private int compactSize;
+    /** long型に収まらないキーの要素. */
+    private final Map<Fraction, V> large = new HashMap<>();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     */
+    public FractionMap()
+    {
+        this(DEFAULT_CAPACITY / 2);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param expectedSize 格納する要素数の見込み（この数までは表を拡張しない）
+     * @throws IllegalArgumentException 要素数の見込みが負の場合
+     */
+    public FractionMap(final int expectedSize)
+    {
+        if(expectedSize < 0) throw new IllegalArgumentException();
+        allocate(capacityFor(expectedSize));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数を取得する.
+     * @return 要素数
+     */
+    public int size()
+    {
+        return compactSize + large.size();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 空か否かを判定する.
+     * @return true: 空, false: 要素がある
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーが格納されているか判定する.
+     * @param key キー
+     * @return true: 格納されている, false: 格納されていない
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public boolean containsKey(final Fraction key)
+    {
+        return get(key) != null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーに対応する値を取得する.
+     * @param key キー
+     * @return 値（キーが格納されていない場合はnull）
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public V get(final Fraction key)
+    {
+        Fraction normalized = normalize(key);
+        if(!normalized.isCompact()) return large.get(normalized);
+        int index = find(normalized.getLongNumerator(), normalized.getLongDenominator());
+        return index < 0 ? null : valueAt(index);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーに値を対応付ける.
+     * @param key キー
+     * @param value 値
+     * @return 以前に対応付けられていた値（なかった場合はnull）
+     * @throws NullPointerException キーまたは値にnullを与えた場合
+     */
+    public V put(final Fraction key, final V value)
+    {
+        if(value == null) throw new NullPointerException();
+        Fraction normalized = normalize(key);
+        if(!normalized.isCompact()) return large.put(normalized, value);
+        long num = normalized.getLongNumerator();
+        long den = normalized.getLongDenominator();
+        int index = find(num, den);
+        if(index >= 0)
+        {
+            V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+        insert(~index, num, den, value);
+        return null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーに値が対応付けられていない場合のみ，関数で求めた値を対応付ける.
+     * グループ化のように，キーごとに集計先を1つ用意する処理で探査を1回で済ませるために用いる
+     * @param key キー
+     * @param function 値を求める関数
+     * @return キーに対応付けられた値（関数がnullを返した場合はnull）
+     * @throws NullPointerException キーまたは関数にnullを与えた場合
+     */
+    public V computeIfAbsent(final Fraction key, final Function<? super Fraction, ? extends V> function)
+    {
+        if(function == null) throw new NullPointerException();
+        Fraction normalized = normalize(key);
+        if(!normalized.isCompact()) return large.computeIfAbsent(normalized, function);
+        long num = normalized.getLongNumerator();
+        long den = normalized.getLongDenominator();
+        int index = find(num, den);
+        if(index >= 0) return valueAt(index);
+        V value = function.apply(normalized);
+        if(value == null) return null;
+        // 関数が表を変更した場合に備えて探査し直す
+        index = find(num, den);
+        if(index >= 0)
+        {
+            values[index] = value;
+        }
+        else
+        {
+            insert(~index, num, den, value);
+        }
+        return value;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーの要素を削除する.
+     * @param key キー
+     * @return 削除した値（キーが格納されていなかった場合はnull）
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public V remove(final Fraction key)
+    {
+        Fraction normalized = normalize(key);
+        if(!normalized.isCompact()) return large.remove(normalized);
+        int index = find(normalized.getLongNumerator(), normalized.getLongDenominator());
+        if(index < 0) return null;
+        V previous = valueAt(index);
+        delete(index);
+        return previous;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての要素を削除する（表の大きさは変えない）.
+     */
+    public void clear()
+    {
+        Arrays.fill(denominators, 0L);
+        Arrays.fill(values, null);
+        compactSize = 0;
+        large.clear();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての要素に処理を行う（順序は不定）.
+     * @param action 処理
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public void forEach(final BiConsumer<? super Fraction, ? super V> action)
+    {
+        if(action == null) throw new NullPointerException();
+        for(int i = 0; i < denominators.length; i++)
+        {
+            if(denominators[i] != 0L) action.accept(Fraction.canonical(numerators[i], denominators[i]), valueAt(i));
+        }
+        large.forEach(action);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を走査するイテレータを返す（順序は不定）.
+     * 走査中に表を変更した場合の動作は保証しない
+     * @return イテレータ（削除には対応しない）
+     */
+    @Override
+    public Iterator<Map.Entry<Fraction, V>> iterator()
+    {
+        return new Iterator<Map.Entry<Fraction, V>>()
+        {
+            private int index = nextSlot(0);
+            private final Iterator<Map.Entry<Fraction, V>> rest = large.entrySet().iterator();
+            @Override
+            public boolean hasNext()
+            {
+                return index < denominators.length || rest.hasNext();
+            }
+            @Override
+            public Map.Entry<Fraction, V> next()
+            {
+                if(index >= denominators.length)
+                {
+                    if(!rest.hasNext()) throw new NoSuchElementException();
+                    Map.Entry<Fraction, V> entry = rest.next();
+                    return Map.entry(entry.getKey(), entry.getValue());
+                }
+                Map.Entry<Fraction, V> entry = Map.entry(Fraction.canonical(numerators[index], denominators[index]),
+                                                         valueAt(index));
+                index = nextSlot(index + 1);
+                return entry;
+            }
+        };
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーを正規形にする.
+     * サブクラスのインスタンスは分子・分母を直接設定できるため，long型に収まる値がBigIntegerで表現されている場合がある
+     * @param key キー
+     * @return 正規形のキー
+     */
+    private static Fraction normalize(final Fraction key)
+    {
+        if(key.isCompact() || key.getClass() == Fraction.class) return key;
+        return new Fraction(key.getNumerator(), key.getDenominator());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 使用中の次のスロットを探す.
+     * @param from 探索の開始位置
+     * @return スロットの位置（ない場合は表の大きさ）
+     */
+    private int nextSlot(final int from)
+    {
+        int i = from;
+        while(i < denominators.length && denominators[i] == 0L) i++;
+        return i;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * キーを探査する.
+     * @param num キーの分子
+     * @param den キーの分母
+     * @return キーの位置（見つからない場合は挿入位置をiとして~i）
+     */
+    private int find(final long num, final long den)
+    {
+        int mask = denominators.length - 1;
+        int index = Fraction.hash(num, den) & mask;
+        while(true)
+        {
+            long d = denominators[index];
+            if(d == 0L) return ~index;
+            if(d == den && numerators[index] == num) return index;
+            index = (index + 1) & mask;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 空きスロットに要素を格納し，負荷率が1/2を超えた場合は表を拡張する.
+     * @param index 空きスロットの位置
+     * @param num キーの分子
+     * @param den キーの分母
+     * @param value 値
+     * @throws IllegalStateException 表の大きさが上限に達し，空きスロットがなくなる場合
+     */
+    private void insert(final int index, final long num, final long den, final V value)
+    {
+        if(compactSize >= denominators.length - 1) throw new IllegalStateException();
+        numerators[index] = num;
+        denominators[index] = den;
+        values[index] = value;
+        compactSize++;
+        if(compactSize > denominators.length / 2 && denominators.length < MAX_CAPACITY) rehash(denominators.length * 2);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * スロットの要素を削除し，後続の要素を本来の位置に近づくよう詰め直す.
+     * @param index 削除するスロットの位置
+     */
+    private void delete(final int index)
+    {
+        int mask = denominators.length - 1;
+        int hole = index;
+        int i = index;
+        while(true)
+        {
+            i = (i + 1) & mask;
+            long den = denominators[i];
+            if(den == 0L) break;
+            int home = Fraction.hash(numerators[i], den) & mask;
+            // 本来の位置からiまでの探査経路に空きが含まれる場合は移動する
+            if(((i - home) & mask) >= ((i - hole) & mask))
+            {
+                numerators[hole] = numerators[i];
+                denominators[hole] = den;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        denominators[hole] = 0L;
+        values[hole] = null;
+        compactSize--;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 表の大きさを変えて要素を格納し直す.
+     * @param capacity 新しい表の大きさ（2のべき乗）
+     */
+    private void rehash(final int capacity)
+    {
+        long[] oldNumerators = numerators;
+        long[] oldDenominators = denominators;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for(int i = 0; i < oldDenominators.length; i++)
+        {
+            long den = oldDenominators[i];
+            if(den == 0L) continue;
+            long num = oldNumerators[i];
+            int index = Fraction.hash(num, den) & mask;
+            while(denominators[index] != 0L) index = (index + 1) & mask;
+            numerators[index] = num;
+            denominators[index] = den;
+            values[index] = oldValues[i];
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 表を確保する.
+     * @param capacity 表の大きさ（2のべき乗）
+     */
+    private void allocate(final int capacity)
+    {
+        numerators = new long[capacity];
+        denominators = new long[capacity];
+        values = new Object[capacity];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * スロットの値を取得する.
+     * @param index スロットの位置
+     * @return 値
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int index)
+    {
+        return (V)values[index];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数の見込みから表の大きさを求める.
+     * @param expectedSize 要素数の見込み
+     * @return 負荷率が1/2以下となる2のべき乗
+     */
+    private static int capacityFor(final int expectedSize)
+    {
+        long needed = Math.max(DEFAULT_CAPACITY, (long)expectedSize * 2L);
+        if(needed >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit((int)needed - 1) << 1;
+    }
+}
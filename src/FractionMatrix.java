@@ -0,0 +1,444 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数を要素とする不変の行列.
+ * 行列式・逆行列・連立一次方程式の解は，各行を分母の最小公倍数倍して整数行列とし，
+ * Bareissの除算なし消去法（ピボットごとに1回の整数の割り切れる除算のみ）で求める.
+ * 途中の要素は最終結果の分子・分母と同程度の大きさに抑えられ，約分はFractionに戻す際に1回だけ行う.
+ * 要素数の大きな行列では行ごとの演算を並列に行う
+ * @author 久保　由仁
+ */
+public class FractionMatrix
+{
+    /** 行ごとの演算を並列に行う要素数の下限. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /** 行数. */
+    private final int rows;
+    /** 列数. */
+    private final int columns;
+    /** 要素（行優先）. */
+    private final Fraction[] values;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param rows 行数
+     * @param columns 列数
+     * @param values 要素（行優先，複製せずに保持する）
+     */
+    private FractionMatrix(final int rows, final int columns, final Fraction[] values)
+    {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2次元配列から行列を生成する.
+     * @param values 要素（[行][列]）
+     * @return 生成した行列
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     * @throws IllegalArgumentException 行・列がない場合，または行ごとの列数が異なる場合
+     */
+    public static FractionMatrix of(final Fraction[][] values)
+    {
+        if(values == null) throw new NullPointerException();
+        if(values.length == 0 || values[0].length == 0) throw new IllegalArgumentException();
+        int columns = values[0].length;
+        Fraction[] elements = new Fraction[values.length * columns];
+        for(int i = 0; i < values.length; i++)
+        {
+            if(values[i].length != columns) throw new IllegalArgumentException();
+            for(int j = 0; j < columns; j++)
+            {
+                if(values[i][j] == null) throw new NullPointerException();
+                elements[i * columns + j] = values[i][j];
+            }
+        }
+        return new FractionMatrix(values.length, columns, elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 単位行列を生成する.
+     * @param size 行数（=列数）
+     * @return 単位行列
+     * @throws IllegalArgumentException 行数が正でない場合
+     */
+    public static FractionMatrix identity(final int size)
+    {
+        if(size <= 0) throw new IllegalArgumentException();
+        Fraction[] elements = new Fraction[size * size];
+        Arrays.fill(elements, Fraction.ZERO);
+        for(int i = 0; i < size; i++)
+        {
+            elements[i * size + i] = Fraction.ONE;
+        }
+        return new FractionMatrix(size, size, elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行数を取得する.
+     * @return 行数
+     */
+    public int rows()
+    {
+        return rows;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 列数を取得する.
+     * @return 列数
+     */
+    public int columns()
+    {
+        return columns;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を取得する.
+     * @param row 行
+     * @param column 列
+     * @return 要素
+     * @throws IndexOutOfBoundsException 行または列が範囲外の場合
+     */
+    public Fraction get(final int row, final int column)
+    {
+        if(row < 0 || row >= rows || column < 0 || column >= columns) throw new IndexOutOfBoundsException();
+        return values[row * columns + column];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列の積を求める.
+     * 左の行列の各行と右の行列の各列をそれぞれ分母の最小公倍数倍した整数で内積を計算し，
+     * 要素ごとに1回だけ約分する
+     * @param another 右から掛ける行列
+     * @return 行列の積
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 左の列数と右の行数が異なる場合
+     */
+    public FractionMatrix multiply(final FractionMatrix another)
+    {
+        if(another == null) throw new NullPointerException();
+        if(columns != another.rows) throw new IllegalArgumentException();
+        BigInteger[] rowScales = new BigInteger[rows];
+        final BigInteger[][] left = toIntegerRows(this, null, rowScales);
+        BigInteger[] columnScales = new BigInteger[another.columns];
+        final BigInteger[][] right = toIntegerRows(another.transpose(), null, columnScales);
+        final int width = another.columns;
+        final Fraction[] elements = new Fraction[rows * width];
+        parallel(0, rows, (long)rows * width * columns, (int i) ->
+        {
+            for(int j = 0; j < width; j++)
+            {
+                BigInteger sum = BigInteger.ZERO;
+                for(int k = 0; k < columns; k++)
+                {
+                    if(left[i][k].signum() != 0 && right[j][k].signum() != 0)
+                    {
+                        sum = sum.add(left[i][k].multiply(right[j][k]));
+                    }
+                }
+                elements[i * width + j] = new Fraction(sum, rowScales[i].multiply(columnScales[j]));
+            }
+        });
+        return new FractionMatrix(rows, width, elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 転置行列を求める.
+     * @return 転置行列
+     */
+    public FractionMatrix transpose()
+    {
+        Fraction[] elements = new Fraction[values.length];
+        for(int i = 0; i < rows; i++)
+        {
+            for(int j = 0; j < columns; j++)
+            {
+                elements[j * rows + i] = values[i * columns + j];
+            }
+        }
+        return new FractionMatrix(columns, rows, elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列式を求める.
+     * @return 行列式
+     * @throws IllegalArgumentException 正方行列でない場合
+     */
+    public Fraction determinant()
+    {
+        checkSquare();
+        BigInteger[] scales = new BigInteger[rows];
+        BigInteger[][] matrix = toIntegerRows(this, null, scales);
+        int sign = eliminate(matrix, rows);
+        if(sign == 0) return Fraction.ZERO;
+        BigInteger scale = BigInteger.ONE;
+        for(BigInteger factor : scales)
+        {
+            scale = scale.multiply(factor);
+        }
+        BigInteger det = matrix[rows - 1][rows - 1];
+        return new Fraction(sign < 0 ? det.negate() : det, scale);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 逆行列を求める.
+     * @return 逆行列
+     * @throws IllegalArgumentException 正方行列でない場合，または正則でない場合
+     */
+    public FractionMatrix inverse()
+    {
+        return solve(identity(rows));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 連立一次方程式 this × x = b を解く.
+     * @param b 右辺のベクトル
+     * @return 解のベクトル
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     * @throws IllegalArgumentException 正方行列でない場合，正則でない場合，または右辺の要素数が行数と異なる場合
+     */
+    public Fraction[] solve(final Fraction[] b)
+    {
+        if(b == null) throw new NullPointerException();
+        Fraction[][] column = new Fraction[b.length][1];
+        for(int i = 0; i < b.length; i++)
+        {
+            column[i][0] = b[i];
+        }
+        FractionMatrix solution = solve(of(column));
+        return solution.values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 連立一次方程式 this × X = B を解く.
+     * 拡大係数行列をBareissの消去法で上三角化した後，解に行列式を乗じた整数を後退代入で求める
+     * （Cramerの公式よりこの値は整数となるため，後退代入の除算も割り切れる）
+     * @param b 右辺の行列
+     * @return 解の行列
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 正方行列でない場合，正則でない場合，または右辺の行数が行数と異なる場合
+     */
+    public FractionMatrix solve(final FractionMatrix b)
+    {
+        if(b == null) throw new NullPointerException();
+        checkSquare();
+        if(b.rows != rows) throw new IllegalArgumentException();
+        final int size = rows;
+        final int width = b.columns;
+        final BigInteger[][] matrix = toIntegerRows(this, b, new BigInteger[size]);
+        if(eliminate(matrix, size) == 0) throw new IllegalArgumentException();
+        final BigInteger det = matrix[size - 1][size - 1];
+        final Fraction[] elements = new Fraction[size * width];
+        parallel(0, width, (long)size * size * width / 2, (int c) ->
+        {
+            BigInteger[] scaled = new BigInteger[size];
+            for(int i = size - 1; i >= 0; i--)
+            {
+                if(i == size - 1)
+                {
+                    // 最後の対角要素は行列式そのものなので除算は不要
+                    scaled[i] = matrix[i][size + c];
+                }
+                else
+                {
+                    BigInteger sum = det.multiply(matrix[i][size + c]);
+                    for(int j = i + 1; j < size; j++)
+                    {
+                        if(matrix[i][j].signum() != 0) sum = sum.subtract(matrix[i][j].multiply(scaled[j]));
+                    }
+                    scaled[i] = sum.divide(matrix[i][i]);
+                }
+                elements[i * width + c] = new Fraction(scaled[i], det);
+            }
+        });
+        return new FractionMatrix(size, width, elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 2次元配列に変換する.
+     * @return 要素（[行][列]）
+     */
+    public Fraction[][] toArray()
+    {
+        Fraction[][] result = new Fraction[rows][];
+        for(int i = 0; i < rows; i++)
+        {
+            result[i] = Arrays.copyOfRange(values, i * columns, (i + 1) * columns);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する.
+     * @param another 比較対象オブジェクト
+     * @return 行数・列数・全要素が等しい場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(!(another instanceof FractionMatrix)) return false;
+        FractionMatrix matrix = (FractionMatrix)another;
+        return rows == matrix.rows && columns == matrix.columns && Arrays.equals(values, matrix.values);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        return 31 * (31 * rows + columns) + Arrays.hashCode(values);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列の文字列表現を返す.
+     * @return "[[a, b], [c, d]]" 形式の文字列
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for(int i = 0; i < rows; i++)
+        {
+            if(i > 0) builder.append(", ");
+            builder.append('[');
+            for(int j = 0; j < columns; j++)
+            {
+                if(j > 0) builder.append(", ");
+                values[i * columns + j].appendTo(builder);
+            }
+            builder.append(']');
+        }
+        return builder.append(']').toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正方行列であることを確認する.
+     * @throws IllegalArgumentException 正方行列でない場合
+     */
+    private void checkSquare()
+    {
+        if(rows != columns) throw new IllegalArgumentException();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列（と右辺の行列）を横に並べ，各行を分母の最小公倍数倍した整数行列に変換する.
+     * @param left 左側の行列
+     * @param right 右側の行列（null可）
+     * @param scales 各行に乗じた値の格納先
+     * @return 整数行列
+     */
+    private static BigInteger[][] toIntegerRows(final FractionMatrix left, final FractionMatrix right,
+                                                final BigInteger[] scales)
+    {
+        int width = left.columns + (right == null ? 0 : right.columns);
+        BigInteger[][] result = new BigInteger[left.rows][width];
+        for(int i = 0; i < left.rows; i++)
+        {
+            BigInteger lcm = BigInteger.ONE;
+            for(int j = 0; j < width; j++)
+            {
+                BigInteger den = element(left, right, i, j).getDenominator();
+                if(!den.equals(BigInteger.ONE)) lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+            }
+            for(int j = 0; j < width; j++)
+            {
+                Fraction frac = element(left, right, i, j);
+                BigInteger den = frac.getDenominator();
+                result[i][j] = den.equals(lcm) ? frac.getNumerator() : frac.getNumerator().multiply(lcm.divide(den));
+            }
+            scales[i] = lcm;
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 横に並べた行列の要素を取得する.
+     * @param left 左側の行列
+     * @param right 右側の行列（null可）
+     * @param row 行
+     * @param column 列
+     * @return 要素
+     */
+    private static Fraction element(final FractionMatrix left, final FractionMatrix right, final int row, final int column)
+    {
+        if(column < left.columns) return left.values[row * left.columns + column];
+        return right.values[row * right.columns + column - left.columns];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数行列の先頭size列をBareissの消去法で上三角化する.
+     * 第k段では第k行より下の各行を (pivot × a[i][j] - a[i][k] × a[k][j]) / 前段のpivot に置き換える
+     * （この除算は常に割り切れる）．最後の対角要素は行を入れ替えた行列の行列式となる
+     * @param matrix 整数行列（結果で上書きする）
+     * @param size 消去する列数（=行数）
+     * @return 行の入れ替えによる符号（1または-1），正則でない場合は0
+     */
+    private static int eliminate(final BigInteger[][] matrix, final int size)
+    {
+        final int width = matrix[0].length;
+        int sign = 1;
+        BigInteger previous = BigInteger.ONE;
+        for(int k = 0; k < size; k++)
+        {
+            int pivotRow = -1;
+            for(int i = k; i < size; i++)
+            {
+                // 桁数の小さいピボットを選ぶと後続の乗算が軽くなる
+                if(matrix[i][k].signum() != 0
+                   && (pivotRow < 0 || matrix[i][k].bitLength() < matrix[pivotRow][k].bitLength())) pivotRow = i;
+            }
+            if(pivotRow < 0) return 0;
+            if(pivotRow != k)
+            {
+                BigInteger[] tmp = matrix[k];
+                matrix[k] = matrix[pivotRow];
+                matrix[pivotRow] = tmp;
+                sign = -sign;
+            }
+            final int step = k;
+            final BigInteger[] pivotRowValues = matrix[k];
+            final BigInteger pivot = pivotRowValues[k];
+            final BigInteger divisor = previous;
+            parallel(k + 1, size, (long)(size - k - 1) * (width - k - 1), (int i) ->
+            {
+                BigInteger[] row = matrix[i];
+                BigInteger factor = row[step];
+                for(int j = step + 1; j < width; j++)
+                {
+                    BigInteger value = row[j].multiply(pivot);
+                    if(factor.signum() != 0 && pivotRowValues[j].signum() != 0)
+                    {
+                        value = value.subtract(factor.multiply(pivotRowValues[j]));
+                    }
+                    row[j] = divisor.equals(BigInteger.ONE) ? value : value.divide(divisor);
+                }
+                row[step] = BigInteger.ZERO;
+            });
+            previous = pivot;
+        }
+        return sign;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 範囲内の添字に対して処理を行う（処理量が閾値以上の場合は並列に行う）.
+     * @param from 開始添字
+     * @param to 終了添字（この値を含まない）
+     * @param work 処理量の目安
+     * @param action 添字ごとの処理
+     */
+    private static void parallel(final int from, final int to, final long work, final IntConsumer action)
+    {
+        IntStream range = IntStream.range(from, to);
+        if(work >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(action);
+    }
+}
@@ -0,0 +1,401 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数演算の計測.
+ * システムプロパティ{@value #PROPERTY}にtrueを指定して起動した場合のみ有効となり，
+ * 分数同士の四則演算と文字列の解析について，演算の種類ごとの回数，被演算子と結果のビット長のヒストグラム，
+ * BigIntegerのGCDの所要時間のヒストグラム，long型の演算が桁あふれしてBigIntegerに切り替えた回数，解析の失敗回数を数える.
+ * 計測値はスレッドごとに分散して加算する{@link LongAdder}に保持し，{@link #snapshot()}とJMX（{@value #OBJECT_NAME}）で参照できる.
+ * 無効の場合は計測の呼び出し元がstatic finalの判定で分岐するだけなので，JITコンパイル後はほぼ費用がかからない
+ * @author 久保　由仁
+ */
+public final class FractionMetrics
+{
+    /** 計測を有効にするシステムプロパティの名前. */
+    public static final String PROPERTY = "fraction.metrics";
+    /** MXBeanを登録する名前. */
+    public static final String OBJECT_NAME = "Fraction:type=FractionMetrics";
+    /** 計測が有効か否か. */
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+    /** ヒストグラムの階級の数（値0と，[2^(i-1), 2^i)の64階級）. */
+    private static final int BUCKETS = 65;
+    /** 計測する演算の種類. */
+    public enum Operation
+    {
+        /** 加算. */
+        ADD,
+        /** 減算. */
+        SUBTRACT,
+        /** 乗算. */
+        MULTIPLY,
+        /** 除算. */
+        DIVIDE,
+        /** 文字列の解析. */
+        PARSE
+    }
+    /** 演算の種類ごとの回数. */
+    private static final LongAdder[] OPERATIONS = createAdders(Operation.values().length);
+    /** 被演算子のビット長のヒストグラム. */
+    private static final LongAdder[] OPERAND_BITS = createAdders(BUCKETS);
+    /** 演算結果のビット長のヒストグラム. */
+    private static final LongAdder[] RESULT_BITS = createAdders(BUCKETS);
+    /** GCDの所要時間（ナノ秒）のヒストグラム. */
+    private static final LongAdder[] GCD_NANOS = createAdders(BUCKETS);
+    /** 桁あふれによりBigIntegerで計算し直した回数. */
+    private static final LongAdder OVERFLOWS = new LongAdder();
+    /** 解析の失敗回数. */
+    private static final LongAdder PARSE_FAILURES = new LongAdder();
+    static
+    {
+        if(ENABLED)
+        {
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+            }
+            catch(JMException e)
+            {
+                // 登録できない場合（同名のMXBeanが登録済みの場合など）もsnapshot()で参照できる
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /** インスタンス化を禁止する. */
+    private FractionMetrics() {}
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 計測が有効か否かを判定する.
+     * @return true: 有効, false: 無効
+     */
+    public static boolean isEnabled()
+    {
+        return ENABLED;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 現在の計測値を取得する.
+     * 各値は個別に読み取るため，並行に行われている演算を含むとは限らない
+     * @return 計測値
+     */
+    public static Snapshot snapshot()
+    {
+        return new Snapshot();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての計測値を0に戻す.
+     */
+    public static void reset()
+    {
+        resetAll(OPERATIONS);
+        resetAll(OPERAND_BITS);
+        resetAll(RESULT_BITS);
+        resetAll(GCD_NANOS);
+        OVERFLOWS.reset();
+        PARSE_FAILURES.reset();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 二項演算を記録する（{@link #ENABLED}がtrueの場合のみ呼び出すこと）.
+     * @param operation 演算の種類
+     * @param a 被演算子1
+     * @param b 被演算子2
+     * @param result 演算結果
+     * @return 演算結果
+     */
+    static Fraction record(final Operation operation, final Fraction a, final Fraction b, final Fraction result)
+    {
+        OPERATIONS[operation.ordinal()].increment();
+        OPERAND_BITS[bucket(bitLength(a))].increment();
+        OPERAND_BITS[bucket(bitLength(b))].increment();
+        RESULT_BITS[bucket(bitLength(result))].increment();
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 解析の成功を記録する（{@link #ENABLED}がtrueの場合のみ呼び出すこと）.
+     * @param result 解析結果
+     */
+    static void recordParse(final Fraction result)
+    {
+        OPERATIONS[Operation.PARSE.ordinal()].increment();
+        RESULT_BITS[bucket(bitLength(result))].increment();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 解析の失敗を記録する（{@link #ENABLED}がtrueの場合のみ呼び出すこと）.
+     */
+    static void recordParseFailure()
+    {
+        PARSE_FAILURES.increment();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 桁あふれによるBigIntegerへの切り替えを記録する（{@link #ENABLED}がtrueの場合のみ呼び出すこと）.
+     */
+    static void recordOverflow()
+    {
+        OVERFLOWS.increment();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 所要時間を記録しながらBigIntegerのGCDを求める（{@link #ENABLED}がtrueの場合のみ呼び出すこと）.
+     * @param a 整数1
+     * @param b 整数2
+     * @return 最大公約数
+     */
+    static BigInteger gcd(final BigInteger a, final BigInteger b)
+    {
+        long start = System.nanoTime();
+        BigInteger gcd = a.gcd(b);
+        GCD_NANOS[bucket(System.nanoTime() - start)].increment();
+        return gcd;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分子・分母の大きい方のビット長を求める.
+     * @param value 分数
+     * @return ビット長
+     */
+    private static int bitLength(final Fraction value)
+    {
+        if(value.isCompact())
+        {
+            long magnitude = Math.max(Math.abs(value.getLongNumerator()), value.getLongDenominator());
+            return Long.SIZE - Long.numberOfLeadingZeros(magnitude);
+        }
+        return Math.max(value.getNumerator().bitLength(), value.getDenominator().bitLength());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値の属するヒストグラムの階級を求める.
+     * @param value 値
+     * @return 階級（0: 0以下, i: [2^(i-1), 2^i)）
+     */
+    private static int bucket(final long value)
+    {
+        return value <= 0L ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * LongAdderの配列を生成する.
+     * @param length 要素数
+     * @return LongAdderの配列
+     */
+    private static LongAdder[] createAdders(final int length)
+    {
+        LongAdder[] adders = new LongAdder[length];
+        for(int i = 0; i < length; i++)
+        {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * LongAdderの配列をすべて0に戻す.
+     * @param adders LongAdderの配列
+     */
+    private static void resetAll(final LongAdder[] adders)
+    {
+        for(LongAdder adder : adders)
+        {
+            adder.reset();
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * LongAdderの配列の現在の値を取得する.
+     * @param adders LongAdderの配列
+     * @return 値の配列
+     */
+    private static long[] sumAll(final LongAdder[] adders)
+    {
+        long[] values = new long[adders.length];
+        for(int i = 0; i < adders.length; i++)
+        {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * ある時点の計測値（不変）.
+     */
+    public static final class Snapshot
+    {
+        /** 演算の種類ごとの回数. */
+        private final Map<Operation, Long> operationCounts;
+        /** 被演算子のビット長のヒストグラム. */
+        private final long[] operandBitLengths;
+        /** 演算結果のビット長のヒストグラム. */
+        private final long[] resultBitLengths;
+        /** GCDの所要時間のヒストグラム. */
+        private final long[] gcdNanos;
+        /** 桁あふれによりBigIntegerで計算し直した回数. */
+        private final long overflowPromotions;
+        /** 解析の失敗回数. */
+        private final long parseFailures;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ（現在の計測値を読み取る）.
+         */
+        private Snapshot()
+        {
+            Map<Operation, Long> counts = new EnumMap<>(Operation.class);
+            for(Operation operation : Operation.values())
+            {
+                counts.put(operation, OPERATIONS[operation.ordinal()].sum());
+            }
+            this.operationCounts = Collections.unmodifiableMap(counts);
+            this.operandBitLengths = sumAll(OPERAND_BITS);
+            this.resultBitLengths = sumAll(RESULT_BITS);
+            this.gcdNanos = sumAll(GCD_NANOS);
+            this.overflowPromotions = OVERFLOWS.sum();
+            this.parseFailures = PARSE_FAILURES.sum();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 演算の回数を取得する.
+         * @param operation 演算の種類
+         * @return 回数
+         */
+        public long getOperationCount(final Operation operation)
+        {
+            return operationCounts.get(operation);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 演算の種類ごとの回数を取得する.
+         * @return 演算の種類と回数の表（変更不可）
+         */
+        public Map<Operation, Long> getOperationCounts()
+        {
+            return operationCounts;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 被演算子のビット長のヒストグラムを取得する.
+         * 分子・分母の大きい方のビット長を被演算子ごとに数える
+         * @return 度数の配列（添字iはビット長が[2^(i-1), 2^i)の範囲，添字0はビット長0）
+         */
+        public long[] getOperandBitLengthHistogram()
+        {
+            return operandBitLengths.clone();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 演算結果のビット長のヒストグラムを取得する.
+         * @return 度数の配列（添字の意味は{@link #getOperandBitLengthHistogram()}と同じ）
+         */
+        public long[] getResultBitLengthHistogram()
+        {
+            return resultBitLengths.clone();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * BigIntegerのGCDの所要時間のヒストグラムを取得する.
+         * @return 度数の配列（添字iは所要時間が[2^(i-1), 2^i)ナノ秒の範囲）
+         */
+        public long[] getGcdNanosHistogram()
+        {
+            return gcdNanos.clone();
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * long型の演算が桁あふれしてBigIntegerで計算し直した回数を取得する.
+         * @return 回数
+         */
+        public long getOverflowPromotions()
+        {
+            return overflowPromotions;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 文字列の解析に失敗した回数を取得する.
+         * @return 回数
+         */
+        public long getParseFailures()
+        {
+            return parseFailures;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 文字列表現を返す.
+         * @return 演算ごとの回数・桁あふれ・解析失敗の回数を並べた文字列
+         */
+        @Override
+        public String toString()
+        {
+            return operationCounts + ", overflowPromotions=" + overflowPromotions + ", parseFailures=" + parseFailures;
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * JMXに登録するMXBean.
+     */
+    private static final class Bean implements FractionMetricsMXBean
+    {
+        @Override
+        public boolean isEnabled()
+        {
+            return ENABLED;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public Map<String, Long> getOperationCounts()
+        {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for(Map.Entry<Operation, Long> entry : snapshot().getOperationCounts().entrySet())
+            {
+                counts.put(entry.getKey().name(), entry.getValue());
+            }
+            return counts;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public long[] getOperandBitLengthHistogram()
+        {
+            return sumAll(OPERAND_BITS);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public long[] getResultBitLengthHistogram()
+        {
+            return sumAll(RESULT_BITS);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public long[] getGcdNanosHistogram()
+        {
+            return sumAll(GCD_NANOS);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public long getOverflowPromotions()
+        {
+            return OVERFLOWS.sum();
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public long getParseFailures()
+        {
+            return PARSE_FAILURES.sum();
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public void reset()
+        {
+            FractionMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Map;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * {@link FractionMetrics}をJMXで公開するためのMXBeanインタフェース.
+ * 各属性は{@link FractionMetrics#snapshot()}の対応する値を返す
+ * @author 久保　由仁
+ */
+public interface FractionMetricsMXBean
+{
+    /**
+     * 計測が有効か否かを取得する.
+     * @return true: 有効, false: 無効
+     */
+    boolean isEnabled();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 演算の種類ごとの実行回数を取得する.
+     * @return 演算の名前と実行回数の表
+     */
+    Map<String, Long> getOperationCounts();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 被演算子のビット長のヒストグラムを取得する.
+     * @return 度数の配列（添字iはビット長が[2^(i-1), 2^i)の範囲，添字0はビット長0）
+     */
+    long[] getOperandBitLengthHistogram();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 演算結果のビット長のヒストグラムを取得する.
+     * @return 度数の配列（添字の意味は{@link #getOperandBitLengthHistogram()}と同じ）
+     */
+    long[] getResultBitLengthHistogram();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * BigIntegerのGCDの所要時間のヒストグラムを取得する.
+     * @return 度数の配列（添字iは所要時間が[2^(i-1), 2^i)ナノ秒の範囲）
+     */
+    long[] getGcdNanosHistogram();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の演算が桁あふれしてBigIntegerで計算し直した回数を取得する.
+     * @return 回数
+     */
+    long getOverflowPromotions();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列の解析に失敗した回数を取得する.
+     * @return 回数
+     */
+    long getParseFailures();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての計測値を0に戻す.
+     */
+    void reset();
+}
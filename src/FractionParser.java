@@ -0,0 +1,440 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数文字列の解析クラス.
+ * 正規表現を使わずに文字列を直接走査し，{@link Fraction#parse(String)}と同じ書式（"[符号] 分子 / 分母"）を受け付ける.
+ * 18桁以下の分子・分母はBigIntegerを経由せずにlong型で組み立てる
+ * @author 久保　由仁
+ */
+public final class FractionParser
+{
+    /** long型に桁あふれせずに格納できる10進数の最大桁数. */
+    private static final int MAX_LONG_DIGITS = 18;
+    /** Readerから読み込む際のバッファの初期サイズ. */
+    private static final int BUFFER_SIZE = 8192;
+    //----------------------------------------------------------------------------------------------
+    /** インスタンス化を禁止する. */
+    private FractionParser() {}
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列から分数を解析する.
+     * @param text 解析対象の文字列
+     * @return 解析した分数
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     */
+    public static Fraction parse(final CharSequence text)
+    {
+        return parse(text, 0, text.length());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列の指定範囲から分数を解析する.
+     * @param text 解析対象の文字列
+     * @param start 開始位置
+     * @param end 終了位置（この位置の文字は含まない）
+     * @return 解析した分数
+     * @throws IndexOutOfBoundsException 範囲が不正な場合
+     * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     */
+    public static Fraction parse(final CharSequence text, final int start, final int end)
+    {
+        if(!FractionMetrics.ENABLED) return parseRange(text, start, end);
+        try
+        {
+            Fraction result = parseRange(text, start, end);
+            FractionMetrics.recordParse(result);
+            return result;
+        }
+        catch(IllegalArgumentException e)
+        {
+            FractionMetrics.recordParseFailure();
+            throw e;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字列の指定範囲から分数を解析する（計測を伴わない本体）.
+     * @param text 解析対象の文字列
+     * @param start 開始位置
+     * @param end 終了位置（この位置の文字は含まない）
+     * @return 解析した分数
+     * @throws IndexOutOfBoundsException 範囲が不正な場合
+     * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     */
+    private static Fraction parseRange(final CharSequence text, final int start, final int end)
+    {
+        if(start < 0 || end > text.length() || start > end) throw new IndexOutOfBoundsException();
+        int pos = start;
+        int last = end;
+        while(pos < last && text.charAt(pos) <= ' ') pos++;
+        while(last > pos && text.charAt(last - 1) <= ' ') last--;
+        boolean negative = false;
+        if(pos < last && (text.charAt(pos) == '-' || text.charAt(pos) == '+'))
+        {
+            negative = text.charAt(pos) == '-';
+            pos = skipSpaces(text, pos + 1, last);
+        }
+        int numeratorStart = pos;
+        pos = skipDigits(text, pos, last);
+        int numeratorEnd = pos;
+        pos = skipSpaces(text, pos, last);
+        if(numeratorStart == numeratorEnd || pos == last || text.charAt(pos) != '/')
+        {
+            throw new IllegalArgumentException(text.subSequence(start, end).toString());
+        }
+        int denominatorStart = skipSpaces(text, pos + 1, last);
+        int denominatorEnd = skipDigits(text, denominatorStart, last);
+        if(denominatorStart == denominatorEnd || denominatorEnd != last)
+        {
+            throw new IllegalArgumentException(text.subSequence(start, end).toString());
+        }
+        if(numeratorEnd - numeratorStart <= MAX_LONG_DIGITS && denominatorEnd - denominatorStart <= MAX_LONG_DIGITS)
+        {
+            long numerator = toLong(text, numeratorStart, numeratorEnd);
+            long denominator = toLong(text, denominatorStart, denominatorEnd);
+            return Fraction.valueOf(negative ? -numerator : numerator, denominator);
+        }
+        BigInteger numerator = new BigInteger(text.subSequence(numeratorStart, numeratorEnd).toString());
+        BigInteger denominator = new BigInteger(text.subSequence(denominatorStart, denominatorEnd).toString());
+        return new Fraction(negative ? numerator.negate() : numerator, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * char配列の指定範囲から分数を解析する.
+     * @param chars 解析対象の文字配列
+     * @param offset 開始位置
+     * @param length 長さ
+     * @return 解析した分数
+     * @throws IndexOutOfBoundsException 範囲が不正な場合
+     * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     */
+    public static Fraction parse(final char[] chars, final int offset, final int length)
+    {
+        return parse(CharBuffer.wrap(chars), offset, offset + length);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ASCII（またはUTF-8）のバイト配列の指定範囲から分数を解析する.
+     * @param bytes 解析対象のバイト配列
+     * @param offset 開始位置
+     * @param length 長さ
+     * @return 解析した分数
+     * @throws IndexOutOfBoundsException 範囲が不正な場合
+     * @throws IllegalArgumentException 文字列の解析に失敗した場合
+     */
+    public static Fraction parse(final byte[] bytes, final int offset, final int length)
+    {
+        return parse(new ByteSequence(ByteBuffer.wrap(bytes)), offset, offset + length);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ByteBufferの現在位置からリミットまでを区切り文字または改行で分割し，すべての分数を解析する.
+     * 空白のみのレコードは読み飛ばす．解析後，バッファの位置はリミットまで進む
+     * @param buffer 解析対象のバッファ（ASCIIまたはUTF-8）
+     * @param delimiter レコードの区切り文字
+     * @return 解析した分数の配列
+     * @throws IllegalArgumentException 解析に失敗したレコードがある場合
+     */
+    public static Fraction[] parseAll(final ByteBuffer buffer, final char delimiter)
+    {
+        ByteSequence text = new ByteSequence(buffer);
+        List<Fraction> result = new ArrayList<>();
+        int start = buffer.position();
+        int limit = buffer.limit();
+        for(int pos = start; pos <= limit; pos++)
+        {
+            if(pos == limit || isRecordEnd(text.charAt(pos), delimiter))
+            {
+                if(!isBlank(text, start, pos)) result.add(parse(text, start, pos));
+                start = pos + 1;
+            }
+        }
+        buffer.position(limit);
+        return result.toArray(new Fraction[result.size()]);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Readerから読み込んだ文字列を区切り文字または改行で分割し，分数を順に解析するストリームを返す.
+     * 空白のみのレコードは読み飛ばす．Readerはストリームを閉じても閉じられない
+     * @param reader 読み込み元
+     * @param delimiter レコードの区切り文字
+     * @return 分数のストリーム（読み込みに失敗した場合はUncheckedIOExceptionをスローする）
+     */
+    public static Stream<Fraction> stream(final Reader reader, final char delimiter)
+    {
+        if(reader == null) throw new NullPointerException();
+        Iterator<Fraction> iterator = new RecordIterator(reader, delimiter);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 空白を読み飛ばす.
+     * @param text 文字列
+     * @param pos 開始位置
+     * @param end 終了位置
+     * @return 空白以外の文字の位置
+     */
+    private static int skipSpaces(final CharSequence text, int pos, final int end)
+    {
+        while(pos < end && isSpace(text.charAt(pos))) pos++;
+        return pos;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 数字を読み飛ばす.
+     * @param text 文字列
+     * @param pos 開始位置
+     * @param end 終了位置
+     * @return 数字以外の文字の位置
+     */
+    private static int skipDigits(final CharSequence text, int pos, final int end)
+    {
+        while(pos < end && isDigit(text.charAt(pos))) pos++;
+        return pos;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 数字の並びをlong型に変換する（18桁以下であること）.
+     * @param text 文字列
+     * @param start 開始位置
+     * @param end 終了位置
+     * @return 変換した値
+     */
+    private static long toLong(final CharSequence text, final int start, final int end)
+    {
+        long value = 0L;
+        for(int pos = start; pos < end; pos++)
+        {
+            value = value * 10L + (text.charAt(pos) - '0');
+        }
+        return value;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正規表現の\sに相当する空白文字か否かを判定する.
+     * @param c 判定対象の文字
+     * @return true: 空白文字, false: 空白文字以外
+     */
+    private static boolean isSpace(final char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ASCIIの数字か否かを判定する.
+     * @param c 判定対象の文字
+     * @return true: 数字, false: 数字以外
+     */
+    private static boolean isDigit(final char c)
+    {
+        return '0' <= c && c <= '9';
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * レコードの終端文字か否かを判定する.
+     * @param c 判定対象の文字
+     * @param delimiter 区切り文字
+     * @return true: 終端文字, false: 終端文字以外
+     */
+    private static boolean isRecordEnd(final char c, final char delimiter)
+    {
+        return c == delimiter || c == '\n';
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 指定範囲が空白（制御文字を含む）のみか否かを判定する.
+     * @param text 文字列
+     * @param start 開始位置
+     * @param end 終了位置
+     * @return true: 空白のみ, false: 空白以外の文字を含む
+     */
+    private static boolean isBlank(final CharSequence text, final int start, final int end)
+    {
+        for(int pos = start; pos < end; pos++)
+        {
+            if(text.charAt(pos) > ' ') return false;
+        }
+        return true;
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * ByteBufferをASCII文字列として参照するCharSequence（バッファの絶対位置で参照する）.
+     */
+    private static final class ByteSequence implements CharSequence
+    {
+        /** 参照先のバッファ. */
+        private final ByteBuffer buffer;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param buffer 参照先のバッファ
+         */
+        ByteSequence(final ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public int length()
+        {
+            return buffer.limit();
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public char charAt(final int index)
+        {
+            return (char)(buffer.get(index) & 0xFF);
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public CharSequence subSequence(final int start, final int end)
+        {
+            StringBuilder builder = new StringBuilder(end - start);
+            for(int pos = start; pos < end; pos++) builder.append(charAt(pos));
+            return builder;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public String toString()
+        {
+            return subSequence(0, length()).toString();
+        }
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Readerからレコードを1件ずつ読み込んで解析するIterator.
+     */
+    private static final class RecordIterator implements Iterator<Fraction>
+    {
+        /** 読み込み元. */
+        private final Reader reader;
+        /** 区切り文字. */
+        private final char delimiter;
+        /** 読み込みバッファ. */
+        private char[] buffer = new char[BUFFER_SIZE];
+        /** バッファ上の未解析部分の開始位置. */
+        private int start = 0;
+        /** バッファ上の有効な文字数. */
+        private int count = 0;
+        /** 走査済みの位置. */
+        private int scanned = 0;
+        /** 読み込み元の終端に達したか否か. */
+        private boolean eof = false;
+        /** 次に返す分数. */
+        private Fraction next = null;
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param reader 読み込み元
+         * @param delimiter 区切り文字
+         */
+        RecordIterator(final Reader reader, final char delimiter)
+        {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public boolean hasNext()
+        {
+            while(next == null)
+            {
+                if(scanned == count)
+                {
+                    if(eof)
+                    {
+                        if(start == count) return false;
+                        next = parseRecord(count);
+                        start = count;
+                        continue;
+                    }
+                    fill();
+                    continue;
+                }
+                if(isRecordEnd(buffer[scanned], delimiter))
+                {
+                    next = parseRecord(scanned);
+                    start = ++scanned;
+                }
+                else
+                {
+                    scanned++;
+                }
+            }
+            return true;
+        }
+        //------------------------------------------------------------------------------------------
+        @Override
+        public Fraction next()
+        {
+            if(!hasNext()) throw new NoSuchElementException();
+            Fraction result = next;
+            next = null;
+            return result;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * バッファ上の未解析部分から指定位置までを1レコードとして解析する.
+         * @param end レコードの終了位置
+         * @return 解析した分数（空白のみのレコードの場合はnull）
+         */
+        private Fraction parseRecord(final int end)
+        {
+            CharBuffer text = CharBuffer.wrap(buffer);
+            return isBlank(text, start, end) ? null : parse(text, start, end);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 未解析部分をバッファの先頭に詰めてから，続きを読み込む.
+         * 未解析部分だけでバッファが埋まっている場合はバッファを拡張する
+         */
+        private void fill()
+        {
+            if(start > 0)
+            {
+                System.arraycopy(buffer, start, buffer, 0, count - start);
+                count -= start;
+                scanned -= start;
+                start = 0;
+            }
+            if(count == buffer.length)
+            {
+                char[] newBuffer = new char[buffer.length * 2];
+                System.arraycopy(buffer, 0, newBuffer, 0, count);
+                buffer = newBuffer;
+            }
+            try
+            {
+                int read = reader.read(buffer, count, buffer.length - count);
+                if(read < 0)
+                {
+                    eof = true;
+                }
+                else
+                {
+                    count += read;
+                }
+            }
+            catch(IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
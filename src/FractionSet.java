@@ -0,0 +1,119 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Iterator;
+import java.util.Map;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の集合.
+ * {@link FractionMap}を用いるため，分子・分母がlong型に収まる要素はFractionオブジェクトを保持せずに
+ * long型の配列へ直接格納する.
+ * 要素にnullは使用できない．このクラスはスレッドセーフではない
+ * @author 久保　由仁
+ */
+public final class FractionSet implements Iterable<Fraction>
+{
+    /** 要素を格納したことを表す値. */
+    private static final Object PRESENT = new Object();
+    /** 要素をキーとするハッシュ表. */
+    private final FractionMap<Object> map;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     */
+    public FractionSet()
+    {
+        this.map = new FractionMap<>();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param expectedSize 格納する要素数の見込み（この数までは表を拡張しない）
+     * @throws IllegalArgumentException 要素数の見込みが負の場合
+     */
+    public FractionSet(final int expectedSize)
+    {
+        this.map = new FractionMap<>(expectedSize);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数を取得する.
+     * @return 要素数
+     */
+    public int size()
+    {
+        return map.size();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 空か否かを判定する.
+     * @return true: 空, false: 要素がある
+     */
+    public boolean isEmpty()
+    {
+        return map.isEmpty();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を追加する.
+     * @param value 追加する分数
+     * @return true: 追加した, false: すでに格納されていた
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public boolean add(final Fraction value)
+    {
+        return map.put(value, PRESENT) == null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素が格納されているか判定する.
+     * @param value 分数
+     * @return true: 格納されている, false: 格納されていない
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public boolean contains(final Fraction value)
+    {
+        return map.containsKey(value);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を削除する.
+     * @param value 削除する分数
+     * @return true: 削除した, false: 格納されていなかった
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public boolean remove(final Fraction value)
+    {
+        return map.remove(value) != null;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての要素を削除する.
+     */
+    public void clear()
+    {
+        map.clear();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を走査するイテレータを返す（順序は不定）.
+     * 走査中に集合を変更した場合の動作は保証しない
+     * @return イテレータ（削除には対応しない）
+     */
+    @Override
+    public Iterator<Fraction> iterator()
+    {
+        Iterator<Map.Entry<Fraction, Object>> entries = map.iterator();
+        return new Iterator<Fraction>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return entries.hasNext();
+            }
+            @Override
+            public Fraction next()
+            {
+                return entries.next().getKey();
+            }
+        };
+    }
+}
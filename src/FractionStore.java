@@ -0,0 +1,501 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数をヒープ外（ダイレクトバッファまたはメモリマップトファイル）に格納するクラス.
+ * <p>
+ * 形式は，ヘッダ（マジックナンバー，バージョン，要素数）に続いて要素ごとに16バイトの固定長スロットを並べ，
+ * その後ろにlong型に収まらない要素のための可変長領域を置いたものである.
+ * スロットにはlong型の分子と分母をそのまま格納し，long型に収まらない要素は分母を0とし，
+ * 分子の位置に可変長領域内のオフセットを格納する.
+ * 可変長領域には長さ（int）と2の補数表現のバイト列を分子・分母の順に格納する.
+ * </p>
+ * 2GBを超える領域も扱えるよう，バッファは一定サイズのチャンクに分割して保持する.
+ * 要素は参照時に初めてFractionに変換する
+ * @author 久保　由仁
+ */
+public final class FractionStore implements Iterable<Fraction>
+{
+    /** マジックナンバー（"FRAC"）. */
+    private static final int MAGIC = 0x46524143;
+    /** 形式のバージョン. */
+    private static final int VERSION = 1;
+    /** ヘッダのサイズ. */
+    private static final int HEADER_SIZE = 16;
+    /** スロットのサイズ. */
+    private static final int SLOT_SIZE = 16;
+    /** チャンクサイズの既定値（1GB）. */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+    /** 領域を分割したチャンク. */
+    private final ByteBuffer[] chunks;
+    /** チャンクのサイズ（SLOT_SIZEの倍数）. */
+    private final int chunkSize;
+    /** 要素数. */
+    private final long size;
+    /** 可変長領域の開始位置. */
+    private final long variableOffset;
+    /** 領域全体のバイト数. */
+    private final long capacity;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param chunks 領域を分割したチャンク
+     * @param chunkSize チャンクのサイズ
+     * @throws IOException ヘッダが不正な場合
+     */
+    private FractionStore(final ByteBuffer[] chunks, final int chunkSize) throws IOException
+    {
+        this.chunks = chunks;
+        this.chunkSize = chunkSize;
+        if(chunks.length == 0 || chunks[0].capacity() < HEADER_SIZE
+           || chunks[0].getInt(0) != MAGIC || chunks[0].getInt(4) != VERSION)
+        {
+            throw new IOException("Invalid fraction store");
+        }
+        long total = 0L;
+        for(ByteBuffer chunk : chunks)
+        {
+            total += chunk.capacity();
+        }
+        this.capacity = total;
+        this.size = chunks[0].getLong(8);
+        if(size < 0L || size > (capacity - HEADER_SIZE) / SLOT_SIZE) throw new IOException("Invalid fraction store");
+        this.variableOffset = HEADER_SIZE + size * SLOT_SIZE;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をダイレクトバッファに格納したストアを生成する.
+     * @param values 格納する分数（2回走査するため，走査中に変更しないこと）
+     * @return 生成したストア
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     */
+    public static FractionStore of(final Collection<Fraction> values)
+    {
+        return of(values, DEFAULT_CHUNK_SIZE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をダイレクトバッファに格納したストアを生成する.
+     * @param values 格納する分数
+     * @param chunkSize チャンクのサイズ（SLOT_SIZEの倍数）
+     * @return 生成したストア
+     */
+    static FractionStore of(final Collection<Fraction> values, final int chunkSize)
+    {
+        checkChunkSize(chunkSize);
+        long total = computeSize(values);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(total, chunkSize)];
+        for(int i = 0; i < chunks.length; i++)
+        {
+            chunks[i] = ByteBuffer.allocateDirect((int)Math.min(chunkSize, total - (long)i * chunkSize));
+        }
+        encode(values, chunks, chunkSize);
+        try
+        {
+            return new FractionStore(chunks, chunkSize);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をファイルに書き出す.
+     * @param path 書き出し先のファイル（既存のファイルは上書きする）
+     * @param values 格納する分数（2回走査するため，走査中に変更しないこと）
+     * @throws IOException 書き出しに失敗した場合
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     */
+    public static void write(final Path path, final Collection<Fraction> values) throws IOException
+    {
+        write(path, values, DEFAULT_CHUNK_SIZE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をファイルに書き出す.
+     * @param path 書き出し先のファイル
+     * @param values 格納する分数
+     * @param chunkSize チャンクのサイズ（SLOT_SIZEの倍数）
+     * @throws IOException 書き出しに失敗した場合
+     */
+    static void write(final Path path, final Collection<Fraction> values, final int chunkSize) throws IOException
+    {
+        checkChunkSize(chunkSize);
+        long total = computeSize(values);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount(total, chunkSize)];
+            for(int i = 0; i < chunks.length; i++)
+            {
+                long position = (long)i * chunkSize;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(chunkSize, total - position));
+            }
+            encode(values, chunks, chunkSize);
+            channel.force(false);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ファイルを読み取り専用でメモリマップしたストアを生成する.
+     * ファイルの内容は参照時に初めて読み込まれる
+     * @param path ファイル
+     * @return 生成したストア
+     * @throws IOException 読み込みに失敗した場合，または形式が不正な場合
+     */
+    public static FractionStore map(final Path path) throws IOException
+    {
+        return map(path, DEFAULT_CHUNK_SIZE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ファイルを読み取り専用でメモリマップしたストアを生成する.
+     * @param path ファイル
+     * @param chunkSize チャンクのサイズ（SLOT_SIZEの倍数）
+     * @return 生成したストア
+     * @throws IOException 読み込みに失敗した場合，または形式が不正な場合
+     */
+    static FractionStore map(final Path path, final int chunkSize) throws IOException
+    {
+        checkChunkSize(chunkSize);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long total = channel.size();
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount(total, chunkSize)];
+            for(int i = 0; i < chunks.length; i++)
+            {
+                long position = (long)i * chunkSize;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, total - position));
+            }
+            return new FractionStore(chunks, chunkSize);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数を取得する.
+     * @return 要素数
+     */
+    public long size()
+    {
+        return size;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を取得する.
+     * @param index 添字
+     * @return 要素
+     * @throws IndexOutOfBoundsException 添字が範囲外の場合
+     * @throws IllegalStateException 格納された要素の形式が不正な場合
+     */
+    public Fraction get(final long index)
+    {
+        if(index < 0L || index >= size) throw new IndexOutOfBoundsException(Long.toString(index));
+        long slot = HEADER_SIZE + index * SLOT_SIZE;
+        long numerator = getLong(slot);
+        long denominator = getLong(slot + 8);
+        if(denominator != 0L) return Fraction.valueOf(numerator, denominator);
+        return decodeBig(variableOffset + numerator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 先頭から順に要素を参照するカーソルを返す.
+     * @return カーソル
+     */
+    public Cursor cursor()
+    {
+        return new Cursor();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 先頭から順に要素を返すIteratorを返す.
+     * @return Iterator
+     */
+    @Override
+    public Iterator<Fraction> iterator()
+    {
+        final Cursor cursor = cursor();
+        return new Iterator<Fraction>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return cursor.index + 1 < size;
+            }
+            @Override
+            public Fraction next()
+            {
+                if(!cursor.next()) throw new NoSuchElementException();
+                return cursor.get();
+            }
+        };
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 要素を先頭から順に参照するカーソル.
+     * {@link #next()}で次の要素に移動し，long型に収まる要素は{@link #getLongNumerator()}などで
+     * Fractionに変換せずに参照できる
+     */
+    public final class Cursor
+    {
+        /** 現在の添字. */
+        private long index = -1L;
+        /** 現在の要素の分子（long型に収まらない場合は可変長領域内のオフセット）. */
+        private long numerator;
+        /** 現在の要素の分母（long型に収まらない場合は0）. */
+        private long denominator;
+        //------------------------------------------------------------------------------------------
+        /** コンストラクタ. */
+        private Cursor() {}
+        //------------------------------------------------------------------------------------------
+        /**
+         * 次の要素に移動する.
+         * @return true: 移動した, false: 末尾に達した
+         */
+        public boolean next()
+        {
+            if(index + 1 >= size)
+            {
+                index = size;
+                return false;
+            }
+            index++;
+            long slot = HEADER_SIZE + index * SLOT_SIZE;
+            numerator = getLong(slot);
+            denominator = getLong(slot + 8);
+            return true;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 現在の添字を取得する.
+         * @return 添字
+         */
+        public long index()
+        {
+            return index;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 現在の要素がlong型に収まるか否かを判定する.
+         * @return true: long型に収まる, false: long型に収まらない
+         */
+        public boolean isCompact()
+        {
+            checkPosition();
+            return denominator != 0L;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 現在の要素の分子をlong型で取得する（{@link #isCompact()}がtrueの場合のみ有効）.
+         * @return 分子
+         */
+        public long getLongNumerator()
+        {
+            checkPosition();
+            return numerator;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 現在の要素の分母をlong型で取得する（{@link #isCompact()}がtrueの場合のみ有効）.
+         * @return 分母
+         */
+        public long getLongDenominator()
+        {
+            checkPosition();
+            return denominator;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 現在の要素を取得する.
+         * @return 要素
+         * @throws IllegalStateException 格納された要素の形式が不正な場合
+         */
+        public Fraction get()
+        {
+            checkPosition();
+            if(denominator != 0L) return Fraction.valueOf(numerator, denominator);
+            return decodeBig(variableOffset + numerator);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 要素を指していることを確認する.
+         * @throws IllegalStateException 先頭の前または末尾の後ろを指している場合
+         */
+        private void checkPosition()
+        {
+            if(index < 0L || index >= size) throw new IllegalStateException();
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 格納に必要なバイト数を求める.
+     * @param values 格納する分数
+     * @return バイト数
+     */
+    private static long computeSize(final Collection<Fraction> values)
+    {
+        long total = HEADER_SIZE + (long)values.size() * SLOT_SIZE;
+        for(Fraction value : values)
+        {
+            if(!value.isCompact()) total += bigSize(value);
+        }
+        return total;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型に収まらない分数の可変長領域でのバイト数を求める.
+     * @param value 分数
+     * @return バイト数
+     */
+    private static long bigSize(final Fraction value)
+    {
+        return 8L + value.getNumerator().bitLength() / 8 + 1 + value.getDenominator().bitLength() / 8 + 1;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * チャンクのサイズがスロットのサイズの倍数であることを確認する.
+     * @param chunkSize チャンクのサイズ
+     * @throws IllegalArgumentException スロットのサイズの倍数でない場合
+     */
+    private static void checkChunkSize(final int chunkSize)
+    {
+        if(chunkSize < SLOT_SIZE || chunkSize % SLOT_SIZE != 0) throw new IllegalArgumentException();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 必要なチャンク数を求める.
+     * @param total 全体のバイト数
+     * @param chunkSize チャンクのサイズ
+     * @return チャンク数
+     */
+    private static int chunkCount(final long total, final int chunkSize)
+    {
+        return (int)((total + chunkSize - 1) / chunkSize);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数をチャンクに書き込む.
+     * @param values 格納する分数
+     * @param chunks 書き込み先のチャンク
+     * @param chunkSize チャンクのサイズ
+     */
+    private static void encode(final Collection<Fraction> values, final ByteBuffer[] chunks, final int chunkSize)
+    {
+        chunks[0].putInt(0, MAGIC);
+        chunks[0].putInt(4, VERSION);
+        chunks[0].putLong(8, values.size());
+        long slot = HEADER_SIZE;
+        long variableOffset = HEADER_SIZE + (long)values.size() * SLOT_SIZE;
+        long offset = 0L;
+        for(Fraction value : values)
+        {
+            ByteBuffer chunk = chunks[(int)(slot / chunkSize)];
+            int position = (int)(slot % chunkSize);
+            if(value.isCompact())
+            {
+                chunk.putLong(position, value.getLongNumerator());
+                chunk.putLong(position + 8, value.getLongDenominator());
+            }
+            else
+            {
+                chunk.putLong(position, offset);
+                chunk.putLong(position + 8, 0L);
+                long pos = variableOffset + offset;
+                pos = putBytes(chunks, chunkSize, pos, value.getNumerator().toByteArray());
+                putBytes(chunks, chunkSize, pos, value.getDenominator().toByteArray());
+                offset += bigSize(value);
+            }
+            slot += SLOT_SIZE;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さ（int）に続けてバイト列を書き込む（チャンクの境界をまたいでもよい）.
+     * @param chunks 書き込み先のチャンク
+     * @param chunkSize チャンクのサイズ
+     * @param pos 書き込み位置
+     * @param bytes バイト列
+     * @return 書き込んだ次の位置
+     */
+    private static long putBytes(final ByteBuffer[] chunks, final int chunkSize, long pos, final byte[] bytes)
+    {
+        int length = bytes.length;
+        for(int shift = 24; shift >= 0; shift -= 8)
+        {
+            chunks[(int)(pos / chunkSize)].put((int)(pos % chunkSize), (byte)(length >>> shift));
+            pos++;
+        }
+        for(byte b : bytes)
+        {
+            chunks[(int)(pos / chunkSize)].put((int)(pos % chunkSize), b);
+            pos++;
+        }
+        return pos;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * スロット内のlong値を読み込む（スロットはチャンクの境界をまたがない）.
+     * @param pos 読み込み位置
+     * @return 読み込んだ値
+     */
+    private long getLong(final long pos)
+    {
+        return chunks[(int)(pos / chunkSize)].getLong((int)(pos % chunkSize));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 1バイト読み込む.
+     * @param pos 読み込み位置
+     * @return 読み込んだ値
+     */
+    private byte getByte(final long pos)
+    {
+        return chunks[(int)(pos / chunkSize)].get((int)(pos % chunkSize));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さ（int）に続くバイト列を読み込む（チャンクの境界をまたいでもよい）.
+     * @param pos 読み込み位置
+     * @return 読み込んだバイト列
+     * @throws IllegalStateException 位置または長さが可変長領域の範囲外の場合
+     */
+    private byte[] getBytes(long pos)
+    {
+        if(pos < variableOffset || pos > capacity - 4L) throw new IllegalStateException();
+        int length = 0;
+        for(int i = 0; i < 4; i++)
+        {
+            length = (length << 8) | (getByte(pos++) & 0xFF);
+        }
+        if(length <= 0 || length > capacity - pos) throw new IllegalStateException();
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++)
+        {
+            bytes[i] = getByte(pos++);
+        }
+        return bytes;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 可変長領域からlong型に収まらない分数を読み込む.
+     * ファイルの内容は信頼できないため，分母が正であることを確かめ，約分して正規形にする
+     * @param pos 読み込み位置
+     * @return 読み込んだ分数
+     * @throws IllegalStateException 形式が不正な場合（分母が正でない場合を含む）
+     */
+    private Fraction decodeBig(final long pos)
+    {
+        byte[] numerator = getBytes(pos);
+        BigInteger denominator = new BigInteger(getBytes(pos + 4 + numerator.length));
+        if(denominator.signum() <= 0) throw new IllegalStateException();
+        return new Fraction(new BigInteger(numerator), denominator);
+    }
+}
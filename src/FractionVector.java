@@ -0,0 +1,257 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数の配列を列指向で保持するクラス.
+ * 分子と分母をそれぞれlong型の配列に正規形で格納し，long型に収まらない要素のみを別表にFractionとして保持する.
+ * 要素ごとの演算はlong型のまま行い，long型の要素同士ではFractionオブジェクトを生成しない.
+ * 演算はこのオブジェクト自体を変更する．このクラスはスレッドセーフではない
+ * @author 久保　由仁
+ */
+public class FractionVector
+{
+    /** 分子の配列. */
+    private final long[] numerators;
+    /** 分母の配列（0の要素はlong型に収まらず，{@link #overflow}に格納している）. */
+    private final long[] denominators;
+    /** long型に収まらない要素（添字→値）. */
+    private final Map<Integer, Fraction> overflow = new HashMap<>();
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ（すべての要素は0）.
+     * @param size 要素数
+     * @throws NegativeArraySizeException 要素数が負の場合
+     */
+    public FractionVector(final int size)
+    {
+        numerators = new long[size];
+        denominators = new long[size];
+        Arrays.fill(denominators, 1L);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数の配列から生成する.
+     * @param values 分数の配列
+     * @return 生成した配列
+     * @throws NullPointerException 引数または配列の要素にnullを与えた場合
+     */
+    public static FractionVector of(final Fraction... values)
+    {
+        FractionVector result = new FractionVector(values.length);
+        for(int i = 0; i < values.length; i++)
+        {
+            result.set(i, values[i]);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数を取得する.
+     * @return 要素数
+     */
+    public int size()
+    {
+        return numerators.length;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を取得する.
+     * @param index 添字
+     * @return 要素
+     * @throws ArrayIndexOutOfBoundsException 添字が範囲外の場合
+     */
+    public Fraction get(final int index)
+    {
+        if(denominators[index] == 0L) return overflow.get(index);
+        return Fraction.valueOf(numerators[index], denominators[index]);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素を設定する.
+     * @param index 添字
+     * @param value 設定する値
+     * @throws NullPointerException 値にnullを与えた場合
+     * @throws ArrayIndexOutOfBoundsException 添字が範囲外の場合
+     */
+    public void set(final int index, final Fraction value)
+    {
+        if(value == null) throw new NullPointerException();
+        if(value.isCompact())
+        {
+            if(denominators[index] == 0L) overflow.remove(index);
+            numerators[index] = value.getLongNumerator();
+            denominators[index] = value.getLongDenominator();
+        }
+        else
+        {
+            numerators[index] = 0L;
+            denominators[index] = 0L;
+            overflow.put(index, value);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素ごとに加算する（this[i] += another[i]）.
+     * @param another 加算対象の配列
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 要素数が異なる場合
+     */
+    public FractionVector add(final FractionVector another)
+    {
+        checkSize(another);
+        for(int i = 0; i < numerators.length; i++)
+        {
+            if(denominators[i] != 0L && another.denominators[i] != 0L
+               && addCompact(i, another.numerators[i], another.denominators[i])) continue;
+            set(i, get(i).add(another.get(i)));
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素ごとに乗算する（this[i] *= another[i]）.
+     * @param another 乗算対象の配列
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 要素数が異なる場合
+     */
+    public FractionVector multiply(final FractionVector another)
+    {
+        checkSize(another);
+        for(int i = 0; i < numerators.length; i++)
+        {
+            if(denominators[i] != 0L && another.denominators[i] != 0L
+               && multiplyCompact(i, another.numerators[i], another.denominators[i])) continue;
+            set(i, get(i).multiply(another.get(i)));
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての要素に分数を乗じる（this[i] *= factor）.
+     * @param factor 乗算対象の分数
+     * @return このオブジェクト
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public FractionVector scale(final Fraction factor)
+    {
+        if(factor == null) throw new NullPointerException();
+        boolean compact = factor.isCompact();
+        long num = factor.getLongNumerator();
+        long den = factor.getLongDenominator();
+        for(int i = 0; i < numerators.length; i++)
+        {
+            if(compact && denominators[i] != 0L && multiplyCompact(i, num, den)) continue;
+            set(i, get(i).multiply(factor));
+        }
+        return this;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての要素の合計を求める.
+     * @return 合計
+     */
+    public Fraction sum()
+    {
+        FractionAccumulator acc = new FractionAccumulator();
+        for(int i = 0; i < numerators.length; i++)
+        {
+            if(denominators[i] == 0L)
+            {
+                acc.add(overflow.get(i));
+            }
+            else
+            {
+                acc.addTerm(numerators[i], denominators[i]);
+            }
+        }
+        return acc.toFraction();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Fractionの配列に変換する.
+     * @return 分数の配列
+     */
+    public Fraction[] toArray()
+    {
+        Fraction[] result = new Fraction[numerators.length];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = get(i);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数が等しいことを確認する.
+     * @param another 比較対象の配列
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 要素数が異なる場合
+     */
+    private void checkSize(final FractionVector another)
+    {
+        if(another == null) throw new NullPointerException();
+        if(another.size() != size()) throw new IllegalArgumentException();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の要素に (num / den) をlong型のまま加算する.
+     * @param index 添字
+     * @param num 加算する分子
+     * @param den 加算する分母（正の値）
+     * @return true: 加算できた, false: 桁あふれした（要素は変更しない）
+     */
+    private boolean addCompact(final int index, final long num, final long den)
+    {
+        long den1 = denominators[index];
+        try
+        {
+            long gcd = Fraction.gcd(den1, den);
+            long factor = den / gcd;
+            long newNumerator = Math.addExact(Math.multiplyExact(numerators[index], factor),
+                                              Math.multiplyExact(num, den1 / gcd));
+            long newDenominator = Math.multiplyExact(den1, factor);
+            if(newNumerator == Long.MIN_VALUE) return false;
+            long reduce = Fraction.gcd(newNumerator, newDenominator);
+            numerators[index] = newNumerator / reduce;
+            denominators[index] = newDenominator / reduce;
+            return true;
+        }
+        catch(ArithmeticException e)
+        {
+            return false;
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の要素に (num / den) をlong型のまま乗じる.
+     * たすき掛けで約分してから乗じるので，結果は既約となる
+     * @param index 添字
+     * @param num 乗じる分子
+     * @param den 乗じる分母（正の値）
+     * @return true: 乗算できた, false: 桁あふれした（要素は変更しない）
+     */
+    private boolean multiplyCompact(final int index, final long num, final long den)
+    {
+        long num1 = numerators[index];
+        long den1 = denominators[index];
+        long gcd1 = Fraction.gcd(num1, den);
+        long gcd2 = Fraction.gcd(num, den1);
+        try
+        {
+            long newNumerator = Math.multiplyExact(num1 / gcd1, num / gcd2);
+            long newDenominator = newNumerator == 0L ? 1L : Math.multiplyExact(den1 / gcd2, den / gcd1);
+            if(newNumerator == Long.MIN_VALUE) return false;
+            numerators[index] = newNumerator;
+            denominators[index] = newDenominator;
+            return true;
+        }
+        catch(ArithmeticException e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,612 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * 分数を係数とする不変の多項式.
+ * 係数を共通の分母と整数の分子の配列で保持し（分母と全分子の最大公約数は1），
+ * 評価・加減算・乗算・剰余付き除算・最大公約数は整数のまま計算して，結果を作る際に1回だけ約分する.
+ * 乗算は次数が大きい場合にKaratsuba法を用いる
+ * @author 久保　由仁
+ */
+public class RationalPolynomial
+{
+    /** 0の多項式. */
+    public static final RationalPolynomial ZERO = new RationalPolynomial(new BigInteger[0], BigInteger.ONE);
+    /** 1の多項式. */
+    public static final RationalPolynomial ONE = new RationalPolynomial(new BigInteger[] { BigInteger.ONE }, BigInteger.ONE);
+    /** 多項式 x. */
+    public static final RationalPolynomial X = new RationalPolynomial(new BigInteger[] { BigInteger.ZERO, BigInteger.ONE }, BigInteger.ONE);
+    /** Karatsuba法に切り替える係数の個数. */
+    private static final int KARATSUBA_THRESHOLD = 32;
+    /** 一括評価を並列に行う処理量（点の個数 × 係数の個数）の下限. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /** 整数の係数（添字は次数，最高次の係数は0以外）. */
+    private final BigInteger[] coefficients;
+    /** 共通の分母（正の値）. */
+    private final BigInteger denominator;
+    //----------------------------------------------------------------------------------------------
+    /**
+     * コンストラクタ.
+     * @param coefficients 整数の係数（正規化済み，複製せずに保持する）
+     * @param denominator 共通の分母（正規化済み）
+     */
+    private RationalPolynomial(final BigInteger[] coefficients, final BigInteger denominator)
+    {
+        this.coefficients = coefficients;
+        this.denominator = denominator;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 係数から多項式を生成する.
+     * @param coefficients 係数（定数項から順に並べる）
+     * @return 生成した多項式
+     * @throws NullPointerException 引数または係数にnullを与えた場合
+     */
+    public static RationalPolynomial of(final Fraction... coefficients)
+    {
+        if(coefficients == null) throw new NullPointerException();
+        BigInteger lcm = BigInteger.ONE;
+        for(Fraction coefficient : coefficients)
+        {
+            BigInteger den = coefficient.getDenominator();
+            if(!den.equals(BigInteger.ONE)) lcm = lcm.divide(lcm.gcd(den)).multiply(den);
+        }
+        BigInteger[] numerators = new BigInteger[coefficients.length];
+        for(int i = 0; i < coefficients.length; i++)
+        {
+            BigInteger den = coefficients[i].getDenominator();
+            numerators[i] = den.equals(lcm) ? coefficients[i].getNumerator()
+                                            : coefficients[i].getNumerator().multiply(lcm.divide(den));
+        }
+        return create(numerators, lcm);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 与えた点を通る次数最小の多項式（補間多項式）を求める.
+     * Newtonの差分商を計算し，Horner法の要領で展開する
+     * @param xs 点のx座標（互いに異なる値）
+     * @param ys 点のy座標
+     * @return 補間多項式
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     * @throws IllegalArgumentException 点の個数が異なる場合，またはx座標が重複している場合
+     */
+    public static RationalPolynomial interpolate(final Fraction[] xs, final Fraction[] ys)
+    {
+        if(xs == null || ys == null) throw new NullPointerException();
+        if(xs.length != ys.length) throw new IllegalArgumentException();
+        int n = xs.length;
+        Fraction[] differences = Arrays.copyOf(ys, n);
+        for(int level = 1; level < n; level++)
+        {
+            for(int i = n - 1; i >= level; i--)
+            {
+                Fraction step = xs[i].subtract(xs[i - level]);
+                if(step.signum() == 0) throw new IllegalArgumentException();
+                differences[i] = differences[i].subtract(differences[i - 1]).divide(step);
+            }
+        }
+        RationalPolynomial result = ZERO;
+        for(int i = n - 1; i >= 0; i--)
+        {
+            result = result.multiply(of(xs[i].negate(), Fraction.ONE)).add(of(differences[i]));
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 次数を取得する.
+     * @return 次数（0の多項式の場合は-1）
+     */
+    public int degree()
+    {
+        return coefficients.length - 1;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 係数を取得する.
+     * @param degree 次数
+     * @return 係数（次数を超える場合は0）
+     * @throws IllegalArgumentException 次数が負の場合
+     */
+    public Fraction coefficient(final int degree)
+    {
+        if(degree < 0) throw new IllegalArgumentException();
+        if(degree >= coefficients.length) return Fraction.ZERO;
+        return new Fraction(coefficients[degree], denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * すべての係数を取得する.
+     * @return 係数（定数項から順に並べる）
+     */
+    public Fraction[] coefficients()
+    {
+        Fraction[] result = new Fraction[coefficients.length];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = coefficient(i);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値を求める.
+     * x = p / q に対して Σ a[i] p^i q^(n-i) を整数のままHorner法で求め，最後に1回だけ約分する
+     * @param x 変数の値
+     * @return 多項式の値
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public Fraction evaluate(final Fraction x)
+    {
+        if(x == null) throw new NullPointerException();
+        if(coefficients.length == 0) return Fraction.ZERO;
+        BigInteger p = x.getNumerator();
+        BigInteger q = x.getDenominator();
+        BigInteger sum = coefficients[coefficients.length - 1];
+        BigInteger power = BigInteger.ONE;
+        for(int i = coefficients.length - 2; i >= 0; i--)
+        {
+            power = power.multiply(q);
+            sum = sum.multiply(p);
+            if(coefficients[i].signum() != 0) sum = sum.add(coefficients[i].multiply(power));
+        }
+        return new Fraction(sum, denominator.multiply(power));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 複数の点での値を求める（点の個数が多い場合は並列に求める）.
+     * @param xs 変数の値
+     * @return 多項式の値
+     * @throws NullPointerException 引数または要素にnullを与えた場合
+     */
+    public Fraction[] evaluate(final Fraction[] xs)
+    {
+        if(xs == null) throw new NullPointerException();
+        final Fraction[] result = new Fraction[xs.length];
+        IntStream range = IntStream.range(0, xs.length);
+        if((long)xs.length * (coefficients.length + 1) >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach((int i) -> result[i] = evaluate(xs[i]));
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加算を行う.
+     * @param another 加算対象の多項式
+     * @return 加算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public RationalPolynomial add(final RationalPolynomial another)
+    {
+        return combine(another, false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 減算を行う.
+     * @param another 減算対象の多項式
+     * @return 減算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public RationalPolynomial subtract(final RationalPolynomial another)
+    {
+        return combine(another, true);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 乗算を行う.
+     * @param another 乗算対象の多項式
+     * @return 乗算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public RationalPolynomial multiply(final RationalPolynomial another)
+    {
+        if(another == null) throw new NullPointerException();
+        if(coefficients.length == 0 || another.coefficients.length == 0) return ZERO;
+        return create(multiply(coefficients, another.coefficients), denominator.multiply(another.denominator));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 定数倍する.
+     * @param factor 乗じる分数
+     * @return 乗算結果
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public RationalPolynomial multiply(final Fraction factor)
+    {
+        if(factor == null) throw new NullPointerException();
+        if(factor.signum() == 0) return ZERO;
+        BigInteger num = factor.getNumerator();
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = coefficients[i].multiply(num);
+        }
+        return create(result, denominator.multiply(factor.getDenominator()));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 剰余付き除算を行う.
+     * 整数係数のまま擬除算 lc(b)^k × a = q × b + r を行い，商と剰余の分母にまとめて戻す
+     * @param divisor 除数の多項式
+     * @return {商, 剰余}（剰余の次数は除数の次数より小さい）
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 0の多項式で割った場合
+     */
+    public RationalPolynomial[] divideAndRemainder(final RationalPolynomial divisor)
+    {
+        if(divisor == null) throw new NullPointerException();
+        if(divisor.coefficients.length == 0) throw new IllegalArgumentException();
+        int n = divisor.coefficients.length;
+        if(coefficients.length < n) return new RationalPolynomial[] { ZERO, this };
+        BigInteger[] remainder = coefficients.clone();
+        BigInteger[] quotient = pseudoDivide(remainder, divisor.coefficients);
+        int steps = coefficients.length - n + 1;
+        BigInteger scale = divisor.coefficients[n - 1].pow(steps).multiply(denominator);
+        return new RationalPolynomial[] { create(multiplyAll(quotient, divisor.denominator), scale),
+                                          create(Arrays.copyOf(remainder, n - 1), scale) };
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算の商を求める.
+     * @param divisor 除数の多項式
+     * @return 商
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 0の多項式で割った場合
+     */
+    public RationalPolynomial divide(final RationalPolynomial divisor)
+    {
+        return divideAndRemainder(divisor)[0];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 除算の剰余を求める.
+     * @param divisor 除数の多項式
+     * @return 剰余
+     * @throws NullPointerException 引数にnullを与えた場合
+     * @throws IllegalArgumentException 0の多項式で割った場合
+     */
+    public RationalPolynomial remainder(final RationalPolynomial divisor)
+    {
+        return divideAndRemainder(divisor)[1];
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 最大公約数を求める.
+     * 整数係数のまま擬剰余をとり，係数の最大公約数（容量）で割る原始的剰余列で求める
+     * @param another 多項式
+     * @return 最高次の係数が1の最大公約数（両方0の場合は0）
+     * @throws NullPointerException 引数にnullを与えた場合
+     */
+    public RationalPolynomial gcd(final RationalPolynomial another)
+    {
+        if(another == null) throw new NullPointerException();
+        BigInteger[] a = primitive(coefficients);
+        BigInteger[] b = primitive(another.coefficients);
+        if(a.length < b.length)
+        {
+            BigInteger[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        while(b.length > 0)
+        {
+            BigInteger[] remainder = a.clone();
+            pseudoDivide(remainder, b);
+            a = b;
+            b = primitive(trim(Arrays.copyOf(remainder, b.length - 1)));
+        }
+        if(a.length == 0) return ZERO;
+        return create(a, a[a.length - 1]);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 導関数を求める.
+     * @return 導関数
+     */
+    public RationalPolynomial derivative()
+    {
+        if(coefficients.length <= 1) return ZERO;
+        BigInteger[] result = new BigInteger[coefficients.length - 1];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = coefficients[i + 1].multiply(BigInteger.valueOf(i + 1));
+        }
+        return create(result, denominator);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しいか判定する.
+     * @param another 比較対象オブジェクト
+     * @return 全係数が等しい場合：true
+     */
+    @Override
+    public boolean equals(final Object another)
+    {
+        if(another == this) return true;
+        if(!(another instanceof RationalPolynomial)) return false;
+        RationalPolynomial poly = (RationalPolynomial)another;
+        return denominator.equals(poly.denominator) && Arrays.equals(coefficients, poly.coefficients);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * このオブジェクトのhashCodeを返す.
+     * @return hashCode
+     */
+    @Override
+    public int hashCode()
+    {
+        return 31 * denominator.hashCode() + Arrays.hashCode(coefficients);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 多項式の文字列表現を返す.
+     * @return "3/2*x^2 - x + 1" 形式の文字列
+     */
+    @Override
+    public String toString()
+    {
+        if(coefficients.length == 0) return "0";
+        StringBuilder builder = new StringBuilder();
+        for(int i = coefficients.length - 1; i >= 0; i--)
+        {
+            if(coefficients[i].signum() == 0) continue;
+            Fraction coefficient = coefficient(i);
+            if(builder.length() == 0)
+            {
+                if(coefficient.signum() < 0) builder.append('-');
+            }
+            else
+            {
+                builder.append(coefficient.signum() < 0 ? " - " : " + ");
+            }
+            Fraction magnitude = coefficient.abs();
+            if(i == 0 || !magnitude.equals(Fraction.ONE))
+            {
+                builder.append(magnitude.getNumerator());
+                if(!magnitude.getDenominator().equals(BigInteger.ONE)) builder.append('/').append(magnitude.getDenominator());
+                if(i > 0) builder.append('*');
+            }
+            if(i > 0) builder.append('x');
+            if(i > 1) builder.append('^').append(i);
+        }
+        return builder.toString();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 多項式を加算または減算する.
+     * @param another 加算対象の多項式
+     * @param subtract true: 減算する, false: 加算する
+     * @return 加算結果
+     */
+    private RationalPolynomial combine(final RationalPolynomial another, final boolean subtract)
+    {
+        if(another == null) throw new NullPointerException();
+        BigInteger gcd = denominator.gcd(another.denominator);
+        BigInteger factor1 = another.denominator.divide(gcd);
+        BigInteger factor2 = denominator.divide(gcd);
+        if(subtract) factor2 = factor2.negate();
+        BigInteger[] result = new BigInteger[Math.max(coefficients.length, another.coefficients.length)];
+        for(int i = 0; i < result.length; i++)
+        {
+            BigInteger value = i < coefficients.length ? coefficients[i].multiply(factor1) : BigInteger.ZERO;
+            if(i < another.coefficients.length) value = value.add(another.coefficients[i].multiply(factor2));
+            result[i] = value;
+        }
+        return create(result, denominator.multiply(factor1));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数の係数と分母から正規化した多項式を生成する.
+     * 最高次の0を取り除き，分母を正にして，分母と全係数の最大公約数で1回だけ約分する
+     * @param coefficients 整数の係数（上書きする場合がある）
+     * @param denominator 分母（0以外）
+     * @return 生成した多項式
+     */
+    private static RationalPolynomial create(final BigInteger[] coefficients, final BigInteger denominator)
+    {
+        BigInteger[] values = trim(coefficients);
+        if(values.length == 0) return ZERO;
+        BigInteger gcd = denominator.abs();
+        for(int i = values.length - 1; i >= 0 && !gcd.equals(BigInteger.ONE); i--)
+        {
+            if(values[i].signum() != 0) gcd = gcd.gcd(values[i]);
+        }
+        if(denominator.signum() < 0) gcd = gcd.negate();
+        if(!gcd.equals(BigInteger.ONE))
+        {
+            for(int i = 0; i < values.length; i++)
+            {
+                values[i] = values[i].divide(gcd);
+            }
+        }
+        return new RationalPolynomial(values, denominator.divide(gcd));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 最高次の0を取り除く.
+     * @param coefficients 整数の係数
+     * @return 最高次の係数が0以外となる配列（取り除く必要がない場合は引数そのもの）
+     */
+    private static BigInteger[] trim(final BigInteger[] coefficients)
+    {
+        int length = coefficients.length;
+        while(length > 0 && coefficients[length - 1].signum() == 0)
+        {
+            length--;
+        }
+        return length == coefficients.length ? coefficients : Arrays.copyOf(coefficients, length);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数係数を容量（全係数の最大公約数）で割り，最高次の係数を正にする.
+     * @param coefficients 整数の係数（最高次の係数は0以外）
+     * @return 原始多項式の係数
+     */
+    private static BigInteger[] primitive(final BigInteger[] coefficients)
+    {
+        if(coefficients.length == 0) return coefficients;
+        BigInteger content = BigInteger.ZERO;
+        for(int i = coefficients.length - 1; i >= 0 && !content.equals(BigInteger.ONE); i--)
+        {
+            content = content.gcd(coefficients[i]);
+        }
+        if(coefficients[coefficients.length - 1].signum() < 0) content = content.negate();
+        return divideAll(coefficients, content);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 全係数を整数で割る.
+     * @param coefficients 整数の係数
+     * @param divisor 除数（全係数を割り切る値）
+     * @return 割った係数
+     */
+    private static BigInteger[] divideAll(final BigInteger[] coefficients, final BigInteger divisor)
+    {
+        if(divisor.equals(BigInteger.ONE)) return coefficients;
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = coefficients[i].divide(divisor);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 全係数に整数を乗じる.
+     * @param coefficients 整数の係数
+     * @param factor 乗数
+     * @return 乗じた係数
+     */
+    private static BigInteger[] multiplyAll(final BigInteger[] coefficients, final BigInteger factor)
+    {
+        if(factor.equals(BigInteger.ONE)) return coefficients;
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for(int i = 0; i < result.length; i++)
+        {
+            result[i] = coefficients[i].multiply(factor);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数係数の擬除算 lc(b)^k × a = q × b + r を行う（k = deg(a) - deg(b) + 1）.
+     * @param a 被除数の係数（剰余で上書きする，次数がdeg(b)以上であること）
+     * @param b 除数の係数（最高次の係数は0以外）
+     * @return 商の係数
+     */
+    private static BigInteger[] pseudoDivide(final BigInteger[] a, final BigInteger[] b)
+    {
+        int n = b.length;
+        BigInteger lead = b[n - 1];
+        BigInteger[] quotient = new BigInteger[a.length - n + 1];
+        for(int k = quotient.length - 1; k >= 0; k--)
+        {
+            // 余りと商の既存の項をlc(b)倍してから最高次の項を消去する
+            BigInteger term = a[k + n - 1];
+            for(int i = quotient.length - 1; i > k; i--)
+            {
+                quotient[i] = quotient[i].multiply(lead);
+            }
+            quotient[k] = term;
+            for(int i = 0; i < k + n - 1; i++)
+            {
+                a[i] = a[i].multiply(lead);
+            }
+            for(int i = 0; i < n - 1; i++)
+            {
+                if(b[i].signum() != 0 && term.signum() != 0) a[k + i] = a[k + i].subtract(term.multiply(b[i]));
+            }
+            a[k + n - 1] = BigInteger.ZERO;
+        }
+        return quotient;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数係数の多項式の積を求める（係数が多い場合はKaratsuba法を用いる）.
+     * @param a 係数1
+     * @param b 係数2
+     * @return 積の係数
+     */
+    private static BigInteger[] multiply(final BigInteger[] a, final BigInteger[] b)
+    {
+        if(a.length < KARATSUBA_THRESHOLD || b.length < KARATSUBA_THRESHOLD) return multiplySchoolbook(a, b);
+        int half = Math.max(a.length, b.length) / 2;
+        BigInteger[] a0 = Arrays.copyOf(a, Math.min(half, a.length));
+        BigInteger[] a1 = a.length > half ? Arrays.copyOfRange(a, half, a.length) : new BigInteger[0];
+        BigInteger[] b0 = Arrays.copyOf(b, Math.min(half, b.length));
+        BigInteger[] b1 = b.length > half ? Arrays.copyOfRange(b, half, b.length) : new BigInteger[0];
+        BigInteger[] result = new BigInteger[a.length + b.length - 1];
+        Arrays.fill(result, BigInteger.ZERO);
+        BigInteger[] z0 = multiply(a0, b0);
+        accumulate(result, z0, 0, false);
+        if(a1.length == 0 || b1.length == 0)
+        {
+            // 一方が短い場合は分割した残りを通常どおり掛ける
+            if(a1.length > 0) accumulate(result, multiply(a1, b0), half, false);
+            if(b1.length > 0) accumulate(result, multiply(a0, b1), half, false);
+            return result;
+        }
+        BigInteger[] z2 = multiply(a1, b1);
+        BigInteger[] z1 = multiply(sum(a0, a1), sum(b0, b1));
+        accumulate(result, z2, 2 * half, false);
+        accumulate(result, z1, half, false);
+        accumulate(result, z0, half, true);
+        accumulate(result, z2, half, true);
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数係数の多項式の積を筆算で求める.
+     * @param a 係数1
+     * @param b 係数2
+     * @return 積の係数
+     */
+    private static BigInteger[] multiplySchoolbook(final BigInteger[] a, final BigInteger[] b)
+    {
+        BigInteger[] result = new BigInteger[a.length + b.length - 1];
+        Arrays.fill(result, BigInteger.ZERO);
+        for(int i = 0; i < a.length; i++)
+        {
+            if(a[i].signum() == 0) continue;
+            for(int j = 0; j < b.length; j++)
+            {
+                if(b[j].signum() != 0) result[i + j] = result[i + j].add(a[i].multiply(b[j]));
+            }
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 係数ごとの和を求める.
+     * @param a 係数1
+     * @param b 係数2
+     * @return 和の係数
+     */
+    private static BigInteger[] sum(final BigInteger[] a, final BigInteger[] b)
+    {
+        BigInteger[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for(int i = 0; i < result.length; i++)
+        {
+            if(i >= a.length) result[i] = b[i];
+            else if(i < b.length) result[i] = result[i].add(b[i]);
+        }
+        return result;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ずらした係数を加算または減算する（target[offset + i] ±= values[i]）.
+     * @param target 加算先
+     * @param values 加算する係数
+     * @param offset ずらす次数
+     * @param subtract true: 減算する, false: 加算する
+     */
+    private static void accumulate(final BigInteger[] target, final BigInteger[] values, final int offset, final boolean subtract)
+    {
+        for(int i = 0; i < values.length; i++)
+        {
+            if(values[i].signum() == 0) continue;
+            target[offset + i] = subtract ? target[offset + i].subtract(values[i]) : target[offset + i].add(values[i]);
+        }
+    }
+}
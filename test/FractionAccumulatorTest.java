@@ -0,0 +1,129 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionAccumulatorクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionAccumulatorTest
+{
+    /**
+     * 初期値が0であること
+     */
+    @Test
+    public void initialValueTest()
+    {
+        final String message = "初期値が0であること";
+        Assert.assertEquals(message, new FractionAccumulator().toFraction(), Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分数を累積加算した結果がFraction.add()と一致すること
+     */
+    @Test
+    public void addTest()
+    {
+        final String message = "分数を累積加算した結果がFraction.add()と一致すること";
+        FractionAccumulator acc = new FractionAccumulator();
+        Fraction expected = Fraction.ZERO;
+        for(int i = 1; i <= 200; i++)
+        {
+            Fraction frac = new Fraction(i % 7 == 0 ? -1 : 1, i);
+            acc.add(frac);
+            expected = expected.add(frac);
+        }
+        Assert.assertEquals(message, acc.toFraction(), expected);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 閾値を小さくして途中で約分しても結果が変わらないこと
+     */
+    @Test
+    public void addWithSmallThresholdTest()
+    {
+        final String message = "閾値を小さくして途中で約分しても結果が変わらないこと";
+        FractionAccumulator acc1 = new FractionAccumulator(8);
+        FractionAccumulator acc2 = new FractionAccumulator();
+        for(int i = 1; i <= 100; i++)
+        {
+            Fraction frac = new Fraction(new BigInteger("1000000000000000000000").add(BigInteger.valueOf(i)), BigInteger.valueOf(i * 6));
+            acc1.add(frac).subtract(i);
+            acc2.add(frac).subtract(i);
+        }
+        Assert.assertEquals(message, acc1.toFraction(), acc2.toFraction());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の範囲を超えても正しく累積加算・減算できること
+     */
+    @Test
+    public void overflowTest()
+    {
+        final String message = "long型の範囲を超えても正しく累積加算・減算できること";
+        FractionAccumulator acc = new FractionAccumulator();
+        Fraction frac = new Fraction(Long.MAX_VALUE, 3);
+        acc.add(frac).add(frac).add(frac).add(Long.MIN_VALUE);
+        Assert.assertEquals(message, acc.toFraction(), new Fraction(-1));
+        acc.subtract(frac).subtract(frac).subtract(frac).subtract(Long.MIN_VALUE);
+        Assert.assertEquals(message, acc.toFraction(), Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 積の加算と内積が正しく計算できること
+     */
+    @Test
+    public void multiplyAddTest()
+    {
+        final String message = "積の加算と内積が正しく計算できること";
+        Fraction[] values1 = { new Fraction(1, 2), new Fraction(2, 3), new Fraction(Long.MAX_VALUE, 5) };
+        Fraction[] values2 = { new Fraction(3, 4), new Fraction(-9, 8), new Fraction(10, Long.MAX_VALUE) };
+        Fraction expected = Fraction.ZERO;
+        for(int i = 0; i < values1.length; i++)
+        {
+            expected = expected.add(values1[i].multiply(values2[i]));
+        }
+        Assert.assertEquals(message, new FractionAccumulator().dotProduct(values1, values2).toFraction(), expected);
+        Assert.assertEquals(message, new FractionAccumulator(Fraction.ONE).multiplyAdd(values1[0], values2[0]).toFraction(), new Fraction(11, 8));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * reset()で値が0に戻ること
+     */
+    @Test
+    public void resetTest()
+    {
+        final String message = "reset()で値が0に戻ること";
+        FractionAccumulator acc = new FractionAccumulator(new Fraction(new BigInteger("100000000000000000000000"), BigInteger.valueOf(7)));
+        acc.reset();
+        Assert.assertEquals(message, acc.add(Fraction.ONE_HALF).toFraction(), Fraction.ONE_HALF);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 約分しても閾値を超える大きな分母では，次に約分するビット長が引き上げられること
+     * @throws ReflectiveOperationException フィールドを参照できない場合
+     */
+    @Test
+    public void largeCoprimeDenominatorTest() throws ReflectiveOperationException
+    {
+        final String message = "約分しても閾値を超える大きな分母では，次に約分するビット長が引き上げられること";
+        BigInteger prime = BigInteger.ONE.shiftLeft(200).nextProbablePrime();
+        FractionAccumulator acc = new FractionAccumulator(64);
+        Fraction expected = Fraction.ZERO;
+        for(int i = 1; i <= 1000; i++)
+        {
+            Fraction frac = i % 3 == 0 ? new Fraction(1, 3) : new Fraction(BigInteger.valueOf(i), prime);
+            acc.add(frac);
+            expected = expected.add(frac);
+        }
+        Assert.assertEquals(message, acc.toFraction(), expected);
+        Field limit = FractionAccumulator.class.getDeclaredField("reduceLimit");
+        limit.setAccessible(true);
+        Assert.assertEquals(message, limit.getInt(acc) >= 2 * prime.bitLength(), true);
+        acc.reset();
+        Assert.assertEquals(message, limit.getInt(acc), 64);
+    }
+}
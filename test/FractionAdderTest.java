@@ -0,0 +1,99 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionAdderクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionAdderTest
+{
+    /**
+     * 単一スレッドでの加算・減算とリセットが正しく行われること
+     */
+    @Test
+    public void singleThreadTest()
+    {
+        final String message = "単一スレッドでの加算・減算とリセットが正しく行われること";
+        FractionAdder adder = new FractionAdder();
+        Assert.assertEquals(message, adder.sum(), Fraction.ZERO);
+        adder.add(new Fraction(1, 2));
+        adder.add(new Fraction(1, 3));
+        adder.add(2);
+        adder.subtract(new Fraction(1, 6));
+        Assert.assertEquals(message, adder.sum(), Fraction.valueOf(8, 3));
+        Assert.assertEquals(message, adder.intValue(), 2);
+        Assert.assertEquals(message, adder.sumThenReset(), Fraction.valueOf(8, 3));
+        Assert.assertEquals(message, adder.sum(), Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 複数スレッドから並行に加算しても加算結果が失われないこと
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    @Test
+    public void concurrentTest() throws InterruptedException
+    {
+        final String message = "複数スレッドから並行に加算しても加算結果が失われないこと";
+        final FractionAdder adder = new FractionAdder();
+        final int threadCount = 8;
+        final int count = 5000;
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < threadCount; t++)
+        {
+            final int denominator = t + 2;
+            Thread thread = new Thread(() ->
+            {
+                for(int i = 0; i < count; i++)
+                {
+                    adder.add(new Fraction(1, denominator));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+        Fraction expected = Fraction.ZERO;
+        for(int t = 0; t < threadCount; t++)
+        {
+            expected = expected.add(new Fraction(count, t + 2));
+        }
+        Assert.assertEquals(message, adder.sum(), expected);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 直列化して復元すると合計が保たれること
+     * @throws IOException 直列化に失敗した場合
+     * @throws ClassNotFoundException 復元に失敗した場合
+     */
+    @Test
+    public void serializeTest() throws IOException, ClassNotFoundException
+    {
+        final String message = "直列化して復元すると合計が保たれること";
+        FractionAdder adder = new FractionAdder();
+        adder.add(new Fraction(5, 7));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(adder);
+        }
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            FractionAdder restored = (FractionAdder)in.readObject();
+            Assert.assertEquals(message, restored.sum(), new Fraction(5, 7));
+            restored.add(new Fraction(2, 7));
+            Assert.assertEquals(message, restored.sum(), Fraction.ONE);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionArraysクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionArraysTest
+{
+    /**
+     * ランダムな分数のリストを生成する.
+     * @param rand 乱数
+     * @param size 要素数
+     * @return 生成したリスト
+     */
+    private static List<Fraction> createRandom(final Random rand, final int size)
+    {
+        List<Fraction> values = new ArrayList<>();
+        for(int i = 0; i < size; i++)
+        {
+            if(rand.nextInt(20) == 0)
+            {
+                values.add(new Fraction(new BigInteger(90, rand).subtract(BigInteger.ONE.shiftLeft(89)),
+                                        new BigInteger(80, rand).add(BigInteger.ONE)));
+            }
+            else
+            {
+                values.add(new Fraction(rand.nextInt(2001) - 1000, rand.nextInt(5000) + 1));
+            }
+        }
+        return values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母の最小公倍数が逐次計算と一致すること
+     */
+    @Test
+    public void lcmOfDenominatorsTest()
+    {
+        final String message = "分母の最小公倍数が逐次計算と一致すること";
+        Assert.assertEquals(message, FractionArrays.lcmOfDenominators(new Fraction[0]), BigInteger.ONE);
+        Assert.assertEquals(message, FractionArrays.lcmOfDenominators(new Fraction[] {new Fraction(1, 4), new Fraction(5, 6),
+                                                                                      Fraction.ONE}),
+                            BigInteger.valueOf(12));
+        Random rand = new Random(23);
+        for(int size : new int[] {7, 100, 3000})
+        {
+            List<Fraction> values = createRandom(rand, size);
+            BigInteger expected = BigInteger.ONE;
+            for(Fraction value : values)
+            {
+                BigInteger den = value.getDenominator();
+                expected = expected.divide(expected.gcd(den)).multiply(den);
+            }
+            Assert.assertEquals(message, FractionArrays.lcmOfDenominators(values), expected);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 通分した分子が元の値を表し，約分すると元の分数に戻ること
+     */
+    @Test
+    public void toCommonDenominatorTest()
+    {
+        final String message = "通分した分子が元の値を表し，約分すると元の分数に戻ること";
+        FractionArrays.CommonDenominator common = FractionArrays.toCommonDenominator(
+            new Fraction[] {new Fraction(1, 4), new Fraction(-5, 6), Fraction.ZERO, new Fraction(7)});
+        Assert.assertEquals(message, common.getDenominator(), BigInteger.valueOf(12));
+        Assert.assertEquals(message, common.getNumerator(0), BigInteger.valueOf(3));
+        Assert.assertEquals(message, common.getNumerator(1), BigInteger.valueOf(-10));
+        Assert.assertEquals(message, common.getNumerator(2), BigInteger.ZERO);
+        Assert.assertEquals(message, common.getNumerator(3), BigInteger.valueOf(84));
+        Random rand = new Random(230);
+        for(int size : new int[] {1, 50, 2000})
+        {
+            List<Fraction> values = createRandom(rand, size);
+            common = FractionArrays.toCommonDenominator(values);
+            Assert.assertEquals(message, common.size(), size);
+            Fraction[] restored = common.toFractions();
+            for(int i = 0; i < size; i++)
+            {
+                Assert.assertEquals(message, restored[i], values.get(i));
+                Assert.assertEquals(message, restored[i].getDenominator(), values.get(i).getDenominator());
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 一括約分の結果が個別の約分と一致すること
+     */
+    @Test
+    public void reduceAllTest()
+    {
+        final String message = "一括約分の結果が個別の約分と一致すること";
+        Random rand = new Random(2300);
+        BigInteger denominator = BigInteger.ONE;
+        for(int i = 2; i <= 60; i++)
+        {
+            denominator = denominator.multiply(BigInteger.valueOf(i));
+        }
+        BigInteger[] numerators = new BigInteger[1000];
+        for(int i = 0; i < numerators.length; i++)
+        {
+            numerators[i] = new BigInteger(rand.nextInt(100) + 1, rand).subtract(BigInteger.ONE.shiftLeft(40));
+        }
+        numerators[10] = BigInteger.ZERO;
+        for(BigInteger den : new BigInteger[] {denominator, denominator.negate()})
+        {
+            Fraction[] reduced = FractionArrays.reduceAll(numerators, den);
+            for(int i = 0; i < numerators.length; i++)
+            {
+                Assert.assertEquals(message, reduced[i], new Fraction(numerators[i], den));
+                Assert.assertEquals(message, reduced[i].getDenominator(), new Fraction(numerators[i], den).getDenominator());
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母と同程度の大きさの分子（通分した分子）の一括約分が個別の約分より大幅に遅くならないこと
+     */
+    @Test
+    public void reduceAllCostTest()
+    {
+        final String message = "分母と同程度の大きさの分子（通分した分子）の一括約分が個別の約分より大幅に遅くならないこと";
+        FractionArrays.CommonDenominator common = FractionArrays.toCommonDenominator(createRandom(new Random(230), 2000));
+        BigInteger[] numerators = common.getNumerators();
+        BigInteger denominator = common.getDenominator();
+        long batch = Long.MAX_VALUE;
+        long naive = Long.MAX_VALUE;
+        for(int n = 0; n < 3; n++)
+        {
+            long start = System.nanoTime();
+            FractionArrays.reduceAll(numerators, denominator);
+            batch = Math.min(batch, System.nanoTime() - start);
+            start = System.nanoTime();
+            for(BigInteger numerator : numerators)
+            {
+                new Fraction(numerator, denominator);
+            }
+            naive = Math.min(naive, System.nanoTime() - start);
+        }
+        Assert.assertEquals(message, batch <= 4L * naive + 100000000L, true);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母に0を与えると例外となること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void reduceAllByZeroTest()
+    {
+        FractionArrays.reduceAll(new BigInteger[] {BigInteger.ONE}, BigInteger.ZERO);
+    }
+}
@@ -0,0 +1,211 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionCodecクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionCodecTest
+{
+    /** テスト用の分数. */
+    private static final Fraction[] VALUES = {
+        Fraction.ZERO, new Fraction(1, 2), new Fraction(-3, 4), new Fraction(Long.MAX_VALUE, Long.MAX_VALUE - 1),
+        new Fraction(Long.MIN_VALUE + 1, 3), new Fraction(Long.MIN_VALUE, 3),
+        new Fraction(BigInteger.ONE.shiftLeft(200).negate(), BigInteger.valueOf(7))
+    };
+    /** 旧形式で直列化した 1/2. */
+    private static final String LEGACY_ONE_HALF =
+        "ACED0005737200084672616374696F6E420D68DA4B38C3D50200024C000B64656E6F6D696E61746F727400164C6A6176" +
+        "612F6D6174682F426967496E74656765723B4C00096E756D657261746F7271007E0001787200106A6176612E6C616E67" +
+        "2E4E756D62657286AC951D0B94E08B0200007870737200146A6176612E6D6174682E426967496E74656765728CFC9F1F" +
+        "A93BFB1D030006490008626974436F756E744900096269744C656E67746849001366697273744E6F6E7A65726F427974" +
+        "654E756D49000C6C6F776573745365744269744900067369676E756D5B00096D61676E69747564657400025B42787100" +
+        "7E0002FFFFFFFFFFFFFFFFFFFFFFFEFFFFFFFE00000001757200025B42ACF317F8060854E00200007870000000010278" +
+        "7371007E0004FFFFFFFFFFFFFFFFFFFFFFFEFFFFFFFE000000017571007E0007000000010178";
+    /** 旧形式で直列化した -100000000000000000000001/3. */
+    private static final String LEGACY_BIG =
+        "ACED0005737200084672616374696F6E420D68DA4B38C3D50200024C000B64656E6F6D696E61746F727400164C6A6176" +
+        "612F6D6174682F426967496E74656765723B4C00096E756D657261746F7271007E0001787200106A6176612E6C616E67" +
+        "2E4E756D62657286AC951D0B94E08B0200007870737200146A6176612E6D6174682E426967496E74656765728CFC9F1F" +
+        "A93BFB1D030006490008626974436F756E744900096269744C656E67746849001366697273744E6F6E7A65726F427974" +
+        "654E756D49000C6C6F776573745365744269744900067369676E756D5B00096D61676E69747564657400025B42787100" +
+        "7E0002FFFFFFFFFFFFFFFFFFFFFFFEFFFFFFFE00000001757200025B42ACF317F8060854E00200007870000000010378" +
+        "7371007E0004FFFFFFFFFFFFFFFFFFFFFFFEFFFFFFFEFFFFFFFF7571007E00070000000A152D02C7E14AF680000178";
+    //----------------------------------------------------------------------------------------------
+    /**
+     * DataOutputに書き込んだ分数をDataInputから読み込めること
+     */
+    @Test
+    public void dataStreamTest() throws IOException
+    {
+        final String message = "DataOutputに書き込んだ分数をDataInputから読み込めること";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for(Fraction value : VALUES)
+        {
+            FractionCodec.write(out, value);
+        }
+        FractionCodec.writeAll(out, VALUES);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for(Fraction value : VALUES)
+        {
+            Assert.assertEquals(message, FractionCodec.read(in), value);
+        }
+        Assert.assertArrayEquals(message, FractionCodec.readAll(in), VALUES);
+        Assert.assertEquals(message, in.read(), -1);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ByteBufferに書き込んだ分数を読み込めること，必要なバイト数が正しく求められること
+     */
+    @Test
+    public void byteBufferTest()
+    {
+        final String message = "ByteBufferに書き込んだ分数を読み込めること";
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int expectedSize = 0;
+        for(Fraction value : VALUES)
+        {
+            int start = buffer.position();
+            FractionCodec.write(buffer, value);
+            Assert.assertEquals(message, buffer.position() - start, FractionCodec.encodedSize(value));
+            expectedSize += FractionCodec.encodedSize(value);
+        }
+        Assert.assertEquals(message, FractionCodec.encodedSize(new Fraction(1, 2)), 2);
+        FractionCodec.writeAll(buffer, VALUES);
+        buffer.flip();
+        for(Fraction value : VALUES)
+        {
+            Assert.assertEquals(message, FractionCodec.read(buffer), value);
+        }
+        Assert.assertArrayEquals(message, FractionCodec.readAll(buffer), VALUES);
+        Assert.assertEquals(message, buffer.remaining(), 0);
+        Assert.assertTrue(message, expectedSize > 0);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 不正な形式を読み込むとStreamCorruptedExceptionがスローされること
+     */
+    @Test(expected=StreamCorruptedException.class)
+    public void readCorruptedTest() throws IOException
+    {
+        FractionCodec.read(new DataInputStream(new ByteArrayInputStream(new byte[] { 3, 0 })));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数が不正に大きい配列を読み込むと，巨大な配列を確保せずにEOFExceptionがスローされること
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Test(expected=EOFException.class)
+    public void readAllHugeLengthTest() throws IOException
+    {
+        byte[] data = { (byte)0xF7, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07, 4, 2 };
+        FractionCodec.readAll(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長さが不正に大きいバイト列を読み込むと，巨大な配列を確保せずにEOFExceptionがスローされること
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Test(expected=EOFException.class)
+    public void readBytesHugeLengthTest() throws IOException
+    {
+        byte[] data = new byte[20000];
+        data[0] = 1;
+        data[1] = (byte)0xF7;
+        data[2] = (byte)0xFF;
+        data[3] = (byte)0xFF;
+        data[4] = (byte)0xFF;
+        data[5] = 0x07;
+        FractionCodec.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Javaの直列化でコンパクトな形式が使われ，値が復元できること
+     */
+    @Test
+    public void serializationTest() throws IOException, ClassNotFoundException
+    {
+        final String message = "Javaの直列化でコンパクトな形式が使われ，値が復元できること";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(VALUES);
+        }
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            Object result = in.readObject();
+            Assert.assertArrayEquals(message, (Object[])result, VALUES);
+            Assert.assertTrue(message, result instanceof Fraction[]);
+        }
+        Fraction[] values = new Fraction[100];
+        for(int i = 0; i < values.length; i++)
+        {
+            values[i] = new Fraction(i + 1, i + 2);
+        }
+        bytes.reset();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(values);
+        }
+        Assert.assertTrue(message, bytes.size() < values.length * 16);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 旧形式（BigIntegerのフィールドをそのまま直列化した形式）の分数を正規形で復元できること
+     * @throws IOException 読み込みに失敗した場合
+     * @throws ClassNotFoundException クラスが見つからない場合
+     */
+    @Test
+    public void legacySerializationTest() throws IOException, ClassNotFoundException
+    {
+        final String message = "旧形式（BigIntegerのフィールドをそのまま直列化した形式）の分数を正規形で復元できること";
+        Fraction half = (Fraction)deserialize(LEGACY_ONE_HALF);
+        Assert.assertEquals(message, half, Fraction.ONE_HALF);
+        Assert.assertEquals(message, half.isCompact(), true);
+        Assert.assertEquals(message, half.hashCode(), Fraction.ONE_HALF.hashCode());
+        FractionMap<String> map = new FractionMap<>();
+        map.put(Fraction.ONE_HALF, "half");
+        Assert.assertEquals(message, map.get(half), "half");
+        FractionSet set = new FractionSet();
+        set.add(Fraction.ONE_HALF);
+        set.add(half);
+        Assert.assertEquals(message, set.size(), 1);
+        Fraction big = (Fraction)deserialize(LEGACY_BIG);
+        Assert.assertEquals(message, big, new Fraction(new BigInteger("-100000000000000000000001"), BigInteger.valueOf(3)));
+        Assert.assertEquals(message, big.isCompact(), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 16進数の文字列で表したバイト列を復元する.
+     * @param hex 16進数の文字列
+     * @return 復元したオブジェクト
+     * @throws IOException 読み込みに失敗した場合
+     * @throws ClassNotFoundException クラスが見つからない場合
+     */
+    private static Object deserialize(final String hex) throws IOException, ClassNotFoundException
+    {
+        byte[] bytes = new byte[hex.length() / 2];
+        for(int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte)Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            return in.readObject();
+        }
+    }
+}
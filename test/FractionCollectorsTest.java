@@ -0,0 +1,75 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionCollectorsクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionCollectorsTest
+{
+    /**
+     * テスト用の分数の配列（1/1, -1/2, 1/3, ...）を生成する.
+     * @param size 要素数
+     * @return 分数の配列
+     */
+    private static Fraction[] createValues(final int size)
+    {
+        Fraction[] values = new Fraction[size];
+        for(int i = 0; i < size; i++)
+        {
+            values[i] = new Fraction(i % 2 == 0 ? 1 : -1, i % 97 + 1);
+        }
+        return values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 並列ストリームの合計が逐次加算の結果と一致すること
+     */
+    @Test
+    public void summingTest()
+    {
+        final String message = "並列ストリームの合計が逐次加算の結果と一致すること";
+        Fraction[] values = createValues(10000);
+        Fraction expected = Fraction.ZERO;
+        for(Fraction frac : values)
+        {
+            expected = expected.add(frac);
+        }
+        Assert.assertEquals(message, Arrays.stream(values).parallel().collect(FractionCollectors.summing()), expected);
+        Assert.assertEquals(message, FractionCollectors.sum(values), expected);
+        Assert.assertEquals(message, FractionCollectors.sum(new Fraction[0]), Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 総乗と平均が正しく求められること
+     */
+    @Test
+    public void multiplyingAndAveragingTest()
+    {
+        final String message = "総乗と平均が正しく求められること";
+        Fraction result = Stream.of(new Fraction(1, 2), new Fraction(2, 3), new Fraction(-3, 4))
+                                .parallel().collect(FractionCollectors.multiplying());
+        Assert.assertEquals(message, result, new Fraction(-1, 4));
+        result = Stream.of(new Fraction(1, 2), new Fraction(1, 3), new Fraction(1, 6))
+                       .parallel().collect(FractionCollectors.averaging());
+        Assert.assertEquals(message, result, new Fraction(1, 3));
+        Assert.assertEquals(message, Stream.<Fraction>empty().collect(FractionCollectors.averaging()), Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 最小値と最大値が正しく求められること
+     */
+    @Test
+    public void minimumAndMaximumTest()
+    {
+        final String message = "最小値と最大値が正しく求められること";
+        Fraction[] values = createValues(500);
+        Assert.assertEquals(message, Arrays.stream(values).parallel().collect(FractionCollectors.minimum()), Optional.of(new Fraction(-1)));
+        Assert.assertEquals(message, Arrays.stream(values).parallel().collect(FractionCollectors.maximum()), Optional.of(new Fraction(1)));
+    }
+}
@@ -0,0 +1,55 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionContextクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionContextTest
+{
+    /**
+     * 演算結果が分母の上限以下の最も近い分数に丸められること
+     */
+    @Test
+    public void roundTest()
+    {
+        final String message = "演算結果が分母の上限以下の最も近い分数に丸められること";
+        FractionContext context = new FractionContext(100);
+        Assert.assertEquals(message, context.add(new Fraction(1, 97), new Fraction(1, 89)), new Fraction(2, 93));
+        Assert.assertEquals(message, context.multiply(new Fraction(1, 2), new Fraction(1, 3)), new Fraction(1, 6));
+        Assert.assertEquals(message, context.divide(Fraction.ONE, new Fraction(355, 113)), new Fraction(7, 22));
+        Assert.assertEquals(message, context.subtract(Fraction.ONE, new Fraction(1, 1000)), Fraction.ONE);
+        Assert.assertEquals(message, context.round(new Fraction(BigInteger.TEN.pow(50).add(BigInteger.ONE), BigInteger.TEN.pow(50))), Fraction.ONE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 反復計算で分母が上限を超えず，誤差が上限に応じた範囲に収まること
+     */
+    @Test
+    public void iterationTest()
+    {
+        final String message = "反復計算で分母が上限を超えず，誤差が上限に応じた範囲に収まること";
+        FractionContext context = new FractionContext(1000000);
+        Fraction two = Fraction.valueOf(2);
+        Fraction x = Fraction.ONE;
+        for(int i = 0; i < 50; i++)
+        {
+            // ニュートン法で √2 を求める
+            x = context.divide(context.add(x, context.divide(two, x)), two);
+            Assert.assertTrue(message, x.getDenominator().compareTo(BigInteger.valueOf(1000000)) <= 0);
+        }
+        Assert.assertEquals(message, x.doubleValue(), Math.sqrt(2.0), 1.0e-11);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分母の上限に0を与えるとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxDenominatorTest()
+    {
+        new FractionContext(0);
+    }
+}
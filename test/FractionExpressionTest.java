@@ -0,0 +1,162 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionExpressionクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionExpressionTest
+{
+    /**
+     * 評価結果が逐次のFraction演算と一致すること
+     */
+    @Test
+    public void evaluateTest()
+    {
+        final String message = "評価結果が逐次のFraction演算と一致すること";
+        FractionExpression half = FractionExpression.of(new Fraction(1, 2));
+        FractionExpression third = FractionExpression.of(new Fraction(1, 3));
+        FractionExpression e = half.add(third).multiply(FractionExpression.of(6)).subtract(new Fraction(1, 4))
+                                   .divide(half.negate());
+        Assert.assertEquals(message, e.evaluate(), new Fraction(-19, 2));
+        Assert.assertEquals(message, e.toString(), "((((1/2 + 1/3) * 6/1) - 1/4) / -(1/2))");
+        Assert.assertEquals(message, half.negate().negate(), half);
+        Assert.assertEquals(message, half.subtract(half).evaluate(), Fraction.ZERO);
+        Assert.assertEquals(message, half.evaluate(), new Fraction(1, 2));
+        Random rand = new Random(20);
+        for(int n = 0; n < 200; n++)
+        {
+            Fraction expected = Fraction.ONE;
+            FractionExpression actual = FractionExpression.of(Fraction.ONE);
+            for(int i = 0; i < 12; i++)
+            {
+                Fraction f = new Fraction(rand.nextInt(41) - 20, rand.nextInt(30) + 1);
+                switch(rand.nextInt(4))
+                {
+                case 0:
+                    expected = expected.add(f);
+                    actual = actual.add(f);
+                    break;
+                case 1:
+                    expected = expected.subtract(f);
+                    actual = FractionExpression.of(f).subtract(actual).negate();
+                    break;
+                case 2:
+                    expected = expected.multiply(f);
+                    actual = actual.multiply(f);
+                    break;
+                default:
+                    if(f.signum() == 0) f = Fraction.ONE;
+                    expected = expected.divide(f);
+                    actual = actual.divide(f);
+                    break;
+                }
+            }
+            Assert.assertEquals(message, actual.evaluate(), expected);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 共有した部分式と構造の等しい部分式を含む大きな式を正しく評価できること
+     */
+    @Test
+    public void sharedSubexpressionTest()
+    {
+        final String message = "共有した部分式と構造の等しい部分式を含む大きな式を正しく評価できること";
+        FractionExpression x = FractionExpression.of(new Fraction(3, 7));
+        for(int i = 0; i < 60; i++)
+        {
+            x = x.add(x);
+        }
+        Assert.assertEquals(message, x.evaluate(), new Fraction(BigInteger.valueOf(3).shiftLeft(60), BigInteger.valueOf(7)));
+        FractionExpression sum = FractionExpression.of(0);
+        Fraction expected = Fraction.ZERO;
+        for(int i = 1; i <= 2000; i++)
+        {
+            Fraction term = new Fraction(1, i % 50 + 1);
+            FractionExpression square = FractionExpression.of(term).multiply(FractionExpression.of(term));
+            sum = i % 2 == 0 ? sum.add(square) : sum.subtract(square);
+            expected = i % 2 == 0 ? expected.add(term.multiply(term)) : expected.subtract(term.multiply(term));
+        }
+        Assert.assertEquals(message, sum.evaluate(), expected);
+        FractionExpression a = FractionExpression.of(new Fraction(1, 2)).multiply(new Fraction(2, 3));
+        FractionExpression b = FractionExpression.of(new Fraction(1, 2)).multiply(new Fraction(2, 3));
+        Assert.assertEquals(message, a, b);
+        Assert.assertEquals(message, a.hashCode(), b.hashCode());
+        Assert.assertEquals(message, a.add(b).evaluate(), new Fraction(2, 3));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 加減算と乗除算が交互に続く深い式をスタックあふれなしに評価できること
+     */
+    @Test
+    public void deepChainTest()
+    {
+        final String message = "加減算と乗除算が交互に続く深い式をスタックあふれなしに評価できること";
+        Fraction rate = Fraction.valueOf(3);
+        Fraction payment = new Fraction(-1, 2);
+        FractionExpression x = FractionExpression.of(Fraction.ONE);
+        Fraction expected = Fraction.ONE;
+        for(int i = 0; i < 10000; i++)
+        {
+            x = x.multiply(rate).add(payment);
+            expected = expected.multiply(rate).add(payment);
+        }
+        Assert.assertEquals(message, x.evaluate(), expected);
+        FractionExpression y = FractionExpression.of(Fraction.ONE);
+        for(int i = 0; i < 3000; i++)
+        {
+            y = FractionExpression.of(1).divide(FractionExpression.of(2).subtract(y.negate()));
+        }
+        Fraction z = Fraction.ONE;
+        for(int i = 0; i < 3000; i++)
+        {
+            z = Fraction.ONE.divide(Fraction.valueOf(2).add(z));
+        }
+        Assert.assertEquals(message, y.evaluate(), z);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 部分式を共有する大きな式や深い式どうしを短時間で比較できること
+     */
+    @Test
+    public void sharedEqualsTest()
+    {
+        final String message = "部分式を共有する大きな式や深い式どうしを短時間で比較できること";
+        FractionExpression x = FractionExpression.of(new Fraction(1, 3));
+        FractionExpression y = FractionExpression.of(new Fraction(1, 3));
+        for(int i = 0; i < 100; i++)
+        {
+            x = x.add(x);
+            y = y.add(y);
+        }
+        Assert.assertEquals(message, x, y);
+        Assert.assertEquals(message, x.hashCode(), y.hashCode());
+        Assert.assertEquals(message, x.equals(y.add(y)), false);
+        Assert.assertEquals(message, x.multiply(x).equals(y.multiply(y.add(FractionExpression.of(0)))), false);
+        FractionExpression p = FractionExpression.of(Fraction.ONE);
+        FractionExpression q = FractionExpression.of(Fraction.ONE);
+        for(int i = 0; i < 100000; i++)
+        {
+            p = p.multiply(Fraction.valueOf(i)).add(Fraction.ONE);
+            q = q.multiply(Fraction.valueOf(i)).add(Fraction.ONE);
+        }
+        Assert.assertEquals(message, p, q);
+        Assert.assertEquals(message, p.equals(q.subtract(Fraction.ONE).add(Fraction.ONE).negate()), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0による除算は評価時に例外となること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void divideByZeroTest()
+    {
+        FractionExpression one = FractionExpression.of(1);
+        FractionExpression e = one.divide(one.subtract(Fraction.ONE));
+        e.evaluate();
+    }
+}
@@ -0,0 +1,106 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionFormatクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionFormatTest
+{
+    /**
+     * 既定の形式がtoStringと同じ文字列を返すこと
+     */
+    @Test
+    public void defaultStyleTest()
+    {
+        final String message = "既定の形式がtoStringと同じ文字列を返すこと";
+        Assert.assertEquals(message, new Fraction(-3, 4).toString(), "- (3 / 4)");
+        Assert.assertEquals(message, new Fraction(3, 4).toString(), "(3 / 4)");
+        Assert.assertEquals(message, new Fraction(-6, 3).toString(), "-2");
+        Assert.assertEquals(message, Fraction.ZERO.toString(), "0");
+        BigInteger big = BigInteger.ONE.shiftLeft(100);
+        Assert.assertEquals(message, new Fraction(big.negate(), BigInteger.valueOf(3)).toString(), "- (" + big + " / 3)");
+        Assert.assertEquals(message, new Fraction(-7, 2).appendTo(new StringBuilder("x=")).toString(), "x=- (7 / 2)");
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 括弧なしの形式と帯分数の形式で正しく書き込まれること
+     */
+    @Test
+    public void plainAndMixedStyleTest()
+    {
+        final String message = "括弧なしの形式と帯分数の形式で正しく書き込まれること";
+        Assert.assertEquals(message, FractionFormat.PLAIN.format(new Fraction(-3, 4)), "-3/4");
+        Assert.assertEquals(message, FractionFormat.PLAIN.format(new Fraction(2)), "2/1");
+        Assert.assertEquals(message, Fraction.parse(FractionFormat.PLAIN.format(new Fraction(-22, 7))), new Fraction(-22, 7));
+        Assert.assertEquals(message, FractionFormat.MIXED.format(new Fraction(-3, 2)), "-1 1/2");
+        Assert.assertEquals(message, FractionFormat.MIXED.format(new Fraction(3, 4)), "3/4");
+        Assert.assertEquals(message, FractionFormat.MIXED.format(new Fraction(-4)), "-4");
+        Assert.assertEquals(message, FractionFormat.MIXED.format(Fraction.ZERO), "0");
+        BigInteger big = BigInteger.ONE.shiftLeft(80);
+        Fraction frac = new Fraction(big.multiply(BigInteger.valueOf(3)).add(BigInteger.ONE), big);
+        Assert.assertEquals(message, FractionFormat.MIXED.format(frac), "3 1/" + big);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 小数の形式が丸めモードに従ってBigDecimalと同じ結果を返すこと
+     */
+    @Test
+    public void decimalStyleTest()
+    {
+        final String message = "小数の形式が丸めモードに従ってBigDecimalと同じ結果を返すこと";
+        Assert.assertEquals(message, FractionFormat.decimal(3).format(new Fraction(2, 3)), "0.667");
+        Assert.assertEquals(message, FractionFormat.decimal(2).format(new Fraction(-1, 200)), "-0.01");
+        Assert.assertEquals(message, FractionFormat.decimal(2, RoundingMode.DOWN).format(new Fraction(-1, 200)), "0.00");
+        Assert.assertEquals(message, FractionFormat.decimal(0).format(new Fraction(7, 2)), "4");
+        Assert.assertEquals(message, FractionFormat.decimal(4).format(new Fraction(1, 16)), "0.0625");
+        RoundingMode[] modes = { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                                 RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN };
+        for(RoundingMode mode : modes)
+        {
+            for(int numerator = -30; numerator <= 30; numerator++)
+            {
+                for(int denominator = 1; denominator <= 16; denominator++)
+                {
+                    Fraction frac = new Fraction(numerator, denominator);
+                    BigDecimal expected = new BigDecimal(numerator).divide(new BigDecimal(denominator), 1, mode);
+                    if(expected.signum() == 0) expected = expected.abs();
+                    Assert.assertEquals(message, FractionFormat.decimal(1, mode).format(frac), expected.toPlainString());
+                }
+            }
+        }
+        Fraction large = new Fraction(Long.MAX_VALUE, 3);
+        Assert.assertEquals(message, FractionFormat.decimal(5).format(large),
+                            new BigDecimal(Long.MAX_VALUE).divide(new BigDecimal(3), 5, RoundingMode.HALF_UP).toPlainString());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 丸めが必要な場合にUNNECESSARYで例外が発生すること
+     */
+    @Test(expected = ArithmeticException.class)
+    public void unnecessaryRoundingTest()
+    {
+        FractionFormat.decimal(2, RoundingMode.UNNECESSARY).format(new Fraction(1, 3));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Appendableに書き込めること
+     * @throws IOException 書き込みに失敗した場合
+     */
+    @Test
+    public void appendableTest() throws IOException
+    {
+        final String message = "Appendableに書き込めること";
+        StringWriter writer = new StringWriter();
+        FractionFormat.PLAIN.appendTo(new Fraction(1, 3), writer).append(',');
+        new Fraction(-5, 10).appendTo(writer);
+        Assert.assertEquals(message, writer.toString(), "1/3,- (1 / 2)");
+    }
+}
@@ -0,0 +1,163 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionIntervalクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionIntervalTest
+{
+    /**
+     * 端点・幅・包含判定が正しいこと
+     */
+    @Test
+    public void basicTest()
+    {
+        final String message = "端点・幅・包含判定が正しいこと";
+        FractionInterval interval = FractionInterval.of(new Fraction(1, 3), new Fraction(1, 2));
+        Assert.assertEquals(message, interval.getLower(), new Fraction(1, 3));
+        Assert.assertEquals(message, interval.getUpper(), new Fraction(1, 2));
+        Assert.assertEquals(message, interval.width(), new Fraction(1, 6));
+        Assert.assertEquals(message, interval.contains(new Fraction(2, 5)), true);
+        Assert.assertEquals(message, interval.contains(new Fraction(1, 3)), true);
+        Assert.assertEquals(message, interval.contains(new Fraction(3, 5)), false);
+        Assert.assertEquals(message, interval.isPoint(), false);
+        Assert.assertEquals(message, FractionInterval.of(Fraction.ONE).isPoint(), true);
+        Assert.assertEquals(message, interval, FractionInterval.of(new Fraction(2, 6), new Fraction(3, 6)));
+        Assert.assertEquals(message, interval.toString(), FractionInterval.of(new Fraction(2, 6), new Fraction(3, 6)).toString());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 下端が上端より大きい区間は生成できないこと
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void reversedTest()
+    {
+        FractionInterval.of(Fraction.ONE, Fraction.ZERO);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 格子に丸めた区間演算が真の値を含み，端点の分母が格子の分母以下に保たれること
+     */
+    @Test
+    public void gridArithmeticTest()
+    {
+        final String message = "格子に丸めた区間演算が真の値を含み，端点の分母が格子の分母以下に保たれること";
+        final long grid = 1000000L;
+        FractionInterval rate = FractionInterval.of(new Fraction(8, 7)).withExactTracking().withGrid(grid);
+        FractionInterval deposit = FractionInterval.of(new Fraction(1, 3));
+        FractionInterval balance = FractionInterval.of(Fraction.ONE).withExactTracking();
+        Fraction exact = Fraction.ONE;
+        for(int i = 0; i < 100; i++)
+        {
+            balance = balance.multiply(rate).add(deposit);
+            exact = exact.multiply(new Fraction(8, 7)).add(new Fraction(1, 3));
+            Assert.assertEquals(message, balance.contains(exact), true);
+            Assert.assertEquals(message, balance.getLower().getDenominator().longValue() <= grid, true);
+            Assert.assertEquals(message, balance.getUpper().getDenominator().longValue() <= grid, true);
+        }
+        Assert.assertEquals(message, balance.exactValue(), exact);
+        FractionInterval a = FractionInterval.of(new Fraction(-1, 2), new Fraction(3, 4));
+        FractionInterval b = FractionInterval.of(new Fraction(-2), new Fraction(1, 3));
+        Assert.assertEquals(message, a.add(b), FractionInterval.of(new Fraction(-5, 2), new Fraction(13, 12)));
+        Assert.assertEquals(message, a.subtract(b), FractionInterval.of(new Fraction(-5, 6), new Fraction(11, 4)));
+        Assert.assertEquals(message, a.multiply(b), FractionInterval.of(new Fraction(-3, 2), Fraction.ONE));
+        Assert.assertEquals(message, a.negate(), FractionInterval.of(new Fraction(-3, 4), new Fraction(1, 2)));
+        Assert.assertEquals(message, a.divide(FractionInterval.of(new Fraction(2), new Fraction(4))),
+                            FractionInterval.of(new Fraction(-1, 4), new Fraction(3, 8)));
+        Assert.assertEquals(message, a.withGrid(3L), FractionInterval.of(new Fraction(-2, 3), Fraction.ONE));
+        Assert.assertEquals(message, a.isExactValueAvailable(), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 許容幅を超えた場合は正確な値を格子に丸めた区間に置き換わること
+     */
+    @Test
+    public void exactFallbackTest()
+    {
+        final String message = "許容幅を超えた場合は正確な値を格子に丸めた区間に置き換わること";
+        FractionInterval x = FractionInterval.of(new Fraction(1, 7)).withExactTracking().withGrid(100L)
+                                             .withMaxWidth(new Fraction(1, 20));
+        Fraction exact = new Fraction(1, 7);
+        int narrowed = 0;
+        for(int i = 0; i < 30; i++)
+        {
+            Fraction previous = x.width();
+            x = x.multiply(FractionInterval.of(new Fraction(3, 2))).subtract(FractionInterval.of(new Fraction(1, 9)));
+            exact = exact.multiply(new Fraction(3, 2)).subtract(new Fraction(1, 9));
+            Assert.assertEquals(message, x.contains(exact), true);
+            Assert.assertEquals(message, x.width().compareTo(new Fraction(1, 20)) <= 0, true);
+            Assert.assertEquals(message, x.getLower().getDenominator().longValue() <= 100L, true);
+            Assert.assertEquals(message, x.getUpper().getDenominator().longValue() <= 100L, true);
+            if(x.width().compareTo(previous) < 0) narrowed++;
+        }
+        Assert.assertEquals(message, narrowed > 0, true);
+        Assert.assertEquals(message, x.exactValue(), exact);
+        FractionInterval y = FractionInterval.of(new Fraction(1, 7)).withMaxWidth(Fraction.ZERO).withExactTracking();
+        Assert.assertEquals(message, y.add(FractionInterval.of(new Fraction(1, 3))), FractionInterval.of(new Fraction(10, 21)));
+        y = y.add(FractionInterval.of(new Fraction(1, 3), new Fraction(1, 2)));
+        Assert.assertEquals(message, y.isExactValueAvailable(), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 格子の間隔より小さい許容幅は指定できないこと
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatibleWidthTest()
+    {
+        FractionInterval.of(Fraction.ONE).withGrid(100L).withMaxWidth(new Fraction(1, 101));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 格子と許容幅を引き継いだ結果が両立しない演算は例外となること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatibleCombineTest()
+    {
+        FractionInterval x = FractionInterval.of(Fraction.ONE);
+        x.withMaxWidth(new Fraction(1, 101)).add(x.withGrid(100L));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 長い反復計算でも記録した式の大きさが一定以下に保たれ，真の値を求められること
+     */
+    @Test
+    public void longPipelineTest()
+    {
+        final String message = "長い反復計算でも記録した式の大きさが一定以下に保たれ，真の値を求められること";
+        FractionInterval rate = FractionInterval.of(new Fraction(21, 20));
+        FractionInterval payment = FractionInterval.of(new Fraction(-1, 3));
+        FractionInterval x = FractionInterval.of(new Fraction(1000)).withGrid(1000000L).withExactTracking();
+        FractionInterval untracked = FractionInterval.of(new Fraction(1000)).withGrid(1000000L);
+        Fraction exact = new Fraction(1000);
+        for(int i = 0; i < 2000; i++)
+        {
+            x = x.multiply(rate).add(payment);
+            untracked = untracked.multiply(rate).add(payment);
+            exact = exact.multiply(new Fraction(21, 20)).add(new Fraction(-1, 3));
+        }
+        Assert.assertEquals(message, x.contains(exact), true);
+        Assert.assertEquals(message, x.exactValue(), exact);
+        Assert.assertEquals(message, untracked, x);
+        Assert.assertEquals(message, untracked.isExactValueAvailable(), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0を含む区間で除算すると例外となること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void divideByZeroTest()
+    {
+        FractionInterval.of(Fraction.ONE).divide(FractionInterval.of(Fraction.MINUS_ONE, Fraction.ONE));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 真の値を記録していない区間のexactValue()は例外となること
+     */
+    @Test(expected = IllegalStateException.class)
+    public void exactValueUnavailableTest()
+    {
+        FractionInterval.of(Fraction.ZERO, Fraction.ONE).exactValue();
+    }
+}
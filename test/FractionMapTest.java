@@ -0,0 +1,87 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionMapクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionMapTest
+{
+    /**
+     * 追加・更新・削除の結果がHashMapと一致すること
+     */
+    @Test
+    public void randomOperationTest()
+    {
+        final String message = "追加・更新・削除の結果がHashMapと一致すること";
+        Random rand = new Random(22);
+        FractionMap<Integer> map = new FractionMap<>();
+        Map<Fraction, Integer> expected = new HashMap<>();
+        for(int n = 0; n < 50000; n++)
+        {
+            Fraction key = rand.nextInt(10) == 0
+                           ? new Fraction(BigInteger.ONE.shiftLeft(70).add(BigInteger.valueOf(rand.nextInt(50))), BigInteger.ONE)
+                           : new Fraction(rand.nextInt(401) - 200, rand.nextInt(20) + 1);
+            switch(rand.nextInt(3))
+            {
+            case 0:
+                Assert.assertEquals(message, map.put(key, n), expected.put(key, n));
+                break;
+            case 1:
+                Assert.assertEquals(message, map.remove(key), expected.remove(key));
+                break;
+            default:
+                Assert.assertEquals(message, map.get(key), expected.get(key));
+                Assert.assertEquals(message, map.containsKey(key), expected.containsKey(key));
+                break;
+            }
+            Assert.assertEquals(message, map.size(), expected.size());
+        }
+        Map<Fraction, Integer> iterated = new HashMap<>();
+        for(Map.Entry<Fraction, Integer> entry : map)
+        {
+            iterated.put(entry.getKey(), entry.getValue());
+        }
+        Assert.assertEquals(message, iterated, expected);
+        Map<Fraction, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assert.assertEquals(message, visited, expected);
+        map.clear();
+        Assert.assertEquals(message, map.isEmpty(), true);
+        Assert.assertEquals(message, map.get(Fraction.ONE_HALF), null);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * computeIfAbsentでキーごとに1つの集計先を用意できること
+     */
+    @Test
+    public void computeIfAbsentTest()
+    {
+        final String message = "computeIfAbsentでキーごとに1つの集計先を用意できること";
+        FractionMap<int[]> counts = new FractionMap<>(4);
+        for(int i = 1; i <= 1000; i++)
+        {
+            counts.computeIfAbsent(new Fraction(i % 7, 7), k -> new int[1])[0]++;
+        }
+        Assert.assertEquals(message, counts.size(), 7);
+        Assert.assertEquals(message, counts.get(Fraction.ZERO)[0], 142);
+        Assert.assertEquals(message, counts.get(new Fraction(3, 7))[0], 143);
+        Assert.assertEquals(message, counts.computeIfAbsent(Fraction.ONE, k -> null), null);
+        Assert.assertEquals(message, counts.containsKey(Fraction.ONE), false);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * nullのキーと値は例外となること
+     */
+    @Test(expected = NullPointerException.class)
+    public void nullValueTest()
+    {
+        new FractionMap<String>().put(Fraction.ONE, null);
+    }
+}
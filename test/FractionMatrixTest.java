@@ -0,0 +1,143 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionMatrixクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionMatrixTest
+{
+    /**
+     * 整数と分母の配列から行列を生成する.
+     * @param values 分子（[行][列]）
+     * @param denominator 共通の分母
+     * @return 生成した行列
+     */
+    private static FractionMatrix create(final long[][] values, final long denominator)
+    {
+        Fraction[][] elements = new Fraction[values.length][values[0].length];
+        for(int i = 0; i < values.length; i++)
+        {
+            for(int j = 0; j < values[i].length; j++)
+            {
+                elements[i][j] = new Fraction(values[i][j], denominator);
+            }
+        }
+        return FractionMatrix.of(elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ランダムな分数を要素とする正方行列を生成する.
+     * @param rand 乱数
+     * @param size 行数
+     * @return 生成した行列
+     */
+    private static FractionMatrix createRandom(final Random rand, final int size)
+    {
+        Fraction[][] elements = new Fraction[size][size];
+        for(int i = 0; i < size; i++)
+        {
+            for(int j = 0; j < size; j++)
+            {
+                elements[i][j] = new Fraction(rand.nextInt(21) - 10, rand.nextInt(9) + 1);
+            }
+        }
+        return FractionMatrix.of(elements);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列の積と転置が正しく求められること
+     */
+    @Test
+    public void multiplyAndTransposeTest()
+    {
+        final String message = "行列の積と転置が正しく求められること";
+        FractionMatrix a = create(new long[][] { { 1, 2, 3 }, { 4, 5, 6 } }, 2);
+        FractionMatrix b = create(new long[][] { { 1, 0 }, { 0, 1 }, { 1, 1 } }, 3);
+        FractionMatrix expected = FractionMatrix.of(new Fraction[][] { { new Fraction(2, 3), new Fraction(5, 6) },
+                                                                       { new Fraction(5, 3), new Fraction(11, 6) } });
+        Assert.assertEquals(message, a.multiply(b), expected);
+        Assert.assertEquals(message, b.transpose().multiply(a.transpose()), expected.transpose());
+        Assert.assertEquals(message, a.transpose().get(2, 1), Fraction.valueOf(3));
+        Assert.assertEquals(message, FractionMatrix.identity(2).multiply(a), a);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 行列式が正しく求められること
+     */
+    @Test
+    public void determinantTest()
+    {
+        final String message = "行列式が正しく求められること";
+        Assert.assertEquals(message, create(new long[][] { { 1, 2 }, { 3, 4 } }, 1).determinant(), Fraction.valueOf(-2));
+        Assert.assertEquals(message, create(new long[][] { { 0, 1 }, { 1, 0 } }, 2).determinant(), new Fraction(-1, 4));
+        Assert.assertEquals(message, create(new long[][] { { 2, 0, 1 }, { 1, 3, 2 }, { 1, 1, 2 } }, 1).determinant(), Fraction.valueOf(6));
+        Assert.assertEquals(message, create(new long[][] { { 1, 2 }, { 2, 4 } }, 3).determinant(), Fraction.ZERO);
+        Fraction[][] hilbert = new Fraction[4][4];
+        for(int i = 0; i < 4; i++)
+        {
+            for(int j = 0; j < 4; j++)
+            {
+                hilbert[i][j] = new Fraction(1, i + j + 1);
+            }
+        }
+        Assert.assertEquals(message, FractionMatrix.of(hilbert).determinant(), new Fraction(1, 6048000));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 逆行列と連立一次方程式の解が正しく求められること
+     */
+    @Test
+    public void inverseAndSolveTest()
+    {
+        final String message = "逆行列と連立一次方程式の解が正しく求められること";
+        Random rand = new Random(16);
+        for(int size = 1; size <= 40; size += 13)
+        {
+            FractionMatrix a = createRandom(rand, size);
+            if(a.determinant().equals(Fraction.ZERO)) continue;
+            Assert.assertEquals(message, a.multiply(a.inverse()), FractionMatrix.identity(size));
+            Fraction[] b = new Fraction[size];
+            for(int i = 0; i < size; i++)
+            {
+                b[i] = new Fraction(rand.nextInt(100), rand.nextInt(100) + 1);
+            }
+            Fraction[] x = a.solve(b);
+            Fraction[][] column = new Fraction[size][1];
+            for(int i = 0; i < size; i++)
+            {
+                column[i][0] = x[i];
+            }
+            Fraction[][] result = a.multiply(FractionMatrix.of(column)).toArray();
+            for(int i = 0; i < size; i++)
+            {
+                Assert.assertEquals(message, result[i][0], b[i]);
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 並列に消去する大きさの行列でも行列式が積の行列式と一致すること
+     */
+    @Test
+    public void parallelTest()
+    {
+        final String message = "並列に消去する大きさの行列でも行列式が積の行列式と一致すること";
+        Random rand = new Random(100);
+        FractionMatrix a = createRandom(rand, 80);
+        FractionMatrix b = createRandom(rand, 80);
+        Assert.assertEquals(message, a.multiply(b).determinant(), a.determinant().multiply(b.determinant()));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 正則でない行列の逆行列を求めるとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void singularInverseTest()
+    {
+        create(new long[][] { { 1, 2 }, { 2, 4 } }, 1).inverse();
+    }
+}
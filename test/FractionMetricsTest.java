@@ -0,0 +1,120 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionMetricsクラスのテスト.
+ * 計測はシステムプロパティで有効にした場合（build.xmlのtestターゲット）のみ値が変化する
+ * @author 久保　由仁
+ */
+public class FractionMetricsTest
+{
+    /**
+     * 演算の回数・ビット長・桁あふれ・GCDが記録されること
+     */
+    @Test
+    public void operationTest()
+    {
+        final String message = "演算の回数・ビット長・桁あふれ・GCDが記録されること";
+        FractionMetrics.Snapshot before = FractionMetrics.snapshot();
+        Fraction a = new Fraction(1, 3);
+        Fraction b = new Fraction(Long.MAX_VALUE - 1, 5);
+        a.add(b);
+        a.subtract(b);
+        a.multiply(b).multiply(b);
+        a.divide(b);
+        new Fraction(BigInteger.ONE.shiftLeft(200), BigInteger.valueOf(6));
+        FractionMetrics.Snapshot after = FractionMetrics.snapshot();
+        long expected = FractionMetrics.isEnabled() ? 1L : 0L;
+        Assert.assertEquals(message, after.getOperationCount(FractionMetrics.Operation.ADD)
+                                     - before.getOperationCount(FractionMetrics.Operation.ADD), expected);
+        Assert.assertEquals(message, after.getOperationCount(FractionMetrics.Operation.SUBTRACT)
+                                     - before.getOperationCount(FractionMetrics.Operation.SUBTRACT), expected);
+        Assert.assertEquals(message, after.getOperationCount(FractionMetrics.Operation.MULTIPLY)
+                                     - before.getOperationCount(FractionMetrics.Operation.MULTIPLY), 2 * expected);
+        Assert.assertEquals(message, after.getOperationCount(FractionMetrics.Operation.DIVIDE)
+                                     - before.getOperationCount(FractionMetrics.Operation.DIVIDE), expected);
+        Assert.assertEquals(message, after.getOverflowPromotions() - before.getOverflowPromotions() >= 3 * expected,
+                            true);
+        Assert.assertEquals(message, sum(after.getOperandBitLengthHistogram())
+                                     - sum(before.getOperandBitLengthHistogram()), 10 * expected);
+        Assert.assertEquals(message, sum(after.getResultBitLengthHistogram())
+                                     - sum(before.getResultBitLengthHistogram()), 5 * expected);
+        Assert.assertEquals(message, after.getResultBitLengthHistogram()[7]
+                                     - before.getResultBitLengthHistogram()[7] >= expected, true);
+        Assert.assertEquals(message, sum(after.getGcdNanosHistogram()) - sum(before.getGcdNanosHistogram()) >= 5 * expected,
+                            true);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 解析の成功と失敗が記録されること
+     */
+    @Test
+    public void parseTest()
+    {
+        final String message = "解析の成功と失敗が記録されること";
+        FractionMetrics.Snapshot before = FractionMetrics.snapshot();
+        Fraction.parse("3/4");
+        try
+        {
+            Fraction.parse("3/");
+            Assert.fail(message);
+        }
+        catch(IllegalArgumentException e)
+        {
+            // 失敗として記録される
+        }
+        FractionMetrics.Snapshot after = FractionMetrics.snapshot();
+        long expected = FractionMetrics.isEnabled() ? 1L : 0L;
+        Assert.assertEquals(message, after.getOperationCount(FractionMetrics.Operation.PARSE)
+                                     - before.getOperationCount(FractionMetrics.Operation.PARSE), expected);
+        Assert.assertEquals(message, after.getParseFailures() - before.getParseFailures(), expected);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 有効な場合はJMXで参照でき，reset()で0に戻ること
+     */
+    @Test
+    public void mxBeanTest() throws Exception
+    {
+        final String message = "有効な場合はJMXで参照でき，reset()で0に戻ること";
+        ObjectName name = new ObjectName(FractionMetrics.OBJECT_NAME);
+        Assert.assertEquals(message, ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+                            FractionMetrics.isEnabled());
+        if(FractionMetrics.isEnabled())
+        {
+            Fraction.ONE_HALF.add(Fraction.ONE_THIRD);
+            Assert.assertEquals(message, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"),
+                                Boolean.TRUE);
+            ManagementFactory.getPlatformMBeanServer().invoke(name, "reset", null, null);
+        }
+        else
+        {
+            FractionMetrics.reset();
+        }
+        FractionMetrics.Snapshot snapshot = FractionMetrics.snapshot();
+        Assert.assertEquals(message, snapshot.getOperationCount(FractionMetrics.Operation.ADD), 0L);
+        Assert.assertEquals(message, sum(snapshot.getOperandBitLengthHistogram()), 0L);
+        Assert.assertEquals(message, snapshot.getParseFailures(), 0L);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 度数の合計を求める.
+     * @param histogram ヒストグラム
+     * @return 度数の合計
+     */
+    private static long sum(final long[] histogram)
+    {
+        long total = 0L;
+        for(long count : histogram)
+        {
+            total += count;
+        }
+        return total;
+    }
+}
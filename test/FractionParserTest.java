@@ -0,0 +1,109 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionParserクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionParserTest
+{
+    /**
+     * 符号や空白を含む分数文字列を正しく解析できること
+     */
+    @Test
+    public void parseValidStringTest()
+    {
+        final String message = "符号や空白を含む分数文字列を正しく解析できること";
+        Assert.assertEquals(message, FractionParser.parse("1/2"), new Fraction(1, 2));
+        Assert.assertEquals(message, FractionParser.parse(" - 1 / 3 "), new Fraction(-1, 3));
+        Assert.assertEquals(message, FractionParser.parse("+\t4/\t8\r\n"), new Fraction(1, 2));
+        Assert.assertEquals(message, FractionParser.parse("0/5"), new Fraction(0));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の範囲を超える分数文字列を正しく解析できること
+     */
+    @Test
+    public void parseBigStringTest()
+    {
+        final String message = "long型の範囲を超える分数文字列を正しく解析できること";
+        Fraction frac = FractionParser.parse("-123456789012345678901234567890/3");
+        Assert.assertEquals(message, frac, new Fraction(new BigInteger("-41152263004115226300411522630")));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 不正な文字列を解析するとIllegalArgumentExceptionがスローされること
+     */
+    @Test
+    public void parseInvalidStringTest()
+    {
+        final String message = "不正な文字列を解析するとIllegalArgumentExceptionがスローされること";
+        String[] invalidData = { "", "xxx", "1", "1/", "/2", "-/2", "1/2/3", "1.5/2", "1/2x", "--1/2", "1/0" };
+        for(String val : invalidData)
+        {
+            try
+            {
+                FractionParser.parse(val);
+                Assert.fail(message + ": " + val);
+            }
+            catch(IllegalArgumentException e)
+            {
+                // 期待どおり
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 文字配列・バイト配列の指定範囲から分数を解析できること
+     */
+    @Test
+    public void parseRangeTest()
+    {
+        final String message = "文字配列・バイト配列の指定範囲から分数を解析できること";
+        String text = "xx3/4yy";
+        Assert.assertEquals(message, FractionParser.parse(text, 2, 5), new Fraction(3, 4));
+        Assert.assertEquals(message, FractionParser.parse(text.toCharArray(), 2, 3), new Fraction(3, 4));
+        Assert.assertEquals(message, FractionParser.parse(text.getBytes(StandardCharsets.US_ASCII), 2, 3), new Fraction(3, 4));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ByteBufferに格納された分数をまとめて解析できること
+     */
+    @Test
+    public void parseAllTest()
+    {
+        final String message = "ByteBufferに格納された分数をまとめて解析できること";
+        ByteBuffer buffer = ByteBuffer.wrap("1/2,-3/4\r\n5/6\n\n".getBytes(StandardCharsets.US_ASCII));
+        Fraction[] result = FractionParser.parseAll(buffer, ',');
+        Assert.assertArrayEquals(message, result, new Fraction[] { new Fraction(1, 2), new Fraction(-3, 4), new Fraction(5, 6) });
+        Assert.assertEquals(message, buffer.remaining(), 0);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Readerから読み込んだ分数をストリームとして解析できること
+     */
+    @Test
+    public void streamTest()
+    {
+        final String message = "Readerから読み込んだ分数をストリームとして解析できること";
+        StringBuilder builder = new StringBuilder();
+        for(int i = 1; i <= 5000; i++)
+        {
+            builder.append(i).append('/').append(i + 1).append(i % 10 == 0 ? "\n" : ";");
+        }
+        builder.append("  1234567890123456789012345/1  ");
+        List<Fraction> result = FractionParser.stream(new StringReader(builder.toString()), ';')
+                                              .collect(Collectors.toList());
+        Assert.assertEquals(message, result.size(), 5001);
+        Assert.assertEquals(message, result.get(4998), new Fraction(4999, 5000));
+        Assert.assertEquals(message, result.get(5000), new Fraction(new BigInteger("1234567890123456789012345")));
+    }
+}
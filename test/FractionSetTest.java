@@ -0,0 +1,48 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionSetクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionSetTest
+{
+    /**
+     * 重複を除いた要素を保持し，走査できること
+     */
+    @Test
+    public void deduplicateTest()
+    {
+        final String message = "重複を除いた要素を保持し，走査できること";
+        FractionSet set = new FractionSet();
+        Set<Fraction> expected = new HashSet<>();
+        for(int i = -300; i <= 300; i++)
+        {
+            Fraction value = new Fraction(i, 12);
+            Assert.assertEquals(message, set.add(value), expected.add(value));
+        }
+        Fraction large = new Fraction(BigInteger.TEN.pow(30), BigInteger.valueOf(7));
+        Assert.assertEquals(message, set.add(large), true);
+        Assert.assertEquals(message, set.add(new Fraction(BigInteger.TEN.pow(30).multiply(BigInteger.TWO),
+                                                          BigInteger.valueOf(14))), false);
+        expected.add(large);
+        Assert.assertEquals(message, set.size(), expected.size());
+        Assert.assertEquals(message, set.contains(new Fraction(-1, 2)), true);
+        Assert.assertEquals(message, set.remove(new Fraction(1, 4)), true);
+        Assert.assertEquals(message, set.remove(new Fraction(1, 4)), false);
+        expected.remove(new Fraction(1, 4));
+        Set<Fraction> iterated = new HashSet<>();
+        for(Fraction value : set)
+        {
+            iterated.add(value);
+        }
+        Assert.assertEquals(message, iterated, expected);
+        set.clear();
+        Assert.assertEquals(message, set.isEmpty(), true);
+    }
+}
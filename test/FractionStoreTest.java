@@ -0,0 +1,194 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionStoreクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionStoreTest
+{
+    /**
+     * テスト用に，long型に収まる分数と収まらない分数を混ぜたリストを生成する.
+     * @return 分数のリスト
+     */
+    private static List<Fraction> createValues()
+    {
+        List<Fraction> values = new ArrayList<>();
+        for(int i = 0; i < 50; i++)
+        {
+            if(i % 5 == 0)
+            {
+                values.add(new Fraction(BigInteger.valueOf(-i - 1).shiftLeft(64 + i), BigInteger.valueOf(3)));
+            }
+            else
+            {
+                values.add(new Fraction(i, i + 7));
+            }
+        }
+        return values;
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ダイレクトバッファに格納した分数を添字で取得できること
+     */
+    @Test
+    public void ofAndGetTest()
+    {
+        final String message = "ダイレクトバッファに格納した分数を添字で取得できること";
+        List<Fraction> values = createValues();
+        FractionStore store = FractionStore.of(values);
+        Assert.assertEquals(message, store.size(), values.size());
+        for(int i = 0; i < values.size(); i++)
+        {
+            Assert.assertEquals(message, store.get(i), values.get(i));
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ファイルに書き出してメモリマップした分数を順に参照できること（チャンクの境界をまたぐ場合を含む）
+     */
+    @Test
+    public void writeAndMapTest() throws IOException
+    {
+        final String message = "ファイルに書き出してメモリマップした分数を順に参照できること";
+        List<Fraction> values = createValues();
+        Path path = Files.createTempFile("fraction", ".store");
+        try
+        {
+            FractionStore.write(path, values, 48);
+            FractionStore store = FractionStore.map(path, 48);
+            FractionStore.Cursor cursor = store.cursor();
+            int count = 0;
+            while(cursor.next())
+            {
+                Fraction expected = values.get(count);
+                Assert.assertEquals(message, cursor.isCompact(), expected.getNumerator().bitLength() < 64);
+                Assert.assertEquals(message, cursor.get(), expected);
+                count++;
+            }
+            Assert.assertEquals(message, count, values.size());
+            List<Fraction> result = new ArrayList<>();
+            for(Fraction frac : FractionStore.map(path))
+            {
+                result.add(frac);
+            }
+            Assert.assertEquals(message, result, values);
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素のないストアを扱えること
+     */
+    @Test
+    public void emptyTest()
+    {
+        final String message = "要素のないストアを扱えること";
+        FractionStore store = FractionStore.of(Arrays.<Fraction>asList());
+        Assert.assertEquals(message, store.size(), 0L);
+        Assert.assertFalse(message, store.cursor().next());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 範囲外の添字を与えるとIndexOutOfBoundsExceptionがスローされること
+     */
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void getOutOfBoundsTest()
+    {
+        FractionStore.of(createValues()).get(50);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 形式が不正なファイルをマップするとIOExceptionがスローされること
+     */
+    @Test(expected=IOException.class)
+    public void mapInvalidFileTest() throws IOException
+    {
+        Path path = Files.createTempFile("fraction", ".store");
+        try
+        {
+            Files.write(path, new byte[32]);
+            FractionStore.map(path);
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型に収まらない形式で格納された要素を1つ持つストアのファイルを作る.
+     * @param path ファイル
+     * @param numerator 分子のバイト列
+     * @param length 分母の長さとして書き込む値
+     * @param denominator 分母のバイト列
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeBig(final Path path, final byte[] numerator, final int length, final byte[] denominator)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(32 + 8 + numerator.length + denominator.length);
+        buffer.putInt(0x46524143).putInt(1).putLong(1L).putLong(0L).putLong(0L);
+        buffer.putInt(numerator.length).put(numerator).putInt(length).put(denominator);
+        Files.write(path, buffer.array());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * ファイルから読み込んだlong型に収まらない形式の要素を検証し，正規形にすること
+     * @throws IOException 入出力に失敗した場合
+     */
+    @Test
+    public void mapUntrustedBigTest() throws IOException
+    {
+        final String message = "ファイルから読み込んだlong型に収まらない形式の要素を検証し，正規形にすること";
+        Path path = Files.createTempFile("fraction", ".store");
+        try
+        {
+            writeBig(path, new byte[] {4}, 1, new byte[] {2});
+            Fraction value = FractionStore.map(path).get(0);
+            Assert.assertEquals(message, value, Fraction.valueOf(2));
+            Assert.assertEquals(message, value.isCompact(), true);
+            byte[][] denominators = { {0}, {(byte)0xFE} };
+            for(byte[] denominator : denominators)
+            {
+                writeBig(path, new byte[] {4}, 1, denominator);
+                try
+                {
+                    FractionStore.map(path).get(0);
+                    Assert.fail(message);
+                }
+                catch(IllegalStateException e)
+                {
+                    // 分母が正でない
+                }
+            }
+            writeBig(path, new byte[] {4}, Integer.MAX_VALUE, new byte[] {2});
+            try
+            {
+                FractionStore.map(path).get(0);
+                Assert.fail(message);
+            }
+            catch(IllegalStateException e)
+            {
+                // 長さが領域を超える
+            }
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
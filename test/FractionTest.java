@@ -2,6 +2,10 @@
 import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -433,4 +437,559 @@ public class FractionTest
         Fraction frac = Fraction.of(new BigDecimal("0.0000"));
         Assert.assertEquals(message, frac, new Fraction(0));
     }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の範囲を超える加算結果が正しく求められること
+     */
+    @Test
+    public void addOverflowTest()
+    {
+        final String message = "long型の範囲を超える加算結果が正しく求められること";
+        Fraction frac = new Fraction(Long.MAX_VALUE, 3);
+        BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(2));
+        Assert.assertEquals(message, frac.add(frac), new Fraction(expected, BigInteger.valueOf(3)));
+        Assert.assertEquals(message, frac.add(frac).subtract(frac), frac);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の範囲を超える乗算結果が正しく求められること
+     */
+    @Test
+    public void multiplyOverflowTest()
+    {
+        final String message = "long型の範囲を超える乗算結果が正しく求められること";
+        Fraction frac = new Fraction(Long.MAX_VALUE, 7);
+        BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        Assert.assertEquals(message, frac.multiply(frac), new Fraction(max.multiply(max), BigInteger.valueOf(49)));
+        Assert.assertEquals(message, frac.multiply(frac).divide(frac), frac);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Long.MIN_VALUEを含む分数を正しく扱えること
+     */
+    @Test
+    public void longMinValueTest()
+    {
+        final String message = "Long.MIN_VALUEを含む分数を正しく扱えること";
+        Fraction frac = new Fraction(Long.MIN_VALUE, -2);
+        Assert.assertEquals(message, frac, new Fraction(1L << 62));
+        Assert.assertEquals(message, new Fraction(Long.MIN_VALUE).abs().getNumerator(), BigInteger.ONE.shiftLeft(63));
+        Assert.assertEquals(message, new Fraction(1, Long.MIN_VALUE).multiply(-1).toString(), "(1 / 9223372036854775808)");
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 生成した分数が既約で分母が正の正規形となること
+     */
+    @Test
+    public void canonicalFormTest()
+    {
+        final String message = "生成した分数が既約で分母が正の正規形となること";
+        Fraction frac = new Fraction(6, -8);
+        Assert.assertEquals(message, frac.getNumerator(), BigInteger.valueOf(-3));
+        Assert.assertEquals(message, frac.getDenominator(), BigInteger.valueOf(4));
+        frac = new Fraction(new BigInteger("-100000000000000000000"), new BigInteger("-300000000000000000000"));
+        Assert.assertEquals(message, frac.getNumerator(), BigInteger.ONE);
+        Assert.assertEquals(message, frac.getDenominator(), BigInteger.valueOf(3));
+        frac = Fraction.of(new BigDecimal("0.50"));
+        Assert.assertEquals(message, frac.getDenominator(), BigInteger.valueOf(2));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 符号の位置が異なる同じ値の分数のhashCodeが等しくなること
+     */
+    @Test
+    public void hashCodeWithSignTest()
+    {
+        final String message = "符号の位置が異なる同じ値の分数のhashCodeが等しくなること";
+        Assert.assertEquals(message, new Fraction(1, -2).hashCode(), new Fraction(-1, 2).hashCode());
+        Assert.assertEquals(message, new Fraction(2, 4).hashCode(), new Fraction(BigInteger.ONE, BigInteger.valueOf(2)).hashCode());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 下位32ビットが共通の大きな分数同士のhashCodeが衝突しにくく，表現形式によらず等しい値は同じhashCodeとなること
+     */
+    @Test
+    public void hashCodeDistributionTest()
+    {
+        final String message = "下位32ビットが共通の大きな分数同士のhashCodeが衝突しにくく，表現形式によらず等しい値は同じhashCodeとなること";
+        Set<Integer> hashes = new HashSet<>();
+        for(long i = 1; i <= 1000; i++)
+        {
+            hashes.add(new Fraction((i << 32) | 1L, 3L).hashCode());
+        }
+        Assert.assertEquals(message, hashes.size() >= 999, true);
+        Fraction large = new Fraction(BigInteger.ONE.shiftLeft(100).add(BigInteger.ONE), BigInteger.valueOf(3));
+        Fraction same = new Fraction(BigInteger.ONE.shiftLeft(101).add(BigInteger.valueOf(2)), BigInteger.valueOf(-6)).negate();
+        Assert.assertEquals(message, large.hashCode(), same.hashCode());
+        Assert.assertEquals(message, large.hashCode(), large.hashCode());
+        Assert.assertEquals(message, new Fraction(BigInteger.valueOf(6), BigInteger.valueOf(-4)).hashCode(),
+                            Fraction.valueOf(-3, 2).hashCode());
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の上限付近の分数同士で大小比較を正しく行えること
+     */
+    @Test
+    public void compareToNearLongLimitTest()
+    {
+        final String message = "long型の上限付近の分数同士で大小比較を正しく行えること";
+        Fraction frac1 = new Fraction(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        Fraction frac2 = new Fraction(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1);
+        Assert.assertTrue(message, frac1.compareTo(frac2) > 0);
+        Assert.assertTrue(message, frac2.compareTo(frac1) < 0);
+        Assert.assertTrue(message, frac1.multiply(-1).compareTo(frac2.multiply(-1)) < 0);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * long型の範囲を超える分数とも大小比較を正しく行えること
+     */
+    @Test
+    public void compareToBigFractionTest()
+    {
+        final String message = "long型の範囲を超える分数とも大小比較を正しく行えること";
+        BigInteger big = BigInteger.ONE.shiftLeft(100);
+        Fraction frac1 = new Fraction(big.add(BigInteger.ONE), big);
+        Fraction frac2 = new Fraction(big.add(BigInteger.valueOf(2)), big.add(BigInteger.ONE));
+        Assert.assertTrue(message, frac1.compareTo(frac2) > 0);
+        Assert.assertTrue(message, frac2.compareTo(frac1) < 0);
+        Assert.assertTrue(message, frac1.compareTo(new Fraction(1)) > 0);
+        Assert.assertTrue(message, new Fraction(-1).compareTo(frac1) < 0);
+        Assert.assertEquals(message, frac1.compareTo(new Fraction(big.add(BigInteger.ONE).shiftLeft(1), big.shiftLeft(1))), 0);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * valueOf()で分子・分母の小さな分数はキャッシュしたインスタンスが返されること
+     */
+    @Test
+    public void valueOfCachedTest()
+    {
+        final String message = "valueOf()で分子・分母の小さな分数はキャッシュしたインスタンスが返されること";
+        Assert.assertSame(message, Fraction.valueOf(0), Fraction.ZERO);
+        Assert.assertSame(message, Fraction.valueOf(0, -7), Fraction.ZERO);
+        Assert.assertSame(message, Fraction.valueOf(1), Fraction.ONE);
+        Assert.assertSame(message, Fraction.valueOf(-3, -6), Fraction.ONE_HALF);
+        Assert.assertSame(message, Fraction.valueOf(4, 16), Fraction.ONE_QUARTER);
+        Assert.assertSame(message, Fraction.ONE_THIRD.add(Fraction.ONE_THIRD.multiply(-2)).add(Fraction.ONE_THIRD), Fraction.ZERO);
+        Assert.assertEquals(message, Fraction.MINUS_ONE.toString(), "-1");
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * valueOf()で分子・分母の大きな分数も正しく生成できること
+     */
+    @Test
+    public void valueOfLargeTest()
+    {
+        final String message = "valueOf()で分子・分母の大きな分数も正しく生成できること";
+        Assert.assertEquals(message, Fraction.valueOf(100, 300), new Fraction(1, 3));
+        Assert.assertEquals(message, Fraction.valueOf(Long.MIN_VALUE, 2), new Fraction(Long.MIN_VALUE / 2));
+        Assert.assertEquals(message, Fraction.valueOf(17, 34).toString(), "(1 / 2)");
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * valueOf()に分母として0を与えるとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void valueOfWithZeroDenomialTest()
+    {
+        Fraction.valueOf(1, 0);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 分子・分母がdouble型の範囲を超えてもdoubleValue()が正しく丸めた値を返すこと
+     */
+    @Test
+    public void doubleValueLargeTest()
+    {
+        final String message = "分子・分母がdouble型の範囲を超えてもdoubleValue()が正しく丸めた値を返すこと";
+        BigInteger big = BigInteger.TEN.pow(400);
+        Assert.assertEquals(message, new Fraction(big, big.multiply(BigInteger.valueOf(3))).doubleValue(), 1.0d / 3.0d, 0.0d);
+        Assert.assertEquals(message, new Fraction(big.negate(), BigInteger.TEN.pow(399)).doubleValue(), -10.0d, 0.0d);
+        Assert.assertEquals(message, new Fraction(Long.MAX_VALUE, 3).doubleValue(), 3074457345618258602.0d, 0.0d);
+        Assert.assertEquals(message, new Fraction((1L << 53) + 1, 1).doubleValue(), 9007199254740992.0d, 0.0d);
+        Assert.assertEquals(message, new Fraction(BigInteger.ONE, BigInteger.ONE.shiftLeft(1074)).doubleValue(), Double.MIN_VALUE, 0.0d);
+        Assert.assertEquals(message, new Fraction(big, BigInteger.ONE).doubleValue(), Double.POSITIVE_INFINITY, 0.0d);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * longValue()がdouble型を経由せず正確な整数部を返すこと
+     */
+    @Test
+    public void longValueTest()
+    {
+        final String message = "longValue()がdouble型を経由せず正確な整数部を返すこと";
+        Assert.assertEquals(message, new Fraction(Long.MAX_VALUE - 1, 1).longValue(), Long.MAX_VALUE - 1);
+        Assert.assertEquals(message, new Fraction(-7, 2).longValue(), -3L);
+        BigInteger big = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(3));
+        Assert.assertEquals(message, new Fraction(big, BigInteger.valueOf(3)).longValue(), Long.MAX_VALUE);
+        Assert.assertEquals(message, new Fraction(-1000000007, 2).intValue(), -500000003);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 連分数展開と連分数からの生成が互いに逆変換となること
+     */
+    @Test
+    public void continuedFractionTest()
+    {
+        final String message = "連分数展開と連分数からの生成が互いに逆変換となること";
+        BigInteger[] terms = new Fraction(415, 93).toContinuedFraction();
+        Assert.assertArrayEquals(message, terms, new BigInteger[] { BigInteger.valueOf(4), BigInteger.valueOf(2), BigInteger.valueOf(6), BigInteger.valueOf(7) });
+        Assert.assertEquals(message, Fraction.ofContinuedFraction(terms), new Fraction(415, 93));
+        terms = new Fraction(-7, 3).toContinuedFraction();
+        Assert.assertArrayEquals(message, terms, new BigInteger[] { BigInteger.valueOf(-3), BigInteger.valueOf(1), BigInteger.valueOf(2) });
+        Assert.assertEquals(message, Fraction.ofContinuedFraction(terms), new Fraction(-7, 3));
+        Fraction big = new Fraction(BigInteger.TEN.pow(40).negate().add(BigInteger.ONE), BigInteger.valueOf(3).pow(80));
+        Assert.assertEquals(message, Fraction.ofContinuedFraction(big.toContinuedFraction()), big);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * limitDenominator()で分母が上限以下の最良近似分数が求められること
+     */
+    @Test
+    public void limitDenominatorTest()
+    {
+        final String message = "limitDenominator()で分母が上限以下の最良近似分数が求められること";
+        Fraction pi = new Fraction(314159265358979L, 100000000000000L);
+        Assert.assertEquals(message, pi.limitDenominator(10), new Fraction(22, 7));
+        Assert.assertEquals(message, pi.limitDenominator(1000), new Fraction(355, 113));
+        Assert.assertEquals(message, pi.multiply(-1).limitDenominator(1000), new Fraction(-355, 113));
+        Assert.assertEquals(message, new Fraction(3, 7).limitDenominator(7), new Fraction(3, 7));
+        BigInteger big = BigInteger.TEN.pow(60);
+        Fraction bigPi = new Fraction(big.multiply(BigInteger.valueOf(314159265358979L)).divide(BigInteger.valueOf(100000000000000L)), big);
+        Assert.assertEquals(message, bigPi.limitDenominator(1000), new Fraction(355, 113));
+        for(int den = 1; den <= 30; den++)
+        {
+            for(int num = -60; num <= 60; num++)
+            {
+                Fraction frac = new Fraction(num, den);
+                Fraction limited = frac.limitDenominator(5);
+                Fraction best = null;
+                for(int q = 1; q <= 5; q++)
+                {
+                    for(int p = -60; p <= 60; p++)
+                    {
+                        Fraction candidate = new Fraction(p, q);
+                        if(best == null || frac.subtract(candidate).abs().compareTo(frac.subtract(best).abs()) < 0) best = candidate;
+                    }
+                }
+                Assert.assertEquals(message, frac.subtract(limited).abs(), frac.subtract(best).abs());
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * of(double)で元のdouble値に戻る最も簡単な分数が得られること
+     */
+    @Test
+    public void ofDoubleTest()
+    {
+        final String message = "of(double)で元のdouble値に戻る最も簡単な分数が得られること";
+        Assert.assertEquals(message, Fraction.of(0.1), new Fraction(1, 10));
+        Assert.assertEquals(message, Fraction.of(-0.75), new Fraction(-3, 4));
+        Assert.assertEquals(message, Fraction.of(1.0 / 3.0), new Fraction(1, 3));
+        Assert.assertEquals(message, Fraction.of(0.0), Fraction.ZERO);
+        Assert.assertEquals(message, Fraction.of(1.0e10), Fraction.valueOf(10000000000L));
+        Assert.assertEquals(message, Fraction.of(1.0e22), new Fraction(new BigInteger("10000000000000000000000")));
+        Assert.assertEquals(message, Fraction.of(-1.0e22), new Fraction(new BigInteger("-10000000000000000000000")));
+        Assert.assertEquals(message, Fraction.of(9007199254740993.0), Fraction.valueOf(9007199254740992L));
+        Assert.assertEquals(message, Fraction.of(Double.MAX_VALUE), new Fraction(new BigDecimal(Double.MAX_VALUE).toBigInteger()));
+        Assert.assertEquals(message, Fraction.of(-Double.MAX_VALUE),
+                            new Fraction(new BigDecimal(-Double.MAX_VALUE).toBigInteger()));
+        Assert.assertEquals(message, Fraction.of(4503599627370495.5), new Fraction(9007199254740991L, 2L));
+        double[] values = { Math.PI, -Math.E, 1.0e-300, Double.MIN_VALUE, Double.MAX_VALUE, 123456.789 };
+        for(double value : values)
+        {
+            Assert.assertEquals(message, Fraction.of(value).doubleValue(), value, 0.0);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * of(double)に無限大を与えるとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void ofInfiniteTest()
+    {
+        Fraction.of(Double.POSITIVE_INFINITY);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * スケールが負の小数や桁数の多い小数を約分した分数に変換できること
+     */
+    @Test
+    public void ofScaledDecimalTest()
+    {
+        final String message = "スケールが負の小数や桁数の多い小数を約分した分数に変換できること";
+        Assert.assertEquals(message, Fraction.of(new BigDecimal("1E+3")), Fraction.valueOf(1000));
+        Assert.assertEquals(message, Fraction.of(new BigDecimal("-2.5E+1")), Fraction.valueOf(-25));
+        Assert.assertEquals(message, Fraction.of(new BigDecimal("0.0625")), new Fraction(1, 16));
+        Fraction frac = Fraction.of(new BigDecimal("12345678901234567890.123456789012345678900"));
+        Assert.assertEquals(message, frac.getDenominator(), BigInteger.TEN.pow(19));
+        Assert.assertEquals(message, frac.toBigDecimal(MathContext.UNLIMITED), new BigDecimal("12345678901234567890.1234567890123456789"));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * toBigDecimal()がBigDecimalの除算と同じ結果を返すこと
+     */
+    @Test
+    public void toBigDecimalTest()
+    {
+        final String message = "toBigDecimal()がBigDecimalの除算と同じ結果を返すこと";
+        Fraction frac = new Fraction(-2, 3);
+        Assert.assertEquals(message, frac.toBigDecimal(5, RoundingMode.HALF_UP), new BigDecimal("-0.66667"));
+        Assert.assertEquals(message, frac.toBigDecimal(5, RoundingMode.DOWN), new BigDecimal("-0.66666"));
+        Assert.assertEquals(message, frac.toBigDecimal(MathContext.DECIMAL64), new BigDecimal("-0.6666666666666667"));
+        Assert.assertEquals(message, new Fraction(1, 4).toBigDecimal(MathContext.DECIMAL32), new BigDecimal("0.25"));
+        Assert.assertEquals(message, new Fraction(19999, 2).toBigDecimal(new MathContext(3)), new BigDecimal("1.00E+4"));
+        Assert.assertEquals(message, new Fraction(12345).toBigDecimal(-2, RoundingMode.HALF_EVEN), new BigDecimal("1.23E+4"));
+        BigInteger big = BigInteger.TEN.pow(50);
+        frac = new Fraction(big.add(BigInteger.ONE), big.multiply(BigInteger.valueOf(3)));
+        Assert.assertEquals(message, frac.toBigDecimal(MathContext.DECIMAL128),
+                            new BigDecimal(frac.getNumerator()).divide(new BigDecimal(frac.getDenominator()), MathContext.DECIMAL128));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 有限小数とならない分数を精度0で変換するとArithmeticExceptionがスローされること
+     */
+    @Test(expected=ArithmeticException.class)
+    public void toBigDecimalUnlimitedTest()
+    {
+        new Fraction(1, 3).toBigDecimal(MathContext.UNLIMITED);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 整数との演算が分数同士の演算と同じ正規形の結果を返すこと
+     */
+    @Test
+    public void integerOperandTest()
+    {
+        final String message = "整数との演算が分数同士の演算と同じ正規形の結果を返すこと";
+        BigInteger big = BigInteger.ONE.shiftLeft(70).add(BigInteger.ONE);
+        Fraction[] fracs = { Fraction.ZERO, new Fraction(-3, 4), new Fraction(7, 6), new Fraction(Long.MAX_VALUE, 3),
+                             new Fraction(big, BigInteger.valueOf(6)), new Fraction(BigInteger.valueOf(5), big.negate()) };
+        long[] values = { 1, -1, 2, -6, 9, Long.MAX_VALUE, Long.MIN_VALUE };
+        for(Fraction frac : fracs)
+        {
+            for(long value : values)
+            {
+                Fraction other = new Fraction(value);
+                assertCanonical(message, frac.add(value), frac.add(other));
+                assertCanonical(message, frac.subtract(value), frac.subtract(other));
+                assertCanonical(message, frac.multiply(value), frac.multiply(other));
+                assertCanonical(message, frac.divide(value), frac.divide(other));
+                assertCanonical(message, frac.add(big), frac.add(new Fraction(big)));
+                assertCanonical(message, frac.subtract(big), frac.subtract(new Fraction(big)));
+                assertCanonical(message, frac.multiply(big.negate()), frac.multiply(new Fraction(big.negate())));
+                assertCanonical(message, frac.divide(big.negate()), frac.divide(new Fraction(big.negate())));
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * negate()とreciprocal()が正規形の結果を返すこと
+     */
+    @Test
+    public void negateAndReciprocalTest()
+    {
+        final String message = "negate()とreciprocal()が正規形の結果を返すこと";
+        assertCanonical(message, new Fraction(-3, 4).negate(), new Fraction(3, 4));
+        assertCanonical(message, new Fraction(-3, 4).reciprocal(), new Fraction(-4, 3));
+        assertCanonical(message, Fraction.valueOf(5).reciprocal(), new Fraction(1, 5));
+        assertCanonical(message, Fraction.ZERO.negate(), Fraction.ZERO);
+        BigInteger big = BigInteger.ONE.shiftLeft(63);
+        assertCanonical(message, new Fraction(big, BigInteger.valueOf(3)).negate(), new Fraction(big.negate(), BigInteger.valueOf(3)));
+        assertCanonical(message, new Fraction(big.negate(), BigInteger.valueOf(3)).reciprocal(), new Fraction(BigInteger.valueOf(-3), big));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0の逆数を求めるとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void reciprocalOfZeroTest()
+    {
+        Fraction.ZERO.reciprocal();
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * べき乗が乗算の繰り返しと一致し，正規形となること
+     */
+    @Test
+    public void powTest()
+    {
+        final String message = "べき乗が乗算の繰り返しと一致し，正規形となること";
+        assertCanonical(message, new Fraction(-2, 3).pow(3), new Fraction(-8, 27));
+        assertCanonical(message, new Fraction(-2, 3).pow(-2), new Fraction(9, 4));
+        assertCanonical(message, new Fraction(5, 7).pow(0), Fraction.ONE);
+        assertCanonical(message, Fraction.ZERO.pow(5), Fraction.ZERO);
+        assertCanonical(message, Fraction.MINUS_ONE.pow(Integer.MIN_VALUE), Fraction.ONE);
+        Fraction base = new Fraction(-1234567, 89);
+        Fraction expected = Fraction.ONE;
+        for(int e = 1; e <= 12; e++)
+        {
+            expected = expected.multiply(base);
+            assertCanonical(message, base.pow(e), expected);
+            assertCanonical(message, base.pow(-e), expected.reciprocal());
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0を負の指数で累乗すると例外となること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void powOfZeroTest()
+    {
+        Fraction.ZERO.pow(-1);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 平方根を正確に求められること，有理数とならない場合は例外となること
+     */
+    @Test
+    public void sqrtTest()
+    {
+        final String message = "平方根を正確に求められること，有理数とならない場合は例外となること";
+        assertCanonical(message, new Fraction(9, 16).sqrt(), new Fraction(3, 4));
+        assertCanonical(message, Fraction.ZERO.sqrt(), Fraction.ZERO);
+        Fraction large = new Fraction(BigInteger.TEN.pow(40).add(BigInteger.ONE), BigInteger.valueOf(7).pow(30));
+        assertCanonical(message, large.pow(2).sqrt(), large);
+        assertCanonical(message, new Fraction(3037000499L * 3037000499L).sqrt(), Fraction.valueOf(3037000499L));
+        assertCanonical(message, new Fraction(1L, 3037000499L * 3037000499L).sqrt(), new Fraction(1L, 3037000499L));
+        assertCanonical(message, new Fraction(3037000498L * 3037000498L).sqrt(), Fraction.valueOf(3037000498L));
+        for(long value : new long[] {Long.MAX_VALUE, Long.MAX_VALUE - 1L, 3037000499L * 3037000499L + 1L,
+                                     3037000499L * 3037000499L - 1L})
+        {
+            try
+            {
+                new Fraction(value).sqrt();
+                Assert.fail(message);
+            }
+            catch(ArithmeticException e)
+            {
+                // 平方数ではない
+            }
+        }
+        try
+        {
+            new Fraction(2, 9).sqrt();
+            Assert.fail(message);
+        }
+        catch(ArithmeticException e)
+        {
+            // 有理数とならない
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * n乗根を含む区間の端点が分母の格子上の切り捨て・切り上げとなること
+     */
+    @Test
+    public void nthRootTest()
+    {
+        final String message = "n乗根を含む区間の端点が分母の格子上の切り捨て・切り上げとなること";
+        FractionInterval root2 = Fraction.valueOf(2).sqrt(1000L);
+        Assert.assertEquals(message, root2, FractionInterval.of(new Fraction(1414, 1000), new Fraction(1415, 1000)));
+        Assert.assertEquals(message, new Fraction(8, 27).nthRoot(3, 10L).isPoint(), false);
+        Assert.assertEquals(message, new Fraction(8, 27).nthRoot(3, 3L), FractionInterval.of(new Fraction(2, 3)));
+        Assert.assertEquals(message, new Fraction(-8, 27).nthRoot(3, 3L), FractionInterval.of(new Fraction(-2, 3)));
+        FractionInterval negative = Fraction.valueOf(-5).nthRoot(5, 100L);
+        Assert.assertEquals(message, negative, FractionInterval.of(new Fraction(-138, 100), new Fraction(-137, 100)));
+        for(int degree = 1; degree <= 9; degree++)
+        {
+            Fraction x = new Fraction(BigInteger.TEN.pow(30).add(BigInteger.valueOf(degree)), BigInteger.valueOf(3));
+            FractionInterval interval = x.nthRoot(degree, 1L << 40);
+            Assert.assertEquals(message, interval.getLower().pow(degree).compareTo(x) <= 0, true);
+            Assert.assertEquals(message, interval.getUpper().pow(degree).compareTo(x) >= 0, true);
+            Assert.assertEquals(message, interval.width().compareTo(new Fraction(1L, 1L << 40)) <= 0, true);
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * floor・ceil・round・fractionalPartが整数部と小数部を正しく求めること
+     */
+    @Test
+    public void roundTest()
+    {
+        final String message = "floor・ceil・round・fractionalPartが整数部と小数部を正しく求めること";
+        Fraction value = new Fraction(-7, 2);
+        assertCanonical(message, value.floor(), Fraction.valueOf(-4));
+        assertCanonical(message, value.ceil(), Fraction.valueOf(-3));
+        assertCanonical(message, value.round(), Fraction.valueOf(-4));
+        assertCanonical(message, value.round(RoundingMode.HALF_EVEN), Fraction.valueOf(-4));
+        assertCanonical(message, value.round(RoundingMode.DOWN), Fraction.valueOf(-3));
+        assertCanonical(message, value.fractionalPart(), new Fraction(1, 2));
+        assertCanonical(message, Fraction.valueOf(5).fractionalPart(), Fraction.ZERO);
+        assertCanonical(message, new Fraction(5, 3).round(), Fraction.valueOf(2));
+        BigInteger big = BigInteger.TEN.pow(30);
+        Fraction large = new Fraction(big.multiply(BigInteger.valueOf(3)).add(BigInteger.ONE), BigInteger.valueOf(3));
+        assertCanonical(message, large.floor(), new Fraction(big));
+        assertCanonical(message, large.ceil(), new Fraction(big.add(BigInteger.ONE)));
+        assertCanonical(message, large.negate().floor(), new Fraction(big.add(BigInteger.ONE).negate()));
+        assertCanonical(message, large.fractionalPart(), new Fraction(1, 3));
+        assertCanonical(message, large.negate().fractionalPart(), new Fraction(2, 3));
+        Fraction huge = new Fraction(big.add(BigInteger.ONE), big.multiply(BigInteger.TEN));
+        assertCanonical(message, huge.negate().fractionalPart().add(huge), Fraction.ONE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * サブクラスの保護フィールドのテスト.
+     */
+    @Test
+    public void subclassFieldTest()
+    {
+        final String message = "サブクラスの保護フィールドのテスト";
+        DerivedFraction value = new DerivedFraction(2, -4);
+        Assert.assertEquals(message, value.numeratorField(), BigInteger.valueOf(-1));
+        Assert.assertEquals(message, value.denominatorField(), BigInteger.valueOf(2));
+        Assert.assertEquals(message, value, new Fraction(-1, 2));
+        Assert.assertEquals(message, new Fraction(-1, 2), value);
+        Assert.assertEquals(message, value.hashCode(), new Fraction(-1, 2).hashCode());
+        Assert.assertEquals(message, value.add(Fraction.ONE), new Fraction(1, 2));
+        Assert.assertEquals(message, new DerivedFraction(3, 1).numeratorField(), BigInteger.valueOf(3));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 値が等しく，分子・分母も同じ正規形であることを確認する.
+     * @param message メッセージ
+     * @param actual 結果
+     * @param expected 期待値
+     */
+    private static void assertCanonical(final String message, final Fraction actual, final Fraction expected)
+    {
+        Assert.assertEquals(message, actual, expected);
+        Assert.assertEquals(message, actual.getNumerator(), expected.getNumerator());
+        Assert.assertEquals(message, actual.getDenominator(), expected.getDenominator());
+    }
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * 保護フィールドを参照するサブクラス.
+     */
+    private static final class DerivedFraction extends Fraction
+    {
+        //------------------------------------------------------------------------------------------
+        /**
+         * コンストラクタ.
+         * @param numerator 分子
+         * @param denominator 分母
+         */
+        DerivedFraction(final long numerator, final long denominator)
+        {
+            super(numerator, denominator);
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 分子フィールドを取得する.
+         * @return 分子フィールド
+         */
+        BigInteger numeratorField()
+        {
+            return numerator;
+        }
+        //------------------------------------------------------------------------------------------
+        /**
+         * 分母フィールドを取得する.
+         * @return 分母フィールド
+         */
+        BigInteger denominatorField()
+        {
+            return denominator;
+        }
+    }
 }
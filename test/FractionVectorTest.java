@@ -0,0 +1,71 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * FractionVectorクラスのテスト.
+ * @author 久保　由仁
+ */
+public class FractionVectorTest
+{
+    /**
+     * 設定した要素を取得できること
+     */
+    @Test
+    public void getAndSetTest()
+    {
+        final String message = "設定した要素を取得できること";
+        FractionVector vector = new FractionVector(3);
+        Fraction big = new Fraction(BigInteger.ONE.shiftLeft(80), BigInteger.valueOf(3));
+        vector.set(1, new Fraction(2, 4));
+        vector.set(2, big);
+        Assert.assertArrayEquals(message, vector.toArray(), new Fraction[] { Fraction.ZERO, Fraction.ONE_HALF, big });
+        vector.set(2, Fraction.ONE);
+        Assert.assertEquals(message, vector.get(2), Fraction.ONE);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素ごとの加算・乗算がFractionの演算結果と一致すること
+     */
+    @Test
+    public void elementWiseTest()
+    {
+        final String message = "要素ごとの加算・乗算がFractionの演算結果と一致すること";
+        Fraction[] values1 = { new Fraction(1, 2), new Fraction(-2, 3), new Fraction(Long.MAX_VALUE, 2), new Fraction(0) };
+        Fraction[] values2 = { new Fraction(1, 3), new Fraction(3, 4), new Fraction(Long.MAX_VALUE, 3), new Fraction(5, 7) };
+        FractionVector sum = FractionVector.of(values1).add(FractionVector.of(values2));
+        FractionVector product = FractionVector.of(values1).multiply(FractionVector.of(values2));
+        for(int i = 0; i < values1.length; i++)
+        {
+            Assert.assertEquals(message, sum.get(i), values1[i].add(values2[i]));
+            Assert.assertEquals(message, product.get(i), values1[i].multiply(values2[i]));
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 定数倍と合計が正しく求められること
+     */
+    @Test
+    public void scaleAndSumTest()
+    {
+        final String message = "定数倍と合計が正しく求められること";
+        FractionVector vector = FractionVector.of(new Fraction(1, 2), new Fraction(1, 3), new Fraction(1, 6));
+        Assert.assertEquals(message, vector.sum(), Fraction.ONE);
+        vector.scale(new Fraction(-6, 5));
+        Assert.assertEquals(message, vector.get(0), new Fraction(-3, 5));
+        Assert.assertEquals(message, vector.sum(), new Fraction(-6, 5));
+        vector.scale(new Fraction(BigInteger.ONE.shiftLeft(70)));
+        Assert.assertEquals(message, vector.sum(), new Fraction(BigInteger.valueOf(-6).shiftLeft(70), BigInteger.valueOf(5)));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 要素数が異なる配列同士で演算するとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void sizeMismatchTest()
+    {
+        new FractionVector(2).add(new FractionVector(3));
+    }
+}
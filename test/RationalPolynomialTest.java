@@ -0,0 +1,130 @@
+////////////////////////////////////////////////////////////////////////////////////////////////////
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+////////////////////////////////////////////////////////////////////////////////////////////////////
+/**
+ * RationalPolynomialクラスのテスト.
+ * @author 久保　由仁
+ */
+public class RationalPolynomialTest
+{
+    /**
+     * ランダムな係数の多項式を生成する.
+     * @param rand 乱数
+     * @param degree 次数
+     * @return 生成した多項式
+     */
+    private static RationalPolynomial createRandom(final Random rand, final int degree)
+    {
+        Fraction[] coefficients = new Fraction[degree + 1];
+        for(int i = 0; i <= degree; i++)
+        {
+            coefficients[i] = new Fraction(rand.nextInt(41) - 20, rand.nextInt(12) + 1);
+        }
+        if(coefficients[degree].signum() == 0) coefficients[degree] = Fraction.ONE;
+        return RationalPolynomial.of(coefficients);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 評価・加減算・導関数が係数ごとのFraction演算と一致すること
+     */
+    @Test
+    public void evaluateTest()
+    {
+        final String message = "評価・加減算・導関数が係数ごとのFraction演算と一致すること";
+        RationalPolynomial p = RationalPolynomial.of(Fraction.ONE, new Fraction(-1, 2), new Fraction(3, 4));
+        Assert.assertEquals(message, p.toString(), "3/4*x^2 - 1/2*x + 1");
+        Assert.assertEquals(message, p.evaluate(new Fraction(2, 3)), new Fraction(1, 1));
+        Assert.assertEquals(message, p.derivative(), RationalPolynomial.of(new Fraction(-1, 2), new Fraction(3, 2)));
+        Assert.assertEquals(message, p.subtract(p), RationalPolynomial.ZERO);
+        Assert.assertEquals(message, p.add(RationalPolynomial.X).coefficient(1), new Fraction(1, 2));
+        Assert.assertEquals(message, p.multiply(new Fraction(4, 3)).coefficient(2), Fraction.ONE);
+        Fraction[] points = new Fraction[5000];
+        for(int i = 0; i < points.length; i++)
+        {
+            points[i] = new Fraction(i - 2500, 7);
+        }
+        Fraction[] values = p.evaluate(points);
+        for(int i = 0; i < points.length; i += 97)
+        {
+            Fraction x = points[i];
+            Assert.assertEquals(message, values[i], x.multiply(x).multiply(new Fraction(3, 4)).subtract(x.divide(2)).add(1));
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * Karatsuba法による乗算が値の積と一致すること
+     */
+    @Test
+    public void multiplyTest()
+    {
+        final String message = "Karatsuba法による乗算が値の積と一致すること";
+        Random rand = new Random(18);
+        int[][] degrees = { { 3, 5 }, { 40, 40 }, { 70, 33 }, { 100, 31 }, { 129, 64 } };
+        for(int[] degree : degrees)
+        {
+            RationalPolynomial a = createRandom(rand, degree[0]);
+            RationalPolynomial b = createRandom(rand, degree[1]);
+            RationalPolynomial product = a.multiply(b);
+            Assert.assertEquals(message, product.degree(), degree[0] + degree[1]);
+            for(int i = 0; i < 5; i++)
+            {
+                Fraction x = new Fraction(rand.nextInt(21) - 10, rand.nextInt(5) + 1);
+                Assert.assertEquals(message, product.evaluate(x), a.evaluate(x).multiply(b.evaluate(x)));
+            }
+        }
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 剰余付き除算と最大公約数が正しく求められること
+     */
+    @Test
+    public void divideAndGcdTest()
+    {
+        final String message = "剰余付き除算と最大公約数が正しく求められること";
+        Random rand = new Random(81);
+        RationalPolynomial common = createRandom(rand, 3);
+        RationalPolynomial a = createRandom(rand, 6).multiply(common);
+        RationalPolynomial b = createRandom(rand, 4).multiply(common);
+        RationalPolynomial[] division = a.divideAndRemainder(b);
+        Assert.assertTrue(message, division[1].degree() < b.degree());
+        Assert.assertEquals(message, division[0].multiply(b).add(division[1]), a);
+        RationalPolynomial gcd = a.gcd(b);
+        Assert.assertEquals(message, gcd.degree(), 3);
+        Assert.assertEquals(message, gcd.coefficient(3), Fraction.ONE);
+        Assert.assertEquals(message, common.remainder(gcd), RationalPolynomial.ZERO);
+        Assert.assertEquals(message, b.divideAndRemainder(a)[0], RationalPolynomial.ZERO);
+        Assert.assertEquals(message, RationalPolynomial.ZERO.gcd(b.multiply(new Fraction(5))), b.multiply(Fraction.ONE.divide(b.coefficient(b.degree()))));
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 補間多項式が与えた点を通ること
+     */
+    @Test
+    public void interpolateTest()
+    {
+        final String message = "補間多項式が与えた点を通ること";
+        Fraction[] xs = { Fraction.ZERO, Fraction.ONE, new Fraction(-1, 2), Fraction.valueOf(3) };
+        Fraction[] ys = { Fraction.ONE, new Fraction(2, 3), Fraction.valueOf(5), new Fraction(-7, 4) };
+        RationalPolynomial p = RationalPolynomial.interpolate(xs, ys);
+        Assert.assertTrue(message, p.degree() <= 3);
+        for(int i = 0; i < xs.length; i++)
+        {
+            Assert.assertEquals(message, p.evaluate(xs[i]), ys[i]);
+        }
+        Assert.assertEquals(message, RationalPolynomial.interpolate(new Fraction[] { Fraction.ONE, Fraction.valueOf(2) },
+                                                                     new Fraction[] { Fraction.ONE, Fraction.valueOf(2) }),
+                            RationalPolynomial.X);
+    }
+    //----------------------------------------------------------------------------------------------
+    /**
+     * 0の多項式で割るとIllegalArgumentExceptionがスローされること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void divideByZeroTest()
+    {
+        RationalPolynomial.X.divide(RationalPolynomial.ZERO);
+    }
+}